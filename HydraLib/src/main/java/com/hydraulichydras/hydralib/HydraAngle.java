@@ -19,6 +19,26 @@ public class HydraAngle {
     /** The type of angle representation. */
     private static final double TAU = (Math.PI * 2);
 
+    // Number of angle types, used to index the conversion tables
+    private static final int TYPES = HydraAngleType.values().length;
+
+    // Conversion from type i to type j is SIGN[i * TYPES + j] * angle + OFFSET[i * TYPES + j], then wrapped.
+    // Heading and Cartesian angles are related by heading = 90 - cartesian; the numerical system only affects wrapping
+    private static final double[] SIGN = new double[TYPES * TYPES];
+    private static final double[] OFFSET = new double[TYPES * TYPES];
+
+    static {
+        HydraAngleType[] types = HydraAngleType.values();
+        for (HydraAngleType from : types) {
+            for (HydraAngleType to : types) {
+                int i = from.ordinal() * TYPES + to.ordinal();
+                boolean flip = !sameCoordinateSystem(from, to);
+                SIGN[i] = flip ? -1.0 : 1.0;
+                OFFSET[i] = flip ? 90.0 : 0.0;
+            }
+        }
+    }
+
     /**
      * Constructs a HydraAngle object with the given angle and type.
      *
@@ -26,11 +46,10 @@ public class HydraAngle {
      * @param type  The type of angle representation.
      */
     public HydraAngle (double angle, HydraAngleType type) {
-        this.angle = angle;
         this.type = type;
 
         //handles case of input angle outside of range (ex. angle = 600)
-        this.angle = convertAngleDouble(type);
+        this.angle = wrap(angle, type);
     }
 
     /**
@@ -40,7 +59,7 @@ public class HydraAngle {
      * @return The angle value.
      */
     public double getAngle (HydraAngleType type) {
-        return this.convertAngle(type).getAngle();
+        return convert(angle, this.type, type);
     }
 
     /**
@@ -64,7 +83,108 @@ public class HydraAngle {
      * @return The angle in the specified type.
      */
     public HydraAngle convertAngle (HydraAngleType outputType) {
-        return new HydraAngle (convertAngleDouble(outputType), outputType);
+        return new HydraAngle (convert(angle, type, outputType), outputType);
+    }
+
+    /**
+     * Converts an angle between any two types without creating objects. Assumes Degrees for input and output.
+     *
+     * @param angle      The angle value.
+     * @param inputType  The type of the input angle.
+     * @param outputType The type of angle representation to convert to.
+     * @return The angle in the output type, within its range.
+     */
+    public static double convert (double angle, HydraAngleType inputType, HydraAngleType outputType) {
+        int i = inputType.ordinal() * TYPES + outputType.ordinal();
+        return wrap(SIGN[i] * angle + OFFSET[i], outputType);
+    }
+
+    /**
+     * Wraps an angle into the range of a type: [0, 360) or (-180, 180].
+     *
+     * @param angle The angle value (in degrees).
+     * @param type  The type whose range to wrap into.
+     * @return The wrapped angle.
+     */
+    public static double wrap (double angle, HydraAngleType type) {
+        double wrapped = angle % 360;
+        if (isZeroTo360(type)) {
+            if (wrapped < 0) {
+                wrapped += 360;
+            }
+            // Tiny negative inputs round up to exactly 360
+            return wrapped == 360 ? 0 : wrapped;
+        }
+        if (wrapped > 180) {
+            wrapped -= 360;
+        } else if (wrapped <= -180) {
+            wrapped += 360;
+        }
+        return wrapped;
+    }
+
+    /**
+     * Gets the absolute difference between two angles without creating objects.
+     * Min return value is 0 and Max return value is 180.
+     *
+     * @param angle1 The first angle value.
+     * @param type1  The type of the first angle.
+     * @param angle2 The second angle value.
+     * @param type2  The type of the second angle.
+     * @return The absolute difference between the angles.
+     */
+    public static double difference (double angle1, HydraAngleType type1, double angle2, HydraAngleType type2) {
+        double rawDiff = Math.abs(convert(angle2, type2, HydraAngleType.ZERO_TO_360_CARTESIAN)
+                - convert(angle1, type1, HydraAngleType.ZERO_TO_360_CARTESIAN));
+        return rawDiff > 180 ? 360 - rawDiff : rawDiff;
+    }
+
+    /**
+     * Determines the shorter direction of travel from one angle to another without creating objects.
+     *
+     * @param angle1 The starting angle value.
+     * @param type1  The type of the starting angle.
+     * @param angle2 The target angle value.
+     * @param type2  The type of the target angle.
+     * @return The direction of travel.
+     */
+    public static HydraAngleDirection direction (double angle1, HydraAngleType type1, double angle2, HydraAngleType type2) {
+        double from = convert(angle1, type1, HydraAngleType.ZERO_TO_360_CARTESIAN);
+        double to = convert(angle2, type2, HydraAngleType.ZERO_TO_360_CARTESIAN);
+        boolean increasing = to > from;
+        if (Math.abs(to - from) > 180) {
+            increasing = !increasing;
+        }
+        return increasing ? HydraAngleDirection.COUNTER_CLOCKWISE : HydraAngleDirection.CLOCKWISE;
+    }
+
+    /**
+     * Rotates an angle by the specified amount and direction without creating objects.
+     *
+     * @param angle     The angle value.
+     * @param type      The type of the angle, also used for the result.
+     * @param degrees   The amount of rotation in degrees.
+     * @param direction The direction of rotation.
+     * @return The rotated angle.
+     */
+    public static double rotate (double angle, HydraAngleType type, double degrees, HydraAngleDirection direction) {
+        double heading = convert(angle, type, HydraAngleType.ZERO_TO_360_HEADING);
+        heading += direction == HydraAngleDirection.CLOCKWISE ? degrees : -degrees;
+        return convert(heading, HydraAngleType.ZERO_TO_360_HEADING, type);
+    }
+
+    /**
+     * Computes the average of two angles without creating objects.
+     *
+     * @param angle1 The first angle value.
+     * @param type1  The type of the first angle, also used for the result.
+     * @param angle2 The second angle value.
+     * @param type2  The type of the second angle.
+     * @return The average angle.
+     */
+    public static double average (double angle1, HydraAngleType type1, double angle2, HydraAngleType type2) {
+        double difference = difference(angle1, type1, angle2, type2);
+        return rotate(angle1, type1, difference / 2.0, direction(angle1, type1, angle2, type2));
     }
 
     /**
@@ -104,25 +224,7 @@ public class HydraAngle {
      * @return The angle value in the specified type.
      */
     public double convertAngleDouble (HydraAngleType outputType) {
-        //handles case of same input and output type
-        if (type == outputType) {
-            return wrapAngle(this.getAngle(), outputType); // was new Angle(angle, type)
-        }
-
-        if (sameNumericalSystem(type, outputType)) {
-            return convertCoordinateSystem(angle, type, outputType);
-        }
-        else if (sameCoordinateSystem(type, outputType)) {
-            return convertNumericalSystem(angle, type, outputType);
-        }
-        else {
-            //even though input and output types are not true to the type of intermediate angle...
-            // they have the correct important characteristic (numerical or coordinate)
-            double angleNewNumericalSystem = convertNumericalSystem(angle, type, numericalAndCoordinate(outputType, type)); //was type, output type
-            return convertCoordinateSystem(angleNewNumericalSystem,
-                    numericalAndCoordinate(outputType, type),
-                    outputType);
-        }
+        return convert(angle, type, outputType);
     }
 
     /**
@@ -133,14 +235,7 @@ public class HydraAngle {
      * @return The absolute difference between the angles.
      */
     public double getDifference (HydraAngle other) {
-        HydraAngle otherConverted = other.convertAngle(HydraAngleType.ZERO_TO_360_CARTESIAN);
-        HydraAngle thisConverted = this.convertAngle(HydraAngleType.ZERO_TO_360_CARTESIAN);
-
-        double rawDiff = Math.abs(otherConverted.getAngle() - thisConverted.getAngle());
-        if (rawDiff > 180) {
-            return 360 - rawDiff; //will be positive bc 360 is max rawDiff
-        }
-        return rawDiff; //number between  0 and 180
+        return difference(angle, type, other.angle, other.type);
     }
 
     /**
@@ -150,23 +245,7 @@ public class HydraAngle {
      * @return The direction of travel.
      */
     public HydraAngleDirection directionTo (HydraAngle other) {
-        HydraAngle otherConverted = other.convertAngle(HydraAngleType.ZERO_TO_360_CARTESIAN);
-        HydraAngle thisConverted = this.convertAngle(HydraAngleType.ZERO_TO_360_CARTESIAN);
-
-        double rawDiff = Math.abs(otherConverted.getAngle() - thisConverted.getAngle());
-        if (rawDiff > 180) {
-            if (otherConverted.getAngle() > thisConverted.getAngle()) {
-                return HydraAngleDirection.CLOCKWISE;
-            } else {
-                return HydraAngleDirection.COUNTER_CLOCKWISE;
-            }
-        } else {
-            if (otherConverted.getAngle() > thisConverted.getAngle()) {
-                return HydraAngleDirection.COUNTER_CLOCKWISE;
-            } else {
-                return HydraAngleDirection.CLOCKWISE;
-            }
-        }
+        return direction(angle, type, other.angle, other.type);
     }
 
 
@@ -180,14 +259,7 @@ public class HydraAngle {
      * @return The rotated angle.
      */
     public HydraAngle rotateBy (double degrees, HydraAngleDirection direction) {
-        HydraAngle thisConverted = this.convertAngle(HydraAngleType.ZERO_TO_360_HEADING);
-        double newAngle;
-        if (direction == HydraAngleDirection.CLOCKWISE) {
-            newAngle = thisConverted.getAngle() + degrees;
-        } else {
-            newAngle = thisConverted.getAngle() - degrees;
-        }
-        return new HydraAngle(newAngle, HydraAngleType.ZERO_TO_360_HEADING).convertAngle(this.type);
+        return new HydraAngle(rotate(angle, type, degrees, direction), type);
     }
 
     /**
@@ -208,9 +280,7 @@ public class HydraAngle {
      * @return The average angle.
      */
     public static HydraAngle getAverageAngle (HydraAngle angle1, HydraAngle angle2) {
-        double difference = angle1.getDifference(angle2);
-        HydraAngleDirection direction = angle1.directionTo(angle2);
-        return angle1.rotateBy(difference/2.0, direction);
+        return new HydraAngle(average(angle1.angle, angle1.type, angle2.angle, angle2.type), angle1.type);
     }
 
     /** INTERNAL METHODS **/
@@ -0,0 +1,15 @@
+package com.hydraulichydras.hydralib;
+
+/**
+ * Enumeration representing how a HydraPIDFController keeps its integral from winding up while the output is saturated.
+ */
+public enum HydraAntiWindup {
+    /** The integral accumulates without limit. */
+    NONE,
+
+    /** The integral stops accumulating while the output is saturated in the direction of the error. */
+    CLAMPING,
+
+    /** The integral is driven back by the amount the output exceeds its limits. */
+    BACK_CALCULATION
+}
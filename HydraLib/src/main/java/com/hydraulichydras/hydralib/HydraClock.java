@@ -0,0 +1,55 @@
+package com.hydraulichydras.hydralib;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Time source shared by every time-dependent part of the library.
+ * Defaults to {@link System#nanoTime()}, but can be swapped for another source so that code can be
+ * simulated or replayed without depending on the wall clock.
+ */
+public final class HydraClock {
+
+    // Default time source
+    private static final LongSupplier SYSTEM_TIME = System::nanoTime;
+
+    // Current time source, read from the loop thread and any background threads
+    private static volatile LongSupplier source = SYSTEM_TIME;
+
+    // Private constructor to prevent instantiation
+    private HydraClock() {
+    }
+
+    /**
+     * Gets the current time.
+     *
+     * @return The current time in nanoseconds.
+     */
+    public static long nanoTime() {
+        return source.getAsLong();
+    }
+
+    /**
+     * Gets the current time.
+     *
+     * @return The current time in seconds.
+     */
+    public static double seconds() {
+        return source.getAsLong() * 1e-9;
+    }
+
+    /**
+     * Replaces the time source used by the library.
+     *
+     * @param timeSource Supplier returning the current time in nanoseconds.
+     */
+    public static void setSource(LongSupplier timeSource) {
+        source = timeSource;
+    }
+
+    /**
+     * Restores the default {@link System#nanoTime()} time source.
+     */
+    public static void useSystemTime() {
+        source = SYSTEM_TIME;
+    }
+}
@@ -1,6 +1,7 @@
 package com.hydraulichydras.hydralib;
 
 import java.util.*;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 
 /**
@@ -31,6 +32,9 @@ public final class HydraCommandMachine {
     // Collection to store buttons that trigger commands
     private final Collection<Runnable> buttons = new LinkedHashSet<>();
 
+    // Condition under which buttons are polled; null polls every loop
+    private BooleanSupplier buttonGate;
+
     // Flag indicating if the robot is disabled
     private boolean disabled;
 
@@ -63,6 +67,18 @@ public final class HydraCommandMachine {
         buttons.clear();
     }
 
+    /**
+     * Sets a condition that must hold for buttons to be polled in a loop, such as
+     * {@link HydraPSController#hasNewPacket()}, so bindings are skipped while no new input has arrived.
+     * Only use this when every button is driven by the gated input: edge bindings then lose nothing, but
+     * continuous bindings are re-evaluated only when input arrives.
+     *
+     * @param gate The condition, or null to poll buttons every loop.
+     */
+    public void setButtonGate(BooleanSupplier gate) {
+        buttonGate = gate;
+    }
+
     // Initializes a command and adds it to the scheduled commands
     private void initCommand(HydraCommand command, boolean disrupt, Set<HydraSubsystem> requirements) {
         command.initialize();
@@ -126,20 +142,31 @@ public final class HydraCommandMachine {
         schedule(true, commands);
     }
 
-    // Runs the command machine
-    public void run() {
+    // Runs the periodic method of all registered subsystems without running any commands
+    public void runSubsystems() {
         if (disabled) {
             return;
         }
 
-        // Run the periodic method of all registered subsystems
         for (HydraSubsystem subsystem : this.subsystems.keySet()) {
             subsystem.periodic();
         }
+    }
+
+    // Runs the command machine
+    public void run() {
+        if (disabled) {
+            return;
+        }
+
+        // Run the periodic method of all registered subsystems
+        runSubsystems();
 
         // Poll buttons for new commands to add
-        for (Runnable button : buttons) {
-            button.run();
+        if (buttonGate == null || buttonGate.getAsBoolean()) {
+            for (Runnable button : buttons) {
+                button.run();
+            }
         }
 
         inRunLoop = true;
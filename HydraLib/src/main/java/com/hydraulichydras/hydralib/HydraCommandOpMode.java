@@ -2,21 +2,66 @@ package com.hydraulichydras.hydralib;
 
 import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Abstract class representing an OpMode designed to run Hydra commands.
+ * <p>
+ * Expensive preparation (trajectory generation, lookup tables, hardware discovery) can be handed to
+ * {@link #submitInitTask(String, Callable)} from {@link #initialize()}. The tasks run on background threads while the
+ * init loop keeps running subsystems and {@link #initLoop()}, and their progress is shown on telemetry. When start is
+ * pressed the OpMode waits up to the init timeout for unfinished tasks and reports whether everything is ready. If
+ * stop is pressed instead, the OpMode does not wait and unfinished tasks are interrupted.
+ * <p>
+ * The init loop only runs when init tasks were submitted or it was enabled with {@link #setInitLoopEnabled(boolean)}.
+ * Otherwise the OpMode waits for start without running subsystems, so {@link HydraSubsystem#periodic()} code is not
+ * executed before start.
  */
 public abstract class HydraCommandOpMode extends LinearOpMode {
 
     // Flag indicating if the robot is disabled
     public static boolean isDisabled = false;
 
-    // Resets the command machine instance
+    // Number of background threads used for init tasks
+    private static final int INIT_THREADS = 2;
+
+    // Background init tasks by name, and the executor running them
+    private final Map<String, Future<?>> initTasks = new LinkedHashMap<>();
+    private ExecutorService initExecutor;
+
+    // How long to wait for init tasks after start is pressed (in milliseconds)
+    private long initTimeout = 2000;
+
+    // Whether every init task finished successfully before the timeout
+    private boolean initReady = true;
+
+    // Whether the init loop runs even without init tasks
+    private boolean initLoopEnabled = false;
+
+    // Resets the command machine and loop cache instances, and stops any init tasks still running
     public void reset() {
         HydraCommandMachine.getInstance().reset();
+        HydraLoopCache.getInstance().reset();
+        if (initExecutor != null) {
+            initExecutor.shutdownNow();
+            initExecutor = null;
+        }
+        initTasks.clear();
     }
 
-    // Runs the command machine
+    // Starts a new loop in the loop cache and runs the command machine
     public void run() {
+        HydraLoopCache.getInstance().update();
         HydraCommandMachine.getInstance().run();
     }
 
@@ -30,24 +75,163 @@ public abstract class HydraCommandOpMode extends LinearOpMode {
         HydraCommandMachine.getInstance().registerHydraSubsystem(subsystems);
     }
 
+    /**
+     * Submits an expensive preparation task to run in the background during init.
+     * The task must not touch hardware or command machine state used by the init loop.
+     *
+     * @param name The name shown on telemetry while the task runs. Must be unique among the submitted tasks.
+     * @param task The task to run.
+     * @return The future holding the task's result.
+     * @throws IllegalArgumentException If a task with the same name was already submitted.
+     */
+    public <T> Future<T> submitInitTask(String name, Callable<T> task) {
+        if (initTasks.containsKey(name)) {
+            throw new IllegalArgumentException("Init task already submitted: " + name);
+        }
+        if (initExecutor == null || initExecutor.isShutdown()) {
+            final AtomicInteger count = new AtomicInteger();
+            initExecutor = Executors.newFixedThreadPool(INIT_THREADS, runnable -> {
+                Thread thread = new Thread(runnable, "HydraInit-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        Future<T> future = initExecutor.submit(task);
+        initTasks.put(name, future);
+        return future;
+    }
+
+    /**
+     * Sets how long to wait for unfinished init tasks after start is pressed.
+     *
+     * @param seconds The timeout (in seconds).
+     */
+    public void setInitTimeout(double seconds) {
+        initTimeout = (long) (seconds * 1000);
+    }
+
+    /**
+     * Sets whether the init loop runs when no init tasks were submitted. When enabled, subsystems and
+     * {@link #initLoop()} run from the end of {@link #initialize()} until start is pressed.
+     *
+     * @param enabled true to always run the init loop.
+     */
+    public void setInitLoopEnabled(boolean enabled) {
+        initLoopEnabled = enabled;
+    }
+
+    /**
+     * Checks whether every init task finished successfully before the timeout.
+     */
+    public boolean isInitReady() {
+        return initReady;
+    }
+
     // Overrides the runOpMode method of LinearOpMode
     @Override
     public void runOpMode() throws InterruptedException {
-        initialize(); // Initializes the OpMode
+        try {
+            initialize(); // Initializes the OpMode
 
-        waitForStart(); // Waits for the start command from the driver station
+            // Runs subsystems and the init loop while background tasks prepare, if there are any or the loop is enabled
+            if (initLoopEnabled || !initTasks.isEmpty()) {
+                while (opModeInInit()) {
+                    HydraLoopCache.getInstance().update();
+                    HydraCommandMachine.getInstance().runSubsystems();
+                    initLoop();
+                    if (!initTasks.isEmpty()) {
+                        reportInitTasks();
+                        telemetry.update();
+                    }
+                    idle();
+                }
+            }
 
-        // Runs the command machine until stop is requested or the OpMode is inactive
-        while (!isStopRequested() && opModeIsActive()) {
-            run(); // Executes the command machine
-        }
+            waitForStart(); // Waits for the start command from the driver station
+
+            awaitInitTasks(); // Waits for background tasks to finish
 
-        reset(); // Resets the command machine
+            // Runs the command machine until stop is requested or the OpMode is inactive
+            while (!isStopRequested() && opModeIsActive()) {
+                run(); // Executes the command machine
+            }
+        } finally {
+            reset(); // Resets the command machine and interrupts init tasks still running
+        }
     }
 
     // Abstract method to be implemented by subclasses to initialize the OpMode
     public abstract void initialize();
 
+    // Called every init loop after subsystems run, for sensors and telemetry; does nothing by default
+    public void initLoop() {
+    }
+
+    // Adds the status of each init task to telemetry
+    private void reportInitTasks() {
+        for (Map.Entry<String, Future<?>> task : initTasks.entrySet()) {
+            telemetry.addData(task.getKey(), getStatus(task.getValue()));
+        }
+    }
+
+    // Describes the state of an init task
+    private static String getStatus(Future<?> future) {
+        if (!future.isDone()) {
+            return "running";
+        }
+        if (future.isCancelled()) {
+            return "cancelled";
+        }
+        try {
+            future.get();
+            return "ready";
+        } catch (ExecutionException e) {
+            return "failed: " + e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "interrupted";
+        }
+    }
+
+    // Waits up to the init timeout for all init tasks and reports readiness; stops them instead if stop was pressed
+    private void awaitInitTasks() {
+        if (initTasks.isEmpty()) {
+            return;
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(initTimeout);
+        initReady = true;
+        for (Future<?> future : initTasks.values()) {
+            if (isStopRequested()) {
+                initReady = false;
+                break;
+            }
+            try {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException | TimeoutException e) {
+                initReady = false;
+            } catch (InterruptedException e) {
+                // Stop was requested while waiting
+                Thread.currentThread().interrupt();
+                initReady = false;
+                break;
+            } catch (CancellationException e) {
+                initReady = false;
+            }
+        }
+
+        // Interrupt unfinished tasks when stopping, otherwise let them finish but accept no new ones
+        if (isStopRequested() || Thread.currentThread().isInterrupted()) {
+            initExecutor.shutdownNow();
+            return;
+        }
+        initExecutor.shutdown();
+
+        telemetry.addData("Init", initReady ? "ready" : "not ready");
+        reportInitTasks();
+        telemetry.update();
+    }
+
     // Disables the robot
     public static void disable() {
         isDisabled = true;
@@ -58,4 +242,4 @@ public abstract class HydraCommandOpMode extends LinearOpMode {
         isDisabled = false;
     }
 
-}
\ No newline at end of file
+}
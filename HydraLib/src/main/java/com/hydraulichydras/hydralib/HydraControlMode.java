@@ -0,0 +1,12 @@
+package com.hydraulichydras.hydralib;
+
+/**
+ * Enumeration representing where a HydraControlledMotor runs its feedback loop.
+ */
+public enum HydraControlMode {
+    /** PIDF runs on the Control Hub CPU: an encoder read and a power write every loop. */
+    HOST,
+
+    /** PIDF runs on the Lynx hub firmware: only setpoint changes are sent. */
+    HUB
+}
@@ -0,0 +1,12 @@
+package com.hydraulichydras.hydralib;
+
+/**
+ * Enumeration representing the quantity a HydraControlledMotor controls.
+ */
+public enum HydraControlTarget {
+    /** Encoder position (in ticks). */
+    POSITION,
+
+    /** Encoder velocity (in ticks per second). */
+    VELOCITY
+}
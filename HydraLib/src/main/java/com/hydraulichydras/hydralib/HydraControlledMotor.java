@@ -0,0 +1,250 @@
+package com.hydraulichydras.hydralib;
+
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+
+/**
+ * A motor under closed-loop position or velocity control, run either on the host or on the hub.
+ * <p>
+ * In {@link HydraControlMode#HOST} mode a {@link HydraPIDFController} runs in {@link #update()}, reading the encoder
+ * and writing a power every loop. In {@link HydraControlMode#HUB} mode the gains are pushed to the Lynx hub's
+ * built-in PIDF and {@link #update()} only sends the setpoint when it changes. The mode can be switched at runtime.
+ * <p>
+ * Every hardware call made by this class is counted, along with the time spent in {@link #update()}, so the two
+ * modes can be compared on the robot. Hub gains use the SDK's units, which differ from host gains in power per
+ * tick; {@link #setHubCoefficients(HydraPIDCoefficients)} allows tuning them separately. Hub position control only
+ * uses kP.
+ * <p>
+ * In host mode the output can be scaled by the battery voltage compensation published by {@link HydraLoopCache}, so
+ * gains tuned on a full battery hold on a drained one. The hub compensates its own velocity control.
+ */
+public class HydraControlledMotor {
+
+    /** The motor being controlled. */
+    public final DcMotorEx motor;
+
+    private final HydraControlTarget target;
+    private final HydraPIDFController controller;
+    private HydraPIDCoefficients hubCoefficients;
+    private HydraControlMode mode;
+
+    // Power limit used by hub position control
+    private double maxPower = 1.0;
+
+    // Whether host-mode powers are scaled by the loop cache's voltage compensation
+    private boolean voltageCompensation;
+
+    private double setpoint;
+
+    // Last values sent to the motor, to skip redundant writes
+    private double lastPower = Double.NaN;
+    private double lastHubSetpoint = Double.NaN;
+
+    // Instrumentation
+    private long reads;
+    private long writes;
+    private long updates;
+    private long updateNanos;
+
+    /**
+     * Constructs a new HydraControlledMotor in host mode.
+     *
+     * @param motor        The motor to control.
+     * @param target       Whether position or velocity is controlled.
+     * @param coefficients The gains, used by both modes unless hub gains are set separately.
+     */
+    public HydraControlledMotor(DcMotorEx motor, HydraControlTarget target, HydraPIDCoefficients coefficients) {
+        this.motor = motor;
+        this.target = target;
+        this.controller = new HydraPIDFController(coefficients).setOutputLimits(-1.0, 1.0);
+        this.hubCoefficients = coefficients;
+        setControlMode(HydraControlMode.HOST);
+    }
+
+    /**
+     * Switches where the feedback loop runs. The motor's run mode is reconfigured and, for hub mode, the gains pushed.
+     *
+     * @param mode The new control mode.
+     */
+    public void setControlMode(HydraControlMode mode) {
+        this.mode = mode;
+        controller.reset();
+        lastPower = Double.NaN;
+        lastHubSetpoint = Double.NaN;
+
+        if (mode == HydraControlMode.HOST) {
+            motor.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
+            writes++;
+            return;
+        }
+
+        pushCoefficients();
+        if (target == HydraControlTarget.POSITION) {
+            // The target position must be set before switching to RUN_TO_POSITION
+            motor.setTargetPosition((int) Math.round(setpoint));
+            motor.setMode(DcMotor.RunMode.RUN_TO_POSITION);
+            motor.setPower(maxPower);
+            writes += 3;
+            lastHubSetpoint = Math.round(setpoint);
+        } else {
+            motor.setMode(DcMotor.RunMode.RUN_USING_ENCODER);
+            writes++;
+        }
+    }
+
+    /**
+     * Gets where the feedback loop currently runs.
+     */
+    public HydraControlMode getControlMode() {
+        return mode;
+    }
+
+    /**
+     * Sends the hub gains to the motor. Call after changing the coefficients while in hub mode.
+     */
+    public void pushCoefficients() {
+        HydraPIDCoefficients k = hubCoefficients;
+        if (target == HydraControlTarget.POSITION) {
+            motor.setPositionPIDFCoefficients(k.kP);
+        } else {
+            motor.setVelocityPIDFCoefficients(k.kP, k.kI, k.kD, k.kF);
+        }
+        writes++;
+    }
+
+    /**
+     * Sets separate gains for hub mode, pushing them if hub mode is active.
+     *
+     * @param coefficients The hub gains, in the SDK's units.
+     */
+    public void setHubCoefficients(HydraPIDCoefficients coefficients) {
+        this.hubCoefficients = coefficients;
+        if (mode == HydraControlMode.HUB) {
+            pushCoefficients();
+        }
+    }
+
+    /**
+     * Sets the largest power used by hub position control.
+     *
+     * @param maxPower The power limit in [0, 1].
+     */
+    public void setMaxPower(double maxPower) {
+        this.maxPower = maxPower;
+        if (mode == HydraControlMode.HUB && target == HydraControlTarget.POSITION) {
+            motor.setPower(maxPower);
+            writes++;
+        }
+    }
+
+    /**
+     * Sets whether host-mode powers are scaled by nominal / battery voltage from
+     * {@link HydraLoopCache#getVoltageCompensation()}. No hardware reads are added.
+     *
+     * @param enabled Whether voltage compensation is applied.
+     */
+    public void setVoltageCompensation(boolean enabled) {
+        voltageCompensation = enabled;
+    }
+
+    /**
+     * Sets the target position (in ticks) or velocity (in ticks per second).
+     *
+     * @param setpoint The target.
+     */
+    public void setSetpoint(double setpoint) {
+        this.setpoint = setpoint;
+    }
+
+    public double getSetpoint() {
+        return setpoint;
+    }
+
+    /**
+     * Runs one control step. Call once per loop.
+     */
+    public void update() {
+        long start = HydraClock.nanoTime();
+
+        if (mode == HydraControlMode.HOST) {
+            double power = controller.calculate(readMeasurement(), setpoint);
+            if (voltageCompensation) {
+                power = Math.max(-1.0, Math.min(1.0, power * HydraLoopCache.getInstance().getVoltageCompensation()));
+            }
+            if (power != lastPower) {
+                motor.setPower(power);
+                writes++;
+                lastPower = power;
+            }
+        } else if (target == HydraControlTarget.POSITION) {
+            double position = Math.round(setpoint);
+            if (position != lastHubSetpoint) {
+                motor.setTargetPosition((int) position);
+                writes++;
+                lastHubSetpoint = position;
+            }
+        } else if (setpoint != lastHubSetpoint) {
+            motor.setVelocity(setpoint);
+            writes++;
+            lastHubSetpoint = setpoint;
+        }
+
+        updateNanos += HydraClock.nanoTime() - start;
+        updates++;
+    }
+
+    /**
+     * Reads the controlled quantity from the encoder. Counts as a hardware read.
+     *
+     * @return The position (in ticks) or velocity (in ticks per second).
+     */
+    public double readMeasurement() {
+        reads++;
+        return target == HydraControlTarget.POSITION ? motor.getCurrentPosition() : motor.getVelocity();
+    }
+
+    /**
+     * Gets the host-side controller, for example to configure anti-windup.
+     */
+    public HydraPIDFController getController() {
+        return controller;
+    }
+
+    /**
+     * Gets the number of encoder reads made. Reads served from a bulk cache still count.
+     */
+    public long getReadCount() {
+        return reads;
+    }
+
+    /**
+     * Gets the number of writes made to the motor, including configuration.
+     */
+    public long getWriteCount() {
+        return writes;
+    }
+
+    /**
+     * Gets the number of calls to {@link #update()}.
+     */
+    public long getUpdateCount() {
+        return updates;
+    }
+
+    /**
+     * Gets the average time spent in {@link #update()} (in nanoseconds).
+     */
+    public double getAverageUpdateNanos() {
+        return updates == 0 ? 0.0 : (double) updateNanos / updates;
+    }
+
+    /**
+     * Clears the instrumentation counters.
+     */
+    public void resetStatistics() {
+        reads = 0;
+        writes = 0;
+        updates = 0;
+        updateNanos = 0;
+    }
+}
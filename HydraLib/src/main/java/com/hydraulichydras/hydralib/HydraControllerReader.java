@@ -10,8 +10,8 @@ public class HydraControllerReader extends HydraButton {
     /** The Hydra PS controller to read from **/
     private final HydraPSController controller;
 
-    /** Array of Hydra buttons to read state from **/
-    private final HydraSwitches.HydraButton[] H_buttons;
+    /** Mask of the Hydra buttons to read state from **/
+    private final int H_mask;
 
     /**
      * Initializes the HydraControllerReader with the specified controller and buttons.
@@ -21,7 +21,7 @@ public class HydraControllerReader extends HydraButton {
      */
     public HydraControllerReader(HydraPSController controller, @NonNull HydraSwitches.HydraButton... button) {
         this.controller = controller;
-        this.H_buttons = button;
+        this.H_mask = HydraGamepadSnapshot.mask(button);
     }
 
     /**
@@ -31,10 +31,7 @@ public class HydraControllerReader extends HydraButton {
      */
     @Override
     public boolean get() {
-        boolean res = true;
-        // Check state of each monitored button
-        for (HydraSwitches.HydraButton button : H_buttons)
-            res = res && controller.getButton(button);
-        return res;
+        // Check all monitored buttons with a single mask comparison
+        return controller.isChordDown(H_mask);
     }
 }
\ No newline at end of file
@@ -0,0 +1,218 @@
+package com.hydraulichydras.hydralib;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+
+/**
+ * Base class for localizers tracking the robot with unpowered odometry wheels ("dead wheels").
+ * <p>
+ * Subclasses turn encoder deltas into a robot-frame motion (forward, lateral and heading change), which is then
+ * integrated along a constant-curvature arc. All state is preallocated, so {@link #update()} never allocates.
+ */
+public abstract class HydraDeadWheelLocalizer implements HydraLocalizer {
+
+    /** Default radius of a goBILDA odometry pod wheel (in inches). */
+    public static final double DEFAULT_WHEEL_RADIUS = 0.944882;
+
+    /** Default resolution of a goBILDA odometry pod encoder. */
+    public static final double DEFAULT_TICKS_PER_REV = 2000;
+
+    // Field-frame pose estimate, updated in place
+    protected final HydraPose poseEstimate = new HydraPose();
+
+    // Robot-frame velocity, updated in place
+    protected final HydraPose poseVelocity = new HydraPose();
+
+    // Estimates recorded on every update, for latency-compensated corrections
+    protected final HydraPoseHistory history = new HydraPoseHistory();
+
+    // Estimate before a delayed correction is applied
+    private final HydraPose uncorrected = new HydraPose();
+
+    // Distance travelled by a pod wheel per encoder tick
+    protected double distancePerTick;
+
+    // Robot-frame motion integrated on the last update
+    protected double lastDeltaX, lastDeltaY, lastDeltaHeading;
+
+    // Time of the last update (in nanoseconds), valid once hasLastTimestamp is set
+    private long lastTimestamp;
+    private boolean hasLastTimestamp;
+
+    // Whether encoder baselines have been captured yet
+    protected boolean initialized;
+
+    // Trigonometry used for integration; null uses the global default
+    private HydraTrigFunctions trig;
+
+    /**
+     * Constructs a new localizer using the default goBILDA odometry pod constants.
+     */
+    protected HydraDeadWheelLocalizer() {
+        setConstants(DEFAULT_WHEEL_RADIUS, DEFAULT_TICKS_PER_REV);
+    }
+
+    /**
+     * Sets the constants of the odometry pods.
+     *
+     * @param wheelRadius The radius of the pod wheels
+     * @param ticksPerRev The encoder ticks per revolution of a pod wheel
+     */
+    public void setConstants(double wheelRadius, double ticksPerRev) {
+        this.distancePerTick = 2 * Math.PI * wheelRadius / ticksPerRev;
+    }
+
+    /**
+     * Sets the trigonometry implementation used for integration, overriding the global {@link HydraTrig} default.
+     *
+     * @param trig The implementation, or null to use the global default.
+     */
+    public void setTrig(HydraTrigFunctions trig) {
+        this.trig = trig;
+    }
+
+    /**
+     * Converts encoder ticks to distance.
+     *
+     * @param ticks The encoder ticks.
+     * @return The distance travelled by the pod wheel.
+     */
+    public double ticksToDistance(double ticks) {
+        return ticks * distancePerTick;
+    }
+
+    /**
+     * Integrates a robot-frame motion into the pose estimate and updates the velocity estimate.
+     *
+     * @param dx       Forward motion since the last update.
+     * @param dy       Lateral motion since the last update (positive = left).
+     * @param dHeading Heading change since the last update (in radians, counter-clockwise).
+     */
+    protected void integrate(double dx, double dy, double dHeading) {
+        applyTwist(HydraTrig.resolve(trig), poseEstimate, dx, dy, dHeading);
+
+        lastDeltaX = dx;
+        lastDeltaY = dy;
+        lastDeltaHeading = dHeading;
+
+        long now = HydraClock.nanoTime();
+        double dt = (now - lastTimestamp) * 1e-9;
+        if (hasLastTimestamp && dt > 0) {
+            poseVelocity.x = dx / dt;
+            poseVelocity.y = dy / dt;
+            poseVelocity.heading = dHeading / dt;
+        }
+        lastTimestamp = now;
+        hasLastTimestamp = true;
+        history.record(now, poseEstimate);
+    }
+
+    /**
+     * Moves a pose along a constant-curvature arc described by a robot-frame motion.
+     * Modifies the given pose in place.
+     *
+     * @param pose     The field-frame pose to move.
+     * @param dx       Forward motion.
+     * @param dy       Lateral motion (positive = left).
+     * @param dHeading Heading change (in radians, counter-clockwise).
+     */
+    public static void applyTwist(HydraPose pose, double dx, double dy, double dHeading) {
+        applyTwist(HydraTrig.getDefault(), pose, dx, dy, dHeading);
+    }
+
+    /**
+     * Moves a pose along a constant-curvature arc described by a robot-frame motion, using the given trigonometry
+     * for the pose rotation. The arc terms always use {@link Math}: they divide by the small per-loop heading change,
+     * which would magnify approximation error.
+     *
+     * @param trig     The trigonometry implementation.
+     * @param pose     The field-frame pose to move.
+     * @param dx       Forward motion.
+     * @param dy       Lateral motion (positive = left).
+     * @param dHeading Heading change (in radians, counter-clockwise).
+     */
+    public static void applyTwist(HydraTrigFunctions trig, HydraPose pose, double dx, double dy, double dHeading) {
+        double sinTerm;
+        double cosTerm;
+        if (Math.abs(dHeading) < 1e-6) {
+            // Taylor expansion avoids dividing by a vanishing heading change
+            sinTerm = 1.0 - dHeading * dHeading / 6.0;
+            cosTerm = dHeading / 2.0;
+        } else {
+            sinTerm = Math.sin(dHeading) / dHeading;
+            cosTerm = (1.0 - Math.cos(dHeading)) / dHeading;
+        }
+
+        // Motion along the arc, expressed in the robot frame at the start of the update
+        double arcX = sinTerm * dx - cosTerm * dy;
+        double arcY = cosTerm * dx + sinTerm * dy;
+
+        double cos = trig.cos(pose.heading);
+        double sin = trig.sin(pose.heading);
+        pose.x += arcX * cos - arcY * sin;
+        pose.y += arcX * sin + arcY * cos;
+        pose.heading = AngleUnit.normalizeRadians(pose.heading + dHeading);
+    }
+
+    @Override
+    public HydraPose getPoseEstimate() {
+        return poseEstimate;
+    }
+
+    @Override
+    public void setPoseEstimate(HydraPose pose) {
+        poseEstimate.set(pose);
+        history.clear();
+    }
+
+    @Override
+    public HydraPose getPoseVelocity() {
+        return poseVelocity;
+    }
+
+    /**
+     * Gets the history of pose estimates recorded on each update.
+     */
+    public HydraPoseHistory getPoseHistory() {
+        return history;
+    }
+
+    /**
+     * Resets the estimate to a pose measured at a past time, such as a vision detection, and replays the
+     * odometry recorded since then on top of it.
+     *
+     * @param timestamp The time the measurement was captured (in nanoseconds, on the {@link HydraClock} time base).
+     * @param x         The measured x position.
+     * @param y         The measured y position.
+     * @param heading   The measured heading (in radians).
+     * @return false if the capture time is older than the recorded history, in which case nothing changes.
+     */
+    public boolean setPoseEstimate(long timestamp, double x, double y, double heading) {
+        uncorrected.set(poseEstimate);
+        if (!history.projectToPresent(timestamp, x, y, heading, uncorrected, poseEstimate)) {
+            return false;
+        }
+        history.rebase(timestamp, uncorrected, poseEstimate);
+        return true;
+    }
+
+    /**
+     * Gets the forward motion integrated on the last update.
+     */
+    public double getLastDeltaX() {
+        return lastDeltaX;
+    }
+
+    /**
+     * Gets the lateral motion integrated on the last update.
+     */
+    public double getLastDeltaY() {
+        return lastDeltaY;
+    }
+
+    /**
+     * Gets the heading change integrated on the last update.
+     */
+    public double getLastDeltaHeading() {
+        return lastDeltaHeading;
+    }
+}
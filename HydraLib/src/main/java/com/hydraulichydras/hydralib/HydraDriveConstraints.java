@@ -0,0 +1,49 @@
+package com.hydraulichydras.hydralib;
+
+/**
+ * Drivetrain limits used to generate a {@link HydraTrajectory} for a {@link HydraMecanumDrivetrain}.
+ * <p>
+ * Wheel limits are in the same distance unit as the path, per second. The maximum wheel velocity of a motor is its
+ * free speed in revolutions per second times 2 * PI * WHEEL_RADIUS, usually derated to leave room for feedback.
+ */
+public class HydraDriveConstraints {
+
+    public double maxWheelVelocity;
+    public double maxWheelAcceleration;
+    public double maxCentripetalAcceleration;
+
+    // Distance between the left and right wheels, and between the front and rear wheels
+    public double trackWidth;
+    public double wheelBase;
+
+    /**
+     * Constructs new drive constraints.
+     *
+     * @param maxWheelVelocity           The maximum surface speed of any wheel.
+     * @param maxWheelAcceleration       The maximum surface acceleration of any wheel.
+     * @param maxCentripetalAcceleration The maximum sideways acceleration in curves, limited by wheel grip.
+     * @param trackWidth                 The distance between the left and right wheels.
+     * @param wheelBase                  The distance between the front and rear wheels.
+     */
+    public HydraDriveConstraints(double maxWheelVelocity, double maxWheelAcceleration, double maxCentripetalAcceleration,
+                                 double trackWidth, double wheelBase) {
+        if (maxWheelVelocity <= 0 || maxWheelAcceleration <= 0 || maxCentripetalAcceleration <= 0) {
+            throw new IllegalArgumentException("Drive constraints must be positive");
+        }
+        if (trackWidth < 0 || wheelBase < 0) {
+            throw new IllegalArgumentException("Drivetrain dimensions cannot be negative");
+        }
+        this.maxWheelVelocity = maxWheelVelocity;
+        this.maxWheelAcceleration = maxWheelAcceleration;
+        this.maxCentripetalAcceleration = maxCentripetalAcceleration;
+        this.trackWidth = trackWidth;
+        this.wheelBase = wheelBase;
+    }
+
+    /**
+     * Gets the wheel speed produced by each unit of angular velocity on a mecanum drivetrain.
+     */
+    public double getRotationFactor() {
+        return (trackWidth + wheelBase) / 2.0;
+    }
+}
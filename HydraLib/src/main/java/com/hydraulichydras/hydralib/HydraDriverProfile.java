@@ -0,0 +1,130 @@
+package com.hydraulichydras.hydralib;
+
+/**
+ * Input shaping settings for one driver: a {@link HydraInputShaper} per stick axis and a radial deadband per stick.
+ * <p>
+ * The radial deadband is applied to each stick as a whole before the axes are shaped, so a resting stick that drifts
+ * diagonally reads zero without creating the cross-shaped dead zones of an axial deadband. The deflection beyond it
+ * is rescaled to keep the response continuous. Shapers hold slew state, so give each controller its own profile.
+ */
+public class HydraDriverProfile {
+
+    private final HydraInputShaper leftX = new HydraInputShaper();
+    private final HydraInputShaper leftY = new HydraInputShaper();
+    private final HydraInputShaper rightX = new HydraInputShaper();
+    private final HydraInputShaper rightY = new HydraInputShaper();
+
+    // Radial deadband of each stick
+    private double leftDeadband = 0.0;
+    private double rightDeadband = 0.0;
+
+    /**
+     * Sets the radial deadband of the left stick.
+     *
+     * @param deadband The deadband in [0, 1).
+     */
+    public HydraDriverProfile setLeftRadialDeadband(double deadband) {
+        this.leftDeadband = checkDeadband(deadband);
+        return this;
+    }
+
+    /**
+     * Sets the radial deadband of the right stick.
+     *
+     * @param deadband The deadband in [0, 1).
+     */
+    public HydraDriverProfile setRightRadialDeadband(double deadband) {
+        this.rightDeadband = checkDeadband(deadband);
+        return this;
+    }
+
+    /**
+     * Sets the same response curve on every axis.
+     *
+     * @param curve     The response curve.
+     * @param parameter The curve parameter; see {@link HydraResponseCurve}.
+     */
+    public HydraDriverProfile setCurve(HydraResponseCurve curve, double parameter) {
+        leftX.setCurve(curve, parameter);
+        leftY.setCurve(curve, parameter);
+        rightX.setCurve(curve, parameter);
+        rightY.setCurve(curve, parameter);
+        return this;
+    }
+
+    /**
+     * Sets the same slew-rate limit on every axis.
+     *
+     * @param slewRate The slew rate (in output units per second), or infinity to disable slew limiting.
+     */
+    public HydraDriverProfile setSlewRate(double slewRate) {
+        leftX.setSlewRate(slewRate);
+        leftY.setSlewRate(slewRate);
+        rightX.setSlewRate(slewRate);
+        rightY.setSlewRate(slewRate);
+        return this;
+    }
+
+    public HydraInputShaper getLeftX() {
+        return leftX;
+    }
+
+    public HydraInputShaper getLeftY() {
+        return leftY;
+    }
+
+    public HydraInputShaper getRightX() {
+        return rightX;
+    }
+
+    public HydraInputShaper getRightY() {
+        return rightY;
+    }
+
+    public double getLeftRadialDeadband() {
+        return leftDeadband;
+    }
+
+    public double getRightRadialDeadband() {
+        return rightDeadband;
+    }
+
+    /**
+     * Applies a radial deadband to a stick, writing the result in place.
+     *
+     * @param stick    The stick's x and y values, modified in place.
+     * @param deadband The radial deadband in [0, 1).
+     */
+    public static void applyRadialDeadband(double[] stick, double deadband) {
+        if (deadband == 0.0) {
+            return;
+        }
+        double magnitude = Math.hypot(stick[0], stick[1]);
+        if (magnitude <= deadband) {
+            stick[0] = 0.0;
+            stick[1] = 0.0;
+            return;
+        }
+        double scale = Math.min(1.0, (magnitude - deadband) / (1.0 - deadband)) / magnitude;
+        stick[0] *= scale;
+        stick[1] *= scale;
+    }
+
+    /**
+     * Clears the slew state of every axis.
+     */
+    public void reset() {
+        leftX.reset();
+        leftY.reset();
+        rightX.reset();
+        rightY.reset();
+    }
+
+    // Validates a radial deadband
+    private static double checkDeadband(double deadband) {
+        if (deadband < 0.0 || deadband >= 1.0) {
+            throw new IllegalArgumentException("Deadband must be in [0, 1)");
+        }
+        return deadband;
+    }
+}
@@ -0,0 +1,53 @@
+package com.hydraulichydras.hydralib;
+
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.DcMotorSimple;
+
+/**
+ * Wraps a motor port used as an encoder input, such as a dead-wheel odometry pod.
+ * When bulk reads are enabled through {@link HydraLoopCache}, positions are served from the hub's bulk cache.
+ */
+public class HydraEncoder {
+
+    /** The motor port the encoder is plugged into. */
+    public final DcMotorEx motor;
+
+    /** Sign applied to every reading. */
+    private int multiplier = 1;
+
+    /**
+     * Constructs a new HydraEncoder reading from the given motor port.
+     *
+     * @param motor The motor port the encoder is plugged into.
+     */
+    public HydraEncoder(DcMotorEx motor) {
+        this.motor = motor;
+    }
+
+    /**
+     * Sets the counting direction of the encoder, independently of the motor's own direction.
+     *
+     * @param direction The direction in which the encoder counts up.
+     */
+    public void setDirection(DcMotorSimple.Direction direction) {
+        multiplier = direction == DcMotorSimple.Direction.REVERSE ? -1 : 1;
+    }
+
+    /**
+     * Gets the current encoder position.
+     *
+     * @return The position in encoder ticks.
+     */
+    public int getCurrentPosition() {
+        return multiplier * motor.getCurrentPosition();
+    }
+
+    /**
+     * Gets the current encoder velocity.
+     *
+     * @return The velocity in encoder ticks per second.
+     */
+    public double getVelocity() {
+        return multiplier * motor.getVelocity();
+    }
+}
@@ -0,0 +1,77 @@
+package com.hydraulichydras.hydralib;
+
+/**
+ * Fast approximate trigonometry for hot paths on the Control Hub's CPU.
+ * <p>
+ * Sine and cosine use a 4096-entry table over one turn with linear interpolation. The maximum absolute error is
+ * (2 * PI / 4096)^2 / 8, about 3e-7, for angles within a few thousand turns of zero; beyond that the reduction
+ * to one turn loses precision as with any double arithmetic.
+ * <p>
+ * atan2 reduces the angle to the first octant and evaluates the Abramowitz and Stegun 4.4.49 polynomial, with a
+ * maximum absolute error of about 2e-8 radians. atan2(0, 0) returns 0.
+ */
+public class HydraFastTrig implements HydraTrigFunctions {
+
+    // Table size; must be a power of two
+    private static final int SIZE = 4096;
+    private static final int MASK = SIZE - 1;
+    private static final double INDEX_PER_RADIAN = SIZE / (2.0 * Math.PI);
+
+    // Sine over one turn, with one extra entry so interpolation never wraps
+    private static final double[] SIN = new double[SIZE + 1];
+
+    static {
+        for (int i = 0; i <= SIZE; i++) {
+            SIN[i] = Math.sin(i * 2.0 * Math.PI / SIZE);
+        }
+    }
+
+    // Abramowitz and Stegun 4.4.49 coefficients for atan(z) / z in powers of z^2, 0 <= z <= 1
+    private static final double A2 = -0.3333314528;
+    private static final double A4 = 0.1999355085;
+    private static final double A6 = -0.1420889944;
+    private static final double A8 = 0.1065626393;
+    private static final double A10 = -0.0752896400;
+    private static final double A12 = 0.0429096138;
+    private static final double A14 = -0.0161657367;
+    private static final double A16 = 0.0028662257;
+
+    private static final double HALF_PI = Math.PI / 2.0;
+
+    @Override
+    public double sin(double radians) {
+        double index = radians * INDEX_PER_RADIAN;
+        double floor = Math.floor(index);
+        int i = (int) ((long) floor & MASK);
+        double fraction = index - floor;
+        return SIN[i] + (SIN[i + 1] - SIN[i]) * fraction;
+    }
+
+    @Override
+    public double cos(double radians) {
+        return sin(radians + HALF_PI);
+    }
+
+    @Override
+    public double atan2(double y, double x) {
+        double ax = Math.abs(x);
+        double ay = Math.abs(y);
+        if (ax == 0.0 && ay == 0.0) {
+            return 0.0;
+        }
+
+        // Angle in the first octant, then unfolded into the right quadrant
+        boolean steep = ay > ax;
+        double z = steep ? ax / ay : ay / ax;
+        double z2 = z * z;
+        double angle = z * (1.0 + z2 * (A2 + z2 * (A4 + z2 * (A6 + z2 * (A8
+                + z2 * (A10 + z2 * (A12 + z2 * (A14 + z2 * A16))))))));
+        if (steep) {
+            angle = HALF_PI - angle;
+        }
+        if (x < 0.0) {
+            angle = Math.PI - angle;
+        }
+        return y < 0.0 ? -angle : angle;
+    }
+}
@@ -0,0 +1,152 @@
+package com.hydraulichydras.hydralib;
+
+import com.qualcomm.robotcore.hardware.Gamepad;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Double-buffered capture of a live {@link Gamepad} that keeps fields from different packets apart.
+ * <p>
+ * The SDK's receive thread overwrites the gamepad's fields while the loop reads them one at a time. Without care, a
+ * stick value and a button state from different packets could end up in the same decision. Two layers guard against this:
+ * <ul>
+ *     <li>{@link #poll()} copies the fields while holding the gamepad's monitor, which excludes writers that update
+ *     it through its synchronized serialization methods. As a check against unsynchronized writers, it copies twice
+ *     and accepts only matching copies with the same packet timestamp, copying again otherwise. A writer paused
+ *     midway through an unsynchronized update cannot be detected this way.</li>
+ *     <li>The copy goes into the back one of two frames and is published by incrementing a sequence counter, whose
+ *     low bit selects the front frame. {@link #read(HydraGamepadSnapshot)} copies the front frame and retries if
+ *     the sequence changed meanwhile (a seqlock), so a background thread may poll while the loop reads.</li>
+ * </ul>
+ * The packet timestamp is returned as the sequence number of each read, so callers can tell whether a new packet
+ * actually arrived. Polling and reading never allocate.
+ */
+public class HydraGamepadBuffer implements HydraGamepadSource {
+
+    // Copies made before accepting a frame while packets keep arriving
+    private static final int MAX_ATTEMPTS = 4;
+
+    // Ints per frame: the button mask, then six analog values stored as float bits
+    private static final int FRAME_SIZE = 7;
+
+    private final Gamepad gamepad;
+
+    // Two frames and the packet each was copied from
+    private final AtomicIntegerArray frames = new AtomicIntegerArray(2 * FRAME_SIZE);
+    private final AtomicLongArray packets = new AtomicLongArray(2);
+
+    // Number of published frames; the front frame is sequence & 1
+    private volatile long sequence;
+
+    // Whether read polls the gamepad first
+    private boolean autoPoll = true;
+
+    // Successive copies of the gamepad, compared to detect packets written during a copy
+    private int[] copy = new int[FRAME_SIZE];
+    private int[] verify = new int[FRAME_SIZE];
+
+    // Number of copies discarded because a packet arrived during the copy
+    private long tornCopies;
+
+    /**
+     * Constructs a new HydraGamepadBuffer and captures the gamepad once.
+     *
+     * @param gamepad The gamepad to capture.
+     */
+    public HydraGamepadBuffer(Gamepad gamepad) {
+        this.gamepad = gamepad;
+        poll();
+    }
+
+    /**
+     * Sets whether {@link #read(HydraGamepadSnapshot)} polls the gamepad first. Disable this when another thread
+     * calls {@link #poll()}.
+     *
+     * @param autoPoll Whether reads poll first.
+     */
+    public HydraGamepadBuffer setAutoPoll(boolean autoPoll) {
+        this.autoPoll = autoPoll;
+        return this;
+    }
+
+    /**
+     * Copies the gamepad into the back frame and publishes it.
+     */
+    public synchronized void poll() {
+        long packet = copy(copy);
+        for (int attempt = 1; attempt < MAX_ATTEMPTS; attempt++) {
+            long check = copy(verify);
+            if (check == packet && Arrays.equals(copy, verify)) {
+                break;
+            }
+            // A packet was being written during the copy: keep the newer copy and check it again
+            tornCopies++;
+            int[] newer = verify;
+            verify = copy;
+            copy = newer;
+            packet = check;
+        }
+
+        int slot = (int) ((sequence + 1) & 1);
+        for (int i = 0; i < FRAME_SIZE; i++) {
+            frames.set(slot * FRAME_SIZE + i, copy[i]);
+        }
+        packets.set(slot, packet);
+        sequence++;
+    }
+
+    // Copies every field of the gamepad under its monitor, returning the packet timestamp read before them
+    private long copy(int[] out) {
+        synchronized (gamepad) {
+            long packet = gamepad.timestamp;
+            out[0] = HydraGamepadSnapshot.pack(gamepad);
+            out[1] = Float.floatToRawIntBits(gamepad.left_stick_x);
+            out[2] = Float.floatToRawIntBits(gamepad.left_stick_y);
+            out[3] = Float.floatToRawIntBits(gamepad.right_stick_x);
+            out[4] = Float.floatToRawIntBits(gamepad.right_stick_y);
+            out[5] = Float.floatToRawIntBits(gamepad.left_trigger);
+            out[6] = Float.floatToRawIntBits(gamepad.right_trigger);
+            return packet;
+        }
+    }
+
+    @Override
+    public long read(HydraGamepadSnapshot out) {
+        if (autoPoll) {
+            poll();
+        }
+        while (true) {
+            long start = sequence;
+            int slot = (int) (start & 1);
+            int base = slot * FRAME_SIZE;
+            int buttons = frames.get(base);
+            float leftStickX = Float.intBitsToFloat(frames.get(base + 1));
+            float leftStickY = Float.intBitsToFloat(frames.get(base + 2));
+            float rightStickX = Float.intBitsToFloat(frames.get(base + 3));
+            float rightStickY = Float.intBitsToFloat(frames.get(base + 4));
+            float leftTrigger = Float.intBitsToFloat(frames.get(base + 5));
+            float rightTrigger = Float.intBitsToFloat(frames.get(base + 6));
+            long packet = packets.get(slot);
+            if (sequence == start) {
+                out.set(buttons, leftStickX, leftStickY, rightStickX, rightStickY, leftTrigger, rightTrigger);
+                return packet;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of copies discarded because a packet arrived while the gamepad was being copied.
+     */
+    public synchronized long getTornCopyCount() {
+        return tornCopies;
+    }
+
+    /**
+     * Gets the gamepad being captured.
+     */
+    public Gamepad getGamepad() {
+        return gamepad;
+    }
+}
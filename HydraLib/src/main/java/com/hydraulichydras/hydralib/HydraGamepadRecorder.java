@@ -0,0 +1,224 @@
+package com.hydraulichydras.hydralib;
+
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Records a {@link HydraPSController}'s input to a compact binary file, for replay with {@link HydraGamepadReplay}.
+ * <p>
+ * Call {@link #record(HydraPSController)} once per loop. A frame is kept only when a new packet has arrived, holding
+ * the loop timestamp relative to the first frame, the packet sequence number, the button bitmask and the six analog
+ * values as floats. Frames go into a preallocated ring buffer that a background thread drains to the file, so
+ * recording neither allocates nor blocks the loop on storage. If the ring fills up, frames are dropped and counted.
+ * <p>
+ * Storage errors never fail the OpMode: the writer stops and the error is available from {@link #getError()}.
+ */
+public class HydraGamepadRecorder {
+
+    // File layout: magic, version, frame size, padding; then the frames, all little-endian
+    static final int MAGIC = 0x48475044; // "HGPD"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int FRAME_SIZE = 44;
+
+    // Frames the ring buffer holds; a power of two
+    private static final int CAPACITY = 1024;
+    private static final int MASK = CAPACITY - 1;
+
+    // How long the writer sleeps when there is nothing to write (in nanoseconds)
+    private static final long IDLE_NANOS = 5_000_000L;
+
+    private final File file;
+
+    // Ring buffer of frames, written by the loop and drained by the writer
+    private final long[] times = new long[CAPACITY];
+    private final long[] packets = new long[CAPACITY];
+    private final int[] buttons = new int[CAPACITY];
+    private final float[] axes = new float[CAPACITY * 6];
+    private volatile long head;
+    private volatile long tail;
+
+    // Recording state, only touched by the loop
+    private long startTime;
+    private long lastPacket;
+    private boolean hasFrame;
+    private long dropped;
+
+    private final Thread writer;
+    private volatile boolean running = true;
+    private volatile IOException error;
+
+    /**
+     * Constructs a new HydraGamepadRecorder writing to a file in the default folder, and starts its writer thread.
+     *
+     * @param name A file-safe name for the recording.
+     */
+    public HydraGamepadRecorder(String name) {
+        this(new File(defaultDirectory(), name + ".gpad"));
+    }
+
+    /**
+     * Constructs a new HydraGamepadRecorder and starts its writer thread.
+     *
+     * @param file The file to write. An existing file is replaced.
+     */
+    public HydraGamepadRecorder(File file) {
+        this.file = file;
+        writer = new Thread(this::write, "HydraGamepadRecorder");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Gets the default folder for recordings. The storage path only exists on the robot, so it is looked up here
+     * rather than when the class loads.
+     *
+     * @return The folder.
+     */
+    public static File defaultDirectory() {
+        return new File(AppUtil.FIRST_FOLDER, "hydralib/recordings");
+    }
+
+    /**
+     * Records the controller's current snapshot if a new packet has arrived since the last recorded frame.
+     * Call once per loop.
+     *
+     * @param controller The controller to record.
+     * @return Whether a frame was queued.
+     */
+    public boolean record(HydraPSController controller) {
+        return record(controller.getSnapshot(), controller.getPacketSequence(),
+                HydraLoopCache.getInstance().getTimestamp());
+    }
+
+    /**
+     * Records a snapshot if its packet differs from the last recorded frame's.
+     *
+     * @param snapshot  The gamepad state.
+     * @param packet    The sequence number of the packet the state came from.
+     * @param timestamp The time of the loop (in nanoseconds).
+     * @return Whether a frame was queued.
+     */
+    public boolean record(HydraGamepadSnapshot snapshot, long packet, long timestamp) {
+        if (hasFrame && packet == lastPacket) {
+            return false;
+        }
+        long position = head;
+        if (position - tail >= CAPACITY || !running) {
+            dropped++;
+            return false;
+        }
+        if (!hasFrame) {
+            startTime = timestamp;
+            hasFrame = true;
+        }
+        lastPacket = packet;
+
+        int slot = (int) (position & MASK);
+        times[slot] = timestamp - startTime;
+        packets[slot] = packet;
+        buttons[slot] = snapshot.getButtons();
+        int axis = slot * 6;
+        axes[axis] = snapshot.getLeftStickX();
+        axes[axis + 1] = snapshot.getLeftStickY();
+        axes[axis + 2] = snapshot.getRightStickX();
+        axes[axis + 3] = snapshot.getRightStickY();
+        axes[axis + 4] = snapshot.getLeftTrigger();
+        axes[axis + 5] = snapshot.getRightTrigger();
+
+        // Publishes the frame to the writer
+        head = position + 1;
+        return true;
+    }
+
+    /**
+     * Stops recording, waits for queued frames to be written and closes the file.
+     */
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gets the number of frames dropped because the writer fell behind or had stopped.
+     */
+    public long getDroppedCount() {
+        return dropped;
+    }
+
+    /**
+     * Gets the storage error that stopped the writer.
+     *
+     * @return The error, or null if there was none.
+     */
+    public IOException getError() {
+        return error;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    // Writer thread: drains the ring buffer to the file until closed
+    private void write() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(CAPACITY * FRAME_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        File directory = file.getParentFile();
+        try {
+            if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Could not create " + directory);
+            }
+            try (FileOutputStream output = new FileOutputStream(file)) {
+                FileChannel channel = output.getChannel();
+                buffer.putInt(MAGIC).putInt(VERSION).putInt(FRAME_SIZE).putInt(0);
+                drain(channel, buffer);
+
+                while (true) {
+                    boolean stopping = !running;
+                    if (tail == head) {
+                        if (stopping) {
+                            break;
+                        }
+                        LockSupport.parkNanos(IDLE_NANOS);
+                        continue;
+                    }
+                    long end = head;
+                    for (long position = tail; position < end; position++) {
+                        int slot = (int) (position & MASK);
+                        int axis = slot * 6;
+                        buffer.putLong(times[slot]).putLong(packets[slot]).putInt(buttons[slot]);
+                        for (int i = 0; i < 6; i++) {
+                            buffer.putFloat(axes[axis + i]);
+                        }
+                    }
+                    // Frees the slots for the loop
+                    tail = end;
+                    drain(channel, buffer);
+                }
+            }
+        } catch (IOException e) {
+            error = e;
+            running = false;
+        }
+    }
+
+    // Writes everything in the buffer to the channel and clears it
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
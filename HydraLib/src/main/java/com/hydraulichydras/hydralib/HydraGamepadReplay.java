@@ -0,0 +1,139 @@
+package com.hydraulichydras.hydralib;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Replays a recording made by {@link HydraGamepadRecorder} as a {@link HydraGamepadSource}.
+ * <p>
+ * Frames are selected by the time elapsed on {@link HydraClock} since {@link #start()}, stepping at most one frame
+ * per loop as counted by {@link HydraLoopCache} (or per read if the loop cache is not updated). No frame is skipped,
+ * so a {@link HydraPSController} built on a replay sees every press and release the driver made, and its bindings
+ * fire in the same order. When the replay loop period is longer than the recording's, several frames fall due in one
+ * loop; they are then delivered on successive loops and the replay runs behind the recorded timing until it catches
+ * up. Use a loop period no longer than the recording's to also keep the timing. Under a {@link HydraVirtualClock},
+ * for example with {@link HydraSimulation#replay}, a whole teleop re-runs deterministically and faster than real
+ * time. Reading a frame never allocates.
+ */
+public class HydraGamepadReplay implements HydraGamepadSource {
+
+    // Recorded frames
+    private final long[] times;
+    private final long[] packets;
+    private final int[] buttons;
+    private final float[] axes;
+
+    // Replay state
+    private long startTime;
+    private boolean started;
+    private int cursor;
+
+    // Loop the cursor was last stepped in
+    private long steppedLoop;
+
+    // Constructor used by load
+    private HydraGamepadReplay(int count) {
+        times = new long[count];
+        packets = new long[count];
+        buttons = new int[count];
+        axes = new float[count * 6];
+    }
+
+    /**
+     * Loads a recording. A frame cut short by a crash while recording is ignored.
+     *
+     * @param file The recording file.
+     * @return The replay, not yet started.
+     * @throws IOException If the file cannot be read, is not a recording or holds no frames.
+     */
+    public static HydraGamepadReplay load(File file) throws IOException {
+        try (RandomAccessFile input = new RandomAccessFile(file, "r")) {
+            long length = input.length();
+            if (length < HydraGamepadRecorder.HEADER_SIZE || length > Integer.MAX_VALUE) {
+                throw new IOException("Not a gamepad recording: " + file);
+            }
+            byte[] bytes = new byte[(int) length];
+            input.readFully(bytes);
+            ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+
+            if (buffer.getInt() != HydraGamepadRecorder.MAGIC
+                    || buffer.getInt() != HydraGamepadRecorder.VERSION
+                    || buffer.getInt() != HydraGamepadRecorder.FRAME_SIZE) {
+                throw new IOException("Not a gamepad recording: " + file);
+            }
+            buffer.getInt();
+
+            int count = buffer.remaining() / HydraGamepadRecorder.FRAME_SIZE;
+            if (count == 0) {
+                throw new IOException("Gamepad recording is empty: " + file);
+            }
+            HydraGamepadReplay replay = new HydraGamepadReplay(count);
+            for (int i = 0; i < count; i++) {
+                replay.times[i] = buffer.getLong();
+                replay.packets[i] = buffer.getLong();
+                replay.buttons[i] = buffer.getInt();
+                for (int j = 0; j < 6; j++) {
+                    replay.axes[i * 6 + j] = buffer.getFloat();
+                }
+            }
+            return replay;
+        }
+    }
+
+    /**
+     * Starts, or restarts, the replay from its first frame at the current time.
+     */
+    public void start() {
+        startTime = HydraClock.nanoTime();
+        started = true;
+        cursor = 0;
+        steppedLoop = -1;
+    }
+
+    /**
+     * Copies the current frame, first stepping to the next one if it is due and the cursor has not stepped in this
+     * loop yet. Starts the replay if it has not been started.
+     */
+    @Override
+    public long read(HydraGamepadSnapshot out) {
+        if (!started) {
+            start();
+        }
+        long loop = HydraLoopCache.getInstance().getLoopCount();
+        if (loop == 0 || loop != steppedLoop) {
+            steppedLoop = loop;
+            long elapsed = HydraClock.nanoTime() - startTime;
+            if (cursor + 1 < times.length && times[cursor + 1] <= elapsed) {
+                cursor++;
+            }
+        }
+        int axis = cursor * 6;
+        out.set(buttons[cursor], axes[axis], axes[axis + 1], axes[axis + 2], axes[axis + 3], axes[axis + 4],
+                axes[axis + 5]);
+        return packets[cursor];
+    }
+
+    /**
+     * Checks whether the last frame has been delivered.
+     */
+    public boolean isFinished() {
+        return started && cursor == times.length - 1;
+    }
+
+    /**
+     * Gets the time from the first frame to the last (in seconds).
+     */
+    public double getDuration() {
+        return times[times.length - 1] * 1e-9;
+    }
+
+    /**
+     * Gets the number of recorded frames.
+     */
+    public int size() {
+        return times.length;
+    }
+}
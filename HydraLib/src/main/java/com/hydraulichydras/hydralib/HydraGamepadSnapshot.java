@@ -0,0 +1,218 @@
+package com.hydraulichydras.hydralib;
+
+import com.qualcomm.robotcore.hardware.Gamepad;
+
+/**
+ * The state of a gamepad captured at one instant, with the buttons packed into an int bitmask.
+ * <p>
+ * Button {@link HydraSwitches.HydraButton} b is bit 1 &lt;&lt; b.ordinal(). Each capture keeps the previous mask, so
+ * edges are single bitwise operations: pressed = current &amp; ~previous, released = previous &amp; ~current, and
+ * changed = current ^ previous. Chords are masks of several buttons built with {@link #mask}. Stick and trigger
+ * values are captured alongside, so every reader in a loop sees the same inputs. Capturing never allocates.
+ */
+public class HydraGamepadSnapshot {
+
+    // Bits of each button
+    private static final int CIRCLE = bit(HydraSwitches.HydraButton.CIRCLE);
+    private static final int SQUARE = bit(HydraSwitches.HydraButton.SQUARE);
+    private static final int TRIANGLE = bit(HydraSwitches.HydraButton.TRIANGLE);
+    private static final int CROSS = bit(HydraSwitches.HydraButton.CROSS);
+    private static final int LEFT_BUMPER = bit(HydraSwitches.HydraButton.LEFT_BUMPER);
+    private static final int RIGHT_BUMPER = bit(HydraSwitches.HydraButton.RIGHT_BUMPER);
+    private static final int SHARE = bit(HydraSwitches.HydraButton.SHARE);
+    private static final int OPTIONS = bit(HydraSwitches.HydraButton.OPTIONS);
+    private static final int DPAD_UP = bit(HydraSwitches.HydraButton.DPAD_UP);
+    private static final int DPAD_DOWN = bit(HydraSwitches.HydraButton.DPAD_DOWN);
+    private static final int DPAD_LEFT = bit(HydraSwitches.HydraButton.DPAD_LEFT);
+    private static final int DPAD_RIGHT = bit(HydraSwitches.HydraButton.DPAD_RIGHT);
+    private static final int LEFT_STICK_BUTTON = bit(HydraSwitches.HydraButton.LEFT_STICK_BUTTON);
+    private static final int RIGHT_STICK_BUTTON = bit(HydraSwitches.HydraButton.RIGHT_STICK_BUTTON);
+
+    // Button masks of this capture and the one before
+    private int buttons;
+    private int previous;
+
+    // Analog values, as reported by the gamepad
+    private float leftStickX;
+    private float leftStickY;
+    private float rightStickX;
+    private float rightStickY;
+    private float leftTrigger;
+    private float rightTrigger;
+
+    /**
+     * Gets the bit of a button.
+     *
+     * @param button The button.
+     * @return 1 &lt;&lt; button.ordinal().
+     */
+    public static int bit(HydraSwitches.HydraButton button) {
+        return 1 << button.ordinal();
+    }
+
+    /**
+     * Builds the mask of a chord of buttons.
+     *
+     * @param buttons The buttons pressed together.
+     * @return The mask with the bit of each button set.
+     */
+    public static int mask(HydraSwitches.HydraButton... buttons) {
+        int mask = 0;
+        for (HydraSwitches.HydraButton button : buttons) {
+            mask |= bit(button);
+        }
+        return mask;
+    }
+
+    /**
+     * Packs the buttons currently held on a gamepad into a mask.
+     *
+     * @param gamepad The gamepad to read.
+     * @return The button mask.
+     */
+    public static int pack(Gamepad gamepad) {
+        int mask = 0;
+        if (gamepad.circle) mask |= CIRCLE;
+        if (gamepad.square) mask |= SQUARE;
+        if (gamepad.triangle) mask |= TRIANGLE;
+        if (gamepad.cross) mask |= CROSS;
+        if (gamepad.left_bumper) mask |= LEFT_BUMPER;
+        if (gamepad.right_bumper) mask |= RIGHT_BUMPER;
+        if (gamepad.share) mask |= SHARE;
+        if (gamepad.options) mask |= OPTIONS;
+        if (gamepad.dpad_up) mask |= DPAD_UP;
+        if (gamepad.dpad_down) mask |= DPAD_DOWN;
+        if (gamepad.dpad_left) mask |= DPAD_LEFT;
+        if (gamepad.dpad_right) mask |= DPAD_RIGHT;
+        if (gamepad.left_stick_button) mask |= LEFT_STICK_BUTTON;
+        if (gamepad.right_stick_button) mask |= RIGHT_STICK_BUTTON;
+        return mask;
+    }
+
+    /**
+     * Captures a gamepad, keeping the current buttons as the previous ones.
+     *
+     * @param gamepad The gamepad to read.
+     */
+    public void capture(Gamepad gamepad) {
+        set(pack(gamepad), gamepad.left_stick_x, gamepad.left_stick_y, gamepad.right_stick_x, gamepad.right_stick_y,
+                gamepad.left_trigger, gamepad.right_trigger);
+    }
+
+    /**
+     * Records a new state from raw values, keeping the current buttons as the previous ones.
+     *
+     * @param buttons      The button mask.
+     * @param leftStickX   The left stick x, as reported by the gamepad.
+     * @param leftStickY   The left stick y, as reported by the gamepad (negative forward).
+     * @param rightStickX  The right stick x.
+     * @param rightStickY  The right stick y.
+     * @param leftTrigger  The left trigger.
+     * @param rightTrigger The right trigger.
+     */
+    public void set(int buttons, float leftStickX, float leftStickY, float rightStickX, float rightStickY,
+                    float leftTrigger, float rightTrigger) {
+        this.previous = this.buttons;
+        this.buttons = buttons;
+        this.leftStickX = leftStickX;
+        this.leftStickY = leftStickY;
+        this.rightStickX = rightStickX;
+        this.rightStickY = rightStickY;
+        this.leftTrigger = leftTrigger;
+        this.rightTrigger = rightTrigger;
+    }
+
+    /**
+     * Forgets the previous buttons, so nothing reads as just pressed or released until the next capture.
+     */
+    public void clearEdges() {
+        previous = buttons;
+    }
+
+    public int getButtons() {
+        return buttons;
+    }
+
+    public int getPreviousButtons() {
+        return previous;
+    }
+
+    /**
+     * Gets the mask of buttons pressed since the previous capture.
+     */
+    public int getPressed() {
+        return buttons & ~previous;
+    }
+
+    /**
+     * Gets the mask of buttons released since the previous capture.
+     */
+    public int getReleased() {
+        return previous & ~buttons;
+    }
+
+    /**
+     * Gets the mask of buttons that changed since the previous capture.
+     */
+    public int getChanged() {
+        return buttons ^ previous;
+    }
+
+    public boolean isDown(HydraSwitches.HydraButton button) {
+        return (buttons & bit(button)) != 0;
+    }
+
+    public boolean wasJustPressed(HydraSwitches.HydraButton button) {
+        return (getPressed() & bit(button)) != 0;
+    }
+
+    public boolean wasJustReleased(HydraSwitches.HydraButton button) {
+        return (getReleased() & bit(button)) != 0;
+    }
+
+    public boolean stateJustChanged(HydraSwitches.HydraButton button) {
+        return (getChanged() & bit(button)) != 0;
+    }
+
+    /**
+     * Checks whether every button of a chord is held.
+     *
+     * @param mask The chord mask, built with {@link #mask}.
+     */
+    public boolean isChordDown(int mask) {
+        return (buttons & mask) == mask;
+    }
+
+    /**
+     * Checks whether a chord was completed by this capture: all of its buttons are held now but were not before.
+     *
+     * @param mask The chord mask, built with {@link #mask}.
+     */
+    public boolean wasChordJustPressed(int mask) {
+        return (buttons & mask) == mask && (previous & mask) != mask;
+    }
+
+    public float getLeftStickX() {
+        return leftStickX;
+    }
+
+    public float getLeftStickY() {
+        return leftStickY;
+    }
+
+    public float getRightStickX() {
+        return rightStickX;
+    }
+
+    public float getRightStickY() {
+        return rightStickY;
+    }
+
+    public float getLeftTrigger() {
+        return leftTrigger;
+    }
+
+    public float getRightTrigger() {
+        return rightTrigger;
+    }
+}
@@ -0,0 +1,16 @@
+package com.hydraulichydras.hydralib;
+
+/**
+ * Interface for anything that supplies gamepad state, such as a live gamepad or a recording being replayed.
+ */
+public interface HydraGamepadSource {
+
+    /**
+     * Copies the latest consistent gamepad state into a snapshot. The snapshot keeps its current buttons as the
+     * previous ones, so edges are measured between successive reads.
+     *
+     * @param out The snapshot to write into.
+     * @return The sequence number of the packet the state came from. Equal numbers mean the same packet.
+     */
+    long read(HydraGamepadSnapshot out);
+}
@@ -0,0 +1,161 @@
+package com.hydraulichydras.hydralib;
+
+/**
+ * Shapes one gamepad axis: axial deadband, response curve and slew-rate limit.
+ * <p>
+ * Inputs inside the deadband give zero, and the rest of the travel is rescaled so the output rises smoothly from
+ * zero at the deadband edge. The {@link HydraResponseCurve} is sampled into a lookup table whenever it is
+ * configured, so each update is a table interpolation. The slew-rate limit bounds how fast the output may change,
+ * measured with the loop timestamp from {@link HydraLoopCache}, so a snapped stick ramps the robot up instead of
+ * jerking it. Updating never allocates.
+ * <p>
+ * The shaper holds slew state, so each axis needs its own instance.
+ */
+public class HydraInputShaper {
+
+    // Number of intervals in the response curve lookup table
+    private static final int TABLE_SIZE = 256;
+
+    // Configuration
+    private double deadband = 0.0;
+    private HydraResponseCurve curve = HydraResponseCurve.LINEAR;
+    private double curveParameter = 0.0;
+    private double scale = 1.0;
+    private double slewRate = Double.POSITIVE_INFINITY;
+
+    // Response curve sampled over [0, 1]
+    private final double[] table = new double[TABLE_SIZE + 1];
+
+    // Slew state
+    private double output;
+    private long lastTime;
+    private boolean hasLast;
+
+    /**
+     * Constructs a new HydraInputShaper that passes its input through unchanged.
+     */
+    public HydraInputShaper() {
+        buildTable();
+    }
+
+    /**
+     * Sets the axial deadband. Inputs with a smaller magnitude give zero output.
+     *
+     * @param deadband The deadband in [0, 1).
+     */
+    public HydraInputShaper setDeadband(double deadband) {
+        if (deadband < 0.0 || deadband >= 1.0) {
+            throw new IllegalArgumentException("Deadband must be in [0, 1)");
+        }
+        this.deadband = deadband;
+        return this;
+    }
+
+    /**
+     * Sets the response curve, rebuilding the lookup table.
+     *
+     * @param curve     The response curve.
+     * @param parameter The curve parameter; see {@link HydraResponseCurve}.
+     */
+    public HydraInputShaper setCurve(HydraResponseCurve curve, double parameter) {
+        this.curve = curve;
+        this.curveParameter = parameter;
+        buildTable();
+        return this;
+    }
+
+    /**
+     * Sets the output at full deflection, for example to limit a precision mode to half speed.
+     *
+     * @param scale The output scale.
+     */
+    public HydraInputShaper setScale(double scale) {
+        this.scale = scale;
+        return this;
+    }
+
+    /**
+     * Sets the largest change of the output per second.
+     *
+     * @param slewRate The slew rate (in output units per second), or infinity to disable slew limiting.
+     */
+    public HydraInputShaper setSlewRate(double slewRate) {
+        if (!(slewRate > 0)) {
+            throw new IllegalArgumentException("Slew rate must be positive");
+        }
+        this.slewRate = slewRate;
+        return this;
+    }
+
+    /**
+     * Applies the deadband, response curve and scale, without slew limiting or changing any state.
+     *
+     * @param input The raw axis value in [-1, 1].
+     * @return The shaped value.
+     */
+    public double shape(double input) {
+        double magnitude = Math.min(Math.abs(input), 1.0);
+        if (magnitude <= deadband) {
+            return 0.0;
+        }
+
+        double position = (magnitude - deadband) / (1.0 - deadband) * TABLE_SIZE;
+        int index = Math.min((int) position, TABLE_SIZE - 1);
+        double fraction = position - index;
+        double shaped = table[index] + fraction * (table[index + 1] - table[index]);
+        return Math.copySign(shaped * scale, input);
+    }
+
+    /**
+     * Shapes an input and applies the slew-rate limit, using the loop timestamp from {@link HydraLoopCache}.
+     * Call once per loop.
+     *
+     * @param input The raw axis value in [-1, 1].
+     * @return The shaped, slew-limited value.
+     */
+    public double calculate(double input) {
+        return calculate(input, HydraLoopCache.getInstance().getTimestamp());
+    }
+
+    /**
+     * Shapes an input and applies the slew-rate limit.
+     *
+     * @param input     The raw axis value in [-1, 1].
+     * @param timestamp The current time (in nanoseconds).
+     * @return The shaped, slew-limited value.
+     */
+    public double calculate(double input, long timestamp) {
+        double target = shape(input);
+        if (slewRate == Double.POSITIVE_INFINITY) {
+            output = target;
+        } else if (hasLast) {
+            double maxStep = slewRate * (timestamp - lastTime) * 1e-9;
+            output += Math.max(-maxStep, Math.min(maxStep, target - output));
+        }
+        lastTime = timestamp;
+        hasLast = true;
+        return output;
+    }
+
+    /**
+     * Clears the slew state so the output restarts from zero.
+     */
+    public void reset() {
+        output = 0.0;
+        hasLast = false;
+    }
+
+    /**
+     * Gets the last value returned by {@link #calculate(double)}.
+     */
+    public double getOutput() {
+        return output;
+    }
+
+    // Samples the response curve over [0, 1]
+    private void buildTable() {
+        for (int i = 0; i <= TABLE_SIZE; i++) {
+            table[i] = curve.apply((double) i / TABLE_SIZE, curveParameter);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.hydraulichydras.hydralib;
+
+/**
+ * Enumeration representing how lookup tables interpolate between grid points.
+ */
+public enum HydraInterpolation {
+    /** Straight lines between grid points; continuous but with kinks. */
+    LINEAR,
+
+    /** Cubic Hermite curves with finite-difference slopes; smooth first derivative. */
+    CUBIC
+}
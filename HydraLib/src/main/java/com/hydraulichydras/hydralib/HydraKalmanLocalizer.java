@@ -0,0 +1,280 @@
+package com.hydraulichydras.hydralib;
+
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.factory.LinearSolverFactory_DDRM;
+import org.ejml.interfaces.linsol.LinearSolverDense;
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Extended Kalman filter localizer fusing dead-wheel odometry with IMU heading and optional absolute pose
+ * measurements (e.g. AprilTag detections).
+ * <p>
+ * The state is the field-frame pose (x, y, heading). Odometry motion drives the prediction step, the IMU heading
+ * and absolute poses drive correction steps. All matrices are preallocated, so {@link #update()} and
+ * {@link #addAbsoluteMeasurement(double, double, double, double, double)} never allocate.
+ * <p>
+ * Pair this with {@link HydraThreeWheelLocalizer}: a {@link HydraTwoWheelLocalizer} already takes its heading
+ * from the IMU, so correcting it with the same IMU adds no information.
+ */
+public class HydraKalmanLocalizer implements HydraLocalizer {
+
+    // Odometry providing the motion used by the prediction step
+    private final HydraDeadWheelLocalizer odometry;
+
+    // IMU heading (in radians), or null when no IMU is used
+    private final DoubleSupplier headingSupplier;
+
+    // Field-frame pose estimate, updated in place
+    private final HydraPose poseEstimate = new HydraPose();
+
+    // Estimates recorded on every update, for latency-compensated corrections
+    private final HydraPoseHistory history = new HydraPoseHistory();
+
+    // Scratch poses for delayed measurements
+    private final HydraPose uncorrected = new HydraPose();
+    private final HydraPose projected = new HydraPose();
+
+    // Offset between the IMU heading and the field heading
+    private double headingOffset;
+
+    // Process noise: variance added per unit of distance travelled and per radian turned
+    private double translationNoise = 0.01;
+    private double rotationNoise = 0.005;
+
+    // Measurement noise of the IMU heading (variance, in radians squared)
+    private double headingNoise = 0.0004;
+
+    // Minimum time between IMU reads, and the time of the last read (in nanoseconds)
+    private long headingUpdatePeriod;
+    private long lastHeadingUpdate;
+    private boolean hasHeadingUpdate;
+
+    // Covariance of the estimate, and preallocated work matrices
+    private final DMatrixRMaj covariance = new DMatrixRMaj(3, 3);
+    private final DMatrixRMaj jacobian = new DMatrixRMaj(3, 3);
+    private final DMatrixRMaj innovationCovariance = new DMatrixRMaj(3, 3);
+    private final DMatrixRMaj innovationInverse = new DMatrixRMaj(3, 3);
+    private final DMatrixRMaj gain = new DMatrixRMaj(3, 3);
+    private final DMatrixRMaj temp = new DMatrixRMaj(3, 3);
+    private final LinearSolverDense<DMatrixRMaj> solver = LinearSolverFactory_DDRM.symmPosDef(3);
+
+    /**
+     * Constructs a new HydraKalmanLocalizer.
+     *
+     * @param odometry        The odometry localizer providing motion between updates.
+     * @param headingSupplier The IMU heading (in radians, counter-clockwise), or null to run without an IMU.
+     */
+    public HydraKalmanLocalizer(HydraDeadWheelLocalizer odometry, DoubleSupplier headingSupplier) {
+        this.odometry = odometry;
+        this.headingSupplier = headingSupplier;
+        if (headingSupplier != null) {
+            headingOffset = -headingSupplier.getAsDouble();
+        }
+    }
+
+    /**
+     * Sets the odometry process noise.
+     *
+     * @param translationNoise Position variance added per unit of distance travelled.
+     * @param rotationNoise    Heading variance added per radian turned.
+     */
+    public void setProcessNoise(double translationNoise, double rotationNoise) {
+        this.translationNoise = translationNoise;
+        this.rotationNoise = rotationNoise;
+    }
+
+    /**
+     * Sets the IMU heading measurement noise.
+     *
+     * @param headingNoise Heading variance (in radians squared).
+     */
+    public void setHeadingNoise(double headingNoise) {
+        this.headingNoise = headingNoise;
+    }
+
+    /**
+     * Limits how often the IMU is read. IMU reads are slow, and heading drifts slowly enough that
+     * correcting it every few loops is usually sufficient.
+     *
+     * @param seconds Minimum time between IMU reads, or 0 to read on every update.
+     */
+    public void setHeadingUpdatePeriod(double seconds) {
+        this.headingUpdatePeriod = (long) (seconds * 1e9);
+    }
+
+    @Override
+    public HydraPose getPoseEstimate() {
+        return poseEstimate;
+    }
+
+    @Override
+    public void setPoseEstimate(HydraPose pose) {
+        poseEstimate.set(pose);
+        odometry.setPoseEstimate(pose);
+        history.clear();
+        CommonOps_DDRM.fill(covariance, 0);
+        if (headingSupplier != null) {
+            headingOffset = pose.heading - headingSupplier.getAsDouble();
+        }
+    }
+
+    @Override
+    public HydraPose getPoseVelocity() {
+        return odometry.getPoseVelocity();
+    }
+
+    /**
+     * Gets the covariance of the pose estimate, ordered (x, y, heading).
+     *
+     * @return The 3x3 covariance matrix. Do not modify.
+     */
+    public DMatrixRMaj getCovariance() {
+        return covariance;
+    }
+
+    /**
+     * Predicts the pose from odometry, then corrects the heading with the IMU. The IMU rate limit and the recorded
+     * history both use the loop timestamp from {@link HydraLoopCache}.
+     */
+    @Override
+    public void update() {
+        long now = HydraLoopCache.getInstance().getTimestamp();
+        odometry.update();
+        predict(odometry.getLastDeltaX(), odometry.getLastDeltaY(), odometry.getLastDeltaHeading());
+
+        if (headingSupplier != null) {
+            if (!hasHeadingUpdate || now - lastHeadingUpdate >= headingUpdatePeriod) {
+                lastHeadingUpdate = now;
+                hasHeadingUpdate = true;
+                correctHeading(headingSupplier.getAsDouble() + headingOffset, headingNoise);
+            }
+        }
+
+        history.record(now, poseEstimate);
+    }
+
+    /**
+     * Gets the history of pose estimates recorded on each update.
+     */
+    public HydraPoseHistory getPoseHistory() {
+        return history;
+    }
+
+    /**
+     * Prediction step: moves the estimate by a robot-frame motion and grows the covariance.
+     */
+    private void predict(double dx, double dy, double dHeading) {
+        double startX = poseEstimate.x;
+        double startY = poseEstimate.y;
+        HydraDeadWheelLocalizer.applyTwist(poseEstimate, dx, dy, dHeading);
+        double worldDx = poseEstimate.x - startX;
+        double worldDy = poseEstimate.y - startY;
+
+        // Jacobian of the motion with respect to the state: only the starting heading couples into position
+        CommonOps_DDRM.setIdentity(jacobian);
+        jacobian.unsafe_set(0, 2, -worldDy);
+        jacobian.unsafe_set(1, 2, worldDx);
+
+        // P = F * P * F^T + Q
+        CommonOps_DDRM.mult(jacobian, covariance, temp);
+        CommonOps_DDRM.multTransB(temp, jacobian, covariance);
+
+        double translationVariance = translationNoise * Math.hypot(dx, dy);
+        double headingVariance = rotationNoise * Math.abs(dHeading);
+        covariance.data[0] += translationVariance;
+        covariance.data[4] += translationVariance;
+        covariance.data[8] += headingVariance;
+    }
+
+    /**
+     * Correction step for a heading-only measurement.
+     */
+    private void correctHeading(double measuredHeading, double variance) {
+        double[] p = covariance.data;
+        double innovation = HydraAngle.normDelta(measuredHeading - poseEstimate.heading);
+
+        // The measurement selects the heading, so S is a scalar and K is the third column of P over S
+        double s = p[8] + variance;
+        double k0 = p[2] / s;
+        double k1 = p[5] / s;
+        double k2 = p[8] / s;
+
+        poseEstimate.x += k0 * innovation;
+        poseEstimate.y += k1 * innovation;
+        poseEstimate.heading = AngleUnit.normalizeRadians(poseEstimate.heading + k2 * innovation);
+
+        // P = (I - K * H) * P, where row 2 of P is the only one H reads
+        double p20 = p[6];
+        double p21 = p[7];
+        double p22 = p[8];
+        p[0] -= k0 * p20; p[1] -= k0 * p21; p[2] -= k0 * p22;
+        p[3] -= k1 * p20; p[4] -= k1 * p21; p[5] -= k1 * p22;
+        p[6] -= k2 * p20; p[7] -= k2 * p21; p[8] -= k2 * p22;
+    }
+
+    /**
+     * Corrects the estimate with an absolute field-frame pose measurement, such as an AprilTag detection.
+     *
+     * @param x                   Measured x position.
+     * @param y                   Measured y position.
+     * @param heading             Measured heading (in radians).
+     * @param translationVariance Variance of the measured position.
+     * @param headingVariance     Variance of the measured heading (in radians squared).
+     */
+    public void addAbsoluteMeasurement(double x, double y, double heading, double translationVariance, double headingVariance) {
+        double innovationX = x - poseEstimate.x;
+        double innovationY = y - poseEstimate.y;
+        double innovationHeading = HydraAngle.normDelta(heading - poseEstimate.heading);
+
+        // S = P + R
+        System.arraycopy(covariance.data, 0, innovationCovariance.data, 0, 9);
+        innovationCovariance.data[0] += translationVariance;
+        innovationCovariance.data[4] += translationVariance;
+        innovationCovariance.data[8] += headingVariance;
+
+        if (!solver.setA(innovationCovariance)) {
+            return;
+        }
+        solver.invert(innovationInverse);
+
+        // K = P * S^-1
+        CommonOps_DDRM.mult(covariance, innovationInverse, gain);
+
+        double[] k = gain.data;
+        poseEstimate.x += k[0] * innovationX + k[1] * innovationY + k[2] * innovationHeading;
+        poseEstimate.y += k[3] * innovationX + k[4] * innovationY + k[5] * innovationHeading;
+        poseEstimate.heading = AngleUnit.normalizeRadians(poseEstimate.heading
+                + k[6] * innovationX + k[7] * innovationY + k[8] * innovationHeading);
+
+        // P = (I - K) * P
+        CommonOps_DDRM.mult(gain, covariance, temp);
+        CommonOps_DDRM.subtractEquals(covariance, temp);
+    }
+
+    /**
+     * Corrects the estimate with an absolute pose measured at a past time, such as a vision detection.
+     * The measurement is carried forward by the motion recorded since capture, applied to the current estimate,
+     * and the recorded history is moved along with the correction.
+     *
+     * @param x                   Measured x position.
+     * @param y                   Measured y position.
+     * @param heading             Measured heading (in radians).
+     * @param translationVariance Variance of the measured position.
+     * @param headingVariance     Variance of the measured heading (in radians squared).
+     * @param timestamp           The time the measurement was captured (in nanoseconds, on the {@link HydraClock} time base).
+     * @return false if the capture time is older than the recorded history, in which case nothing changes.
+     */
+    public boolean addAbsoluteMeasurement(double x, double y, double heading, double translationVariance,
+                                          double headingVariance, long timestamp) {
+        if (!history.projectToPresent(timestamp, x, y, heading, poseEstimate, projected)) {
+            return false;
+        }
+        uncorrected.set(poseEstimate);
+        addAbsoluteMeasurement(projected.x, projected.y, projected.heading, translationVariance, headingVariance);
+        history.rebase(timestamp, uncorrected, poseEstimate);
+        return true;
+    }
+}
@@ -0,0 +1,181 @@
+package com.hydraulichydras.hydralib;
+
+/**
+ * Inverse and forward kinematics for mecanum, X-drive and tank drivetrains, on primitive arrays.
+ * <p>
+ * Robot velocities use the library's convention: x forward, y left, heading counter-clockwise. Four-wheel
+ * holonomic drives use motor order left front, left rear, right rear, right front, matching
+ * {@link HydraMecanumDrivetrain}; tank drives use left, right. Every method writes into a caller-supplied buffer
+ * and never allocates, so the same arrays can be reused every loop.
+ */
+public final class HydraKinematics {
+
+    /** Battery voltage that powers are normally tuned at. */
+    public static final double NOMINAL_VOLTAGE = 12.0;
+
+    // Private constructor to prevent instantiation
+    private HydraKinematics() {
+    }
+
+    /**
+     * Converts a robot velocity into mecanum wheel velocities.
+     *
+     * @param vx    The forward velocity.
+     * @param vy    The left velocity.
+     * @param omega The counter-clockwise angular velocity (in radians per unit time).
+     * @param k     Wheel speed per unit of angular velocity, (trackWidth + wheelBase) / 2.
+     * @param out   The array receiving the four wheel velocities in motor order.
+     */
+    public static void mecanumInverse(double vx, double vy, double omega, double k, double[] out) {
+        double rotation = k * omega;
+        out[0] = vx - vy - rotation;
+        out[1] = vx + vy - rotation;
+        out[2] = vx - vy + rotation;
+        out[3] = vx + vy + rotation;
+    }
+
+    /**
+     * Converts a robot velocity into mecanum wheel velocities.
+     *
+     * @param velocity The robot-frame velocity, with the angular velocity in the heading.
+     * @param k        Wheel speed per unit of angular velocity, (trackWidth + wheelBase) / 2.
+     * @param out      The array receiving the four wheel velocities in motor order.
+     */
+    public static void mecanumInverse(HydraPose velocity, double k, double[] out) {
+        mecanumInverse(velocity.x, velocity.y, velocity.heading, k, out);
+    }
+
+    /**
+     * Converts mecanum wheel velocities back into a robot velocity.
+     *
+     * @param wheels The four wheel velocities in motor order.
+     * @param k      Wheel speed per unit of angular velocity, (trackWidth + wheelBase) / 2.
+     * @param out    The pose receiving the robot-frame velocity.
+     * @return The out pose.
+     */
+    public static HydraPose mecanumForward(double[] wheels, double k, HydraPose out) {
+        out.x = (wheels[0] + wheels[1] + wheels[2] + wheels[3]) / 4.0;
+        out.y = (-wheels[0] + wheels[1] - wheels[2] + wheels[3]) / 4.0;
+        out.heading = (-wheels[0] - wheels[1] + wheels[2] + wheels[3]) / (4.0 * k);
+        return out;
+    }
+
+    /**
+     * Converts driver powers into mecanum wheel powers, the form used by stick driving.
+     *
+     * @param forward The forward power.
+     * @param strafe  The strafe power, positive to the right.
+     * @param turn    The turn power, positive clockwise.
+     * @param out     The array receiving the four wheel powers in motor order.
+     */
+    public static void mecanumPowers(double forward, double strafe, double turn, double[] out) {
+        mecanumInverse(forward, -strafe, -turn, 1.0, out);
+    }
+
+    /**
+     * Converts a robot velocity into X-drive wheel velocities, for omni wheels mounted at 45 degrees in the corners.
+     *
+     * @param vx     The forward velocity.
+     * @param vy     The left velocity.
+     * @param omega  The counter-clockwise angular velocity (in radians per unit time).
+     * @param radius The distance from the center of rotation to each wheel.
+     * @param out    The array receiving the four wheel velocities in motor order.
+     */
+    public static void xDriveInverse(double vx, double vy, double omega, double radius, double[] out) {
+        double scale = Math.sqrt(0.5);
+        mecanumInverse(vx * scale, vy * scale, omega, radius, out);
+    }
+
+    /**
+     * Converts X-drive wheel velocities back into a robot velocity.
+     *
+     * @param wheels The four wheel velocities in motor order.
+     * @param radius The distance from the center of rotation to each wheel.
+     * @param out    The pose receiving the robot-frame velocity.
+     * @return The out pose.
+     */
+    public static HydraPose xDriveForward(double[] wheels, double radius, HydraPose out) {
+        mecanumForward(wheels, radius, out);
+        double scale = Math.sqrt(2.0);
+        out.x *= scale;
+        out.y *= scale;
+        return out;
+    }
+
+    /**
+     * Converts a robot velocity into tank wheel velocities. Sideways velocity cannot be followed and is ignored.
+     *
+     * @param vx         The forward velocity.
+     * @param omega      The counter-clockwise angular velocity (in radians per unit time).
+     * @param trackWidth The distance between the left and right wheels.
+     * @param out        The array receiving the left and right wheel velocities.
+     */
+    public static void tankInverse(double vx, double omega, double trackWidth, double[] out) {
+        double rotation = omega * trackWidth / 2.0;
+        out[0] = vx - rotation;
+        out[1] = vx + rotation;
+    }
+
+    /**
+     * Converts tank wheel velocities back into a robot velocity.
+     *
+     * @param wheels     The left and right wheel velocities.
+     * @param trackWidth The distance between the left and right wheels.
+     * @param out        The pose receiving the robot-frame velocity.
+     * @return The out pose.
+     */
+    public static HydraPose tankForward(double[] wheels, double trackWidth, HydraPose out) {
+        out.x = (wheels[0] + wheels[1]) / 2.0;
+        out.y = 0.0;
+        out.heading = (wheels[1] - wheels[0]) / trackWidth;
+        return out;
+    }
+
+    /**
+     * Scales all values down together if any exceeds the limit, so the ratios between wheels, and with them the
+     * direction of motion, are kept. Values within the limit are left unchanged.
+     *
+     * @param values The wheel values, modified in place.
+     * @param limit  The largest allowed magnitude.
+     * @return The factor the values were divided by, at least 1.
+     */
+    public static double desaturate(double[] values, double limit) {
+        double max = limit;
+        for (int i = 0; i < values.length; i++) {
+            max = Math.max(max, Math.abs(values[i]));
+        }
+        double scale = max / limit;
+        if (scale > 1.0) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] /= scale;
+            }
+        }
+        return scale;
+    }
+
+    /**
+     * Scales powers tuned at {@link #NOMINAL_VOLTAGE} so they produce the same effort at the current battery
+     * voltage. Nothing is changed if the voltage is not positive, for example before the first reading.
+     *
+     * @param values  The powers, modified in place.
+     * @param voltage The battery voltage (in volts).
+     */
+    public static void scaleForVoltage(double[] values, double voltage) {
+        if (!(voltage > 0.0)) {
+            return;
+        }
+        scale(values, NOMINAL_VOLTAGE / voltage);
+    }
+
+    /**
+     * Multiplies all values by a factor, such as {@link HydraLoopCache#getVoltageCompensation()}.
+     *
+     * @param values The values, modified in place.
+     * @param factor The factor to multiply by.
+     */
+    public static void scale(double[] values, double factor) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] *= factor;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.hydraulichydras.hydralib;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Interpolating lookup table over one input, such as shooter speed against distance.
+ * <p>
+ * Values are stored in primitive arrays. If the grid points are evenly spaced the interval containing an input is
+ * found by direct indexing in O(1); otherwise by binary search. Inputs outside the grid are clamped to its ends.
+ * Cubic slopes are computed once at construction, so lookups never allocate. Use {@link #compile} to sample a
+ * {@link HydraPolynomial} or any function into a table that is cheaper to evaluate every loop.
+ */
+public class HydraLookupTable1d {
+
+    // Relative tolerance used to decide whether a grid is evenly spaced
+    private static final double UNIFORM_TOLERANCE = 1e-9;
+
+    private final double[] xs;
+    private final double[] ys;
+    private final HydraInterpolation interpolation;
+
+    // Slope at each grid point, only for cubic interpolation
+    private final double[] slopes;
+
+    // Direct indexing for evenly spaced grids
+    private final boolean uniform;
+    private final double inverseStep;
+
+    /**
+     * Constructs a new HydraLookupTable1d. The arrays are copied.
+     *
+     * @param xs            The grid points, strictly increasing.
+     * @param ys            The value at each grid point.
+     * @param interpolation How to interpolate between grid points.
+     * @throws IllegalArgumentException If the arrays differ in length, have fewer than two points, or the grid is not
+     *                                  strictly increasing.
+     */
+    public HydraLookupTable1d(double[] xs, double[] ys, HydraInterpolation interpolation) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("Grid points and values must have the same length");
+        }
+        checkGrid(xs);
+        this.xs = xs.clone();
+        this.ys = ys.clone();
+        this.interpolation = interpolation;
+        this.uniform = isUniform(xs);
+        this.inverseStep = (xs.length - 1) / (xs[xs.length - 1] - xs[0]);
+
+        if (interpolation == HydraInterpolation.CUBIC) {
+            slopes = new double[ys.length];
+            computeSlopes(this.xs, this.ys, 0, 1, slopes);
+        } else {
+            slopes = null;
+        }
+    }
+
+    /**
+     * Samples a function at evenly spaced points into a table.
+     *
+     * @param function      The function to sample.
+     * @param min           The first grid point.
+     * @param max           The last grid point.
+     * @param samples       The number of grid points, at least two.
+     * @param interpolation How to interpolate between grid points.
+     * @return The table.
+     */
+    public static HydraLookupTable1d compile(DoubleUnaryOperator function, double min, double max, int samples,
+                                             HydraInterpolation interpolation) {
+        double[] xs = grid(min, max, samples);
+        double[] ys = new double[samples];
+        for (int i = 0; i < samples; i++) {
+            ys[i] = function.applyAsDouble(xs[i]);
+        }
+        return new HydraLookupTable1d(xs, ys, interpolation);
+    }
+
+    /**
+     * Samples a polynomial at evenly spaced points into a table.
+     *
+     * @param polynomial    The polynomial to sample.
+     * @param min           The first grid point.
+     * @param max           The last grid point.
+     * @param samples       The number of grid points, at least two.
+     * @param interpolation How to interpolate between grid points.
+     * @return The table.
+     */
+    public static HydraLookupTable1d compile(HydraPolynomial polynomial, double min, double max, int samples,
+                                             HydraInterpolation interpolation) {
+        double[] xs = grid(min, max, samples);
+        double[] ys = new double[samples];
+        polynomial.calculate(xs, ys);
+        return new HydraLookupTable1d(xs, ys, interpolation);
+    }
+
+    /**
+     * Looks up the interpolated value at an input.
+     *
+     * @param x The input, clamped to the grid.
+     * @return The interpolated value.
+     */
+    public double get(double x) {
+        x = Math.max(xs[0], Math.min(xs[xs.length - 1], x));
+        int i = interval(xs, x, uniform, inverseStep);
+        double h = xs[i + 1] - xs[i];
+        double t = (x - xs[i]) / h;
+
+        if (slopes == null) {
+            return ys[i] + t * (ys[i + 1] - ys[i]);
+        }
+        double t2 = t * t;
+        double t3 = t2 * t;
+        return (2 * t3 - 3 * t2 + 1) * ys[i]
+                + (t3 - 2 * t2 + t) * h * slopes[i]
+                + (-2 * t3 + 3 * t2) * ys[i + 1]
+                + (t3 - t2) * h * slopes[i + 1];
+    }
+
+    /**
+     * Looks up the interpolated values at many inputs.
+     *
+     * @param inputs The inputs, clamped to the grid.
+     * @param out    The array receiving the value at each input. May be the same array as inputs.
+     */
+    public void get(double[] inputs, double[] out) {
+        for (int i = 0; i < inputs.length; i++) {
+            out[i] = get(inputs[i]);
+        }
+    }
+
+    public double getMin() {
+        return xs[0];
+    }
+
+    public double getMax() {
+        return xs[xs.length - 1];
+    }
+
+    public int size() {
+        return xs.length;
+    }
+
+    public HydraInterpolation getInterpolation() {
+        return interpolation;
+    }
+
+    /**
+     * Checks whether lookups use direct indexing because the grid is evenly spaced.
+     */
+    public boolean isUniform() {
+        return uniform;
+    }
+
+    // Creates evenly spaced grid points
+    static double[] grid(double min, double max, int samples) {
+        if (samples < 2) {
+            throw new IllegalArgumentException("A table needs at least two grid points");
+        }
+        if (!(max > min)) {
+            throw new IllegalArgumentException("Maximum must be greater than minimum");
+        }
+        double[] grid = new double[samples];
+        for (int i = 0; i < samples; i++) {
+            grid[i] = min + (max - min) * i / (samples - 1);
+        }
+        return grid;
+    }
+
+    // Validates that a grid has at least two strictly increasing points
+    static void checkGrid(double[] grid) {
+        if (grid.length < 2) {
+            throw new IllegalArgumentException("A table needs at least two grid points");
+        }
+        for (int i = 1; i < grid.length; i++) {
+            if (!(grid[i] > grid[i - 1])) {
+                throw new IllegalArgumentException("Grid points must be strictly increasing");
+            }
+        }
+    }
+
+    // Checks whether a grid is evenly spaced
+    static boolean isUniform(double[] grid) {
+        int last = grid.length - 1;
+        double range = grid[last] - grid[0];
+        for (int i = 1; i < last; i++) {
+            if (Math.abs(grid[i] - grid[0] - range * i / last) > UNIFORM_TOLERANCE * range) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Finds the interval [grid[i], grid[i + 1]] containing a clamped input
+    static int interval(double[] grid, double x, boolean uniform, double inverseStep) {
+        int last = grid.length - 2;
+        if (uniform) {
+            int i = (int) ((x - grid[0]) * inverseStep);
+            return Math.max(0, Math.min(last, i));
+        }
+        int low = 0;
+        int high = last;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (grid[mid] <= x) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Computes finite-difference slopes along a grid, for values stored at offset + k * stride.
+     * Each slope is that of the parabola through the point and two neighbours, taken one-sided at the ends.
+     */
+    static void computeSlopes(double[] grid, double[] values, int offset, int stride, double[] out) {
+        int n = grid.length;
+        if (n == 2) {
+            double slope = (values[offset + stride] - values[offset]) / (grid[1] - grid[0]);
+            out[offset] = slope;
+            out[offset + stride] = slope;
+            return;
+        }
+        for (int k = 0; k < n; k++) {
+            // Parabola through points a, a + 1 and a + 2
+            int a = Math.max(0, Math.min(n - 3, k - 1));
+            double h0 = grid[a + 1] - grid[a];
+            double h1 = grid[a + 2] - grid[a + 1];
+            double d0 = (values[offset + (a + 1) * stride] - values[offset + a * stride]) / h0;
+            double d1 = (values[offset + (a + 2) * stride] - values[offset + (a + 1) * stride]) / h1;
+
+            double slope;
+            if (k == a) {
+                slope = ((2 * h0 + h1) * d0 - h0 * d1) / (h0 + h1);
+            } else if (k == a + 1) {
+                slope = (h1 * d0 + h0 * d1) / (h0 + h1);
+            } else {
+                slope = ((2 * h1 + h0) * d1 - h1 * d0) / (h0 + h1);
+            }
+            out[offset + k * stride] = slope;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.hydraulichydras.hydralib;
+
+import java.util.function.DoubleBinaryOperator;
+
+/**
+ * Interpolating lookup table over two inputs, such as arm gravity compensation against angle and extension.
+ * <p>
+ * Values are stored row-major in a primitive array, with one row per x grid point. Linear interpolation is bilinear;
+ * cubic interpolation is bicubic Hermite, with the partial derivatives computed once at construction. Each axis uses
+ * O(1) direct indexing when evenly spaced and binary search otherwise, and inputs outside the grid are clamped to its
+ * edges. Lookups never allocate.
+ */
+public class HydraLookupTable2d {
+
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] values;
+    private final HydraInterpolation interpolation;
+
+    // Partial derivatives at each grid point, only for cubic interpolation
+    private final double[] dx;
+    private final double[] dy;
+    private final double[] dxy;
+
+    // Direct indexing for evenly spaced axes
+    private final boolean uniformX;
+    private final boolean uniformY;
+    private final double inverseStepX;
+    private final double inverseStepY;
+
+    /**
+     * Constructs a new HydraLookupTable2d. The arrays are copied.
+     *
+     * @param xs            The x grid points, strictly increasing.
+     * @param ys            The y grid points, strictly increasing.
+     * @param values        The value at each grid point, indexed values[x index][y index].
+     * @param interpolation How to interpolate between grid points.
+     * @throws IllegalArgumentException If the dimensions do not match, an axis has fewer than two points, or a grid
+     *                                  is not strictly increasing.
+     */
+    public HydraLookupTable2d(double[] xs, double[] ys, double[][] values, HydraInterpolation interpolation) {
+        HydraLookupTable1d.checkGrid(xs);
+        HydraLookupTable1d.checkGrid(ys);
+        if (values.length != xs.length) {
+            throw new IllegalArgumentException("Values must have one row per x grid point");
+        }
+        this.xs = xs.clone();
+        this.ys = ys.clone();
+        this.interpolation = interpolation;
+        this.values = new double[xs.length * ys.length];
+        for (int i = 0; i < xs.length; i++) {
+            if (values[i].length != ys.length) {
+                throw new IllegalArgumentException("Values must have one column per y grid point");
+            }
+            System.arraycopy(values[i], 0, this.values, i * ys.length, ys.length);
+        }
+
+        uniformX = HydraLookupTable1d.isUniform(xs);
+        uniformY = HydraLookupTable1d.isUniform(ys);
+        inverseStepX = (xs.length - 1) / (xs[xs.length - 1] - xs[0]);
+        inverseStepY = (ys.length - 1) / (ys[ys.length - 1] - ys[0]);
+
+        if (interpolation == HydraInterpolation.CUBIC) {
+            int nx = xs.length;
+            int ny = ys.length;
+            dx = new double[nx * ny];
+            dy = new double[nx * ny];
+            dxy = new double[nx * ny];
+            for (int j = 0; j < ny; j++) {
+                HydraLookupTable1d.computeSlopes(this.xs, this.values, j, ny, dx);
+            }
+            for (int i = 0; i < nx; i++) {
+                HydraLookupTable1d.computeSlopes(this.ys, this.values, i * ny, 1, dy);
+            }
+            // Cross derivative: the x slope of the y slopes
+            for (int j = 0; j < ny; j++) {
+                HydraLookupTable1d.computeSlopes(this.xs, dy, j, ny, dxy);
+            }
+        } else {
+            dx = null;
+            dy = null;
+            dxy = null;
+        }
+    }
+
+    /**
+     * Samples a function on an evenly spaced grid into a table.
+     *
+     * @param function      The function of x and y to sample.
+     * @param xMin          The first x grid point.
+     * @param xMax          The last x grid point.
+     * @param xSamples      The number of x grid points, at least two.
+     * @param yMin          The first y grid point.
+     * @param yMax          The last y grid point.
+     * @param ySamples      The number of y grid points, at least two.
+     * @param interpolation How to interpolate between grid points.
+     * @return The table.
+     */
+    public static HydraLookupTable2d compile(DoubleBinaryOperator function,
+                                             double xMin, double xMax, int xSamples,
+                                             double yMin, double yMax, int ySamples,
+                                             HydraInterpolation interpolation) {
+        double[] xs = HydraLookupTable1d.grid(xMin, xMax, xSamples);
+        double[] ys = HydraLookupTable1d.grid(yMin, yMax, ySamples);
+        double[][] values = new double[xSamples][ySamples];
+        for (int i = 0; i < xSamples; i++) {
+            for (int j = 0; j < ySamples; j++) {
+                values[i][j] = function.applyAsDouble(xs[i], ys[j]);
+            }
+        }
+        return new HydraLookupTable2d(xs, ys, values, interpolation);
+    }
+
+    /**
+     * Looks up the interpolated value at a pair of inputs.
+     *
+     * @param x The x input, clamped to the grid.
+     * @param y The y input, clamped to the grid.
+     * @return The interpolated value.
+     */
+    public double get(double x, double y) {
+        x = Math.max(xs[0], Math.min(xs[xs.length - 1], x));
+        y = Math.max(ys[0], Math.min(ys[ys.length - 1], y));
+        int i = HydraLookupTable1d.interval(xs, x, uniformX, inverseStepX);
+        int j = HydraLookupTable1d.interval(ys, y, uniformY, inverseStepY);
+        double hx = xs[i + 1] - xs[i];
+        double hy = ys[j + 1] - ys[j];
+        double u = (x - xs[i]) / hx;
+        double v = (y - ys[j]) / hy;
+
+        int ny = ys.length;
+        int p00 = i * ny + j;
+        int p01 = p00 + 1;
+        int p10 = p00 + ny;
+        int p11 = p10 + 1;
+
+        if (dx == null) {
+            double low = values[p00] + v * (values[p01] - values[p00]);
+            double high = values[p10] + v * (values[p11] - values[p10]);
+            return low + u * (high - low);
+        }
+
+        // Hermite basis in each direction, with the slope terms scaled by the cell size
+        double u2 = u * u;
+        double u3 = u2 * u;
+        double hu0 = 2 * u3 - 3 * u2 + 1;
+        double hu1 = -2 * u3 + 3 * u2;
+        double gu0 = (u3 - 2 * u2 + u) * hx;
+        double gu1 = (u3 - u2) * hx;
+
+        double v2 = v * v;
+        double v3 = v2 * v;
+        double hv0 = 2 * v3 - 3 * v2 + 1;
+        double hv1 = -2 * v3 + 3 * v2;
+        double gv0 = (v3 - 2 * v2 + v) * hy;
+        double gv1 = (v3 - v2) * hy;
+
+        return hu0 * (hv0 * values[p00] + hv1 * values[p01] + gv0 * dy[p00] + gv1 * dy[p01])
+                + hu1 * (hv0 * values[p10] + hv1 * values[p11] + gv0 * dy[p10] + gv1 * dy[p11])
+                + gu0 * (hv0 * dx[p00] + hv1 * dx[p01] + gv0 * dxy[p00] + gv1 * dxy[p01])
+                + gu1 * (hv0 * dx[p10] + hv1 * dx[p11] + gv0 * dxy[p10] + gv1 * dxy[p11]);
+    }
+
+    public double getMinX() {
+        return xs[0];
+    }
+
+    public double getMaxX() {
+        return xs[xs.length - 1];
+    }
+
+    public double getMinY() {
+        return ys[0];
+    }
+
+    public double getMaxY() {
+        return ys[ys.length - 1];
+    }
+
+    public HydraInterpolation getInterpolation() {
+        return interpolation;
+    }
+}
@@ -0,0 +1,189 @@
+package com.hydraulichydras.hydralib;
+
+import com.qualcomm.hardware.lynx.LynxModule;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Holds hardware state that should only be read once per loop iteration.
+ * <p>
+ * With bulk reads enabled every encoder position, velocity and digital input on a hub is fetched in a
+ * single transaction the first time one of them is requested, and served from the cache afterwards
+ * until {@link #update()} clears it at the start of the next loop.
+ * <p>
+ * Slow sensors that are not part of the bulk read, such as the IMU heading, can be registered here as well;
+ * they are read at most once per loop, the first time they are requested. The battery voltage is sampled at a low
+ * rate by a registered {@link HydraVoltageService} and published to every subsystem through {@link #getVoltage()}.
+ */
+public final class HydraLoopCache {
+
+    // Singleton instance of the loop cache
+    private static HydraLoopCache instance;
+
+    // Returns the singleton instance of the loop cache
+    public static synchronized HydraLoopCache getInstance() {
+        if (instance == null) {
+            instance = new HydraLoopCache();
+        }
+        return instance;
+    }
+
+    // Hubs running in manual bulk caching mode
+    private final List<LynxModule> hubs = new ArrayList<>();
+
+    // Time at which the current loop started (in nanoseconds)
+    private long timestamp;
+
+    // Number of loops since the cache was created
+    private long loopCount;
+
+    // Heading source, the heading read this loop and the loop it was read in
+    private DoubleSupplier headingSource;
+    private double heading;
+    private long headingLoop = -1;
+
+    // Battery voltage service, updated at the start of each loop
+    private HydraVoltageService voltageService;
+
+    // Private constructor to enforce singleton pattern
+    private HydraLoopCache() {
+    }
+
+    /**
+     * Puts every hub in the hardware map into manual bulk caching mode.
+     *
+     * @param hardwareMap The hardware map containing the hubs.
+     */
+    public void enableBulkReads(HardwareMap hardwareMap) {
+        hubs.clear();
+        hubs.addAll(hardwareMap.getAll(LynxModule.class));
+        for (int i = 0; i < hubs.size(); i++) {
+            hubs.get(i).setBulkCachingMode(LynxModule.BulkCachingMode.MANUAL);
+        }
+    }
+
+    /**
+     * Starts a new loop: clears the bulk caches and samples the loop timestamp.
+     * Call this method once per loop iteration, before any hardware is read.
+     */
+    public void update() {
+        for (int i = 0; i < hubs.size(); i++) {
+            hubs.get(i).clearBulkCache();
+        }
+        timestamp = HydraClock.nanoTime();
+        loopCount++;
+        if (voltageService != null) {
+            voltageService.update(timestamp);
+        }
+    }
+
+    /**
+     * Gets the time at which the current loop started.
+     * Falls back to the current time if {@link #update()} has never been called.
+     *
+     * @return The loop timestamp in nanoseconds.
+     */
+    public long getTimestamp() {
+        return loopCount == 0 ? HydraClock.nanoTime() : timestamp;
+    }
+
+    /**
+     * Gets the number of loops started since the cache was created.
+     *
+     * @return The loop count.
+     */
+    public long getLoopCount() {
+        return loopCount;
+    }
+
+    /**
+     * Sets the sensor providing the robot's heading, such as the IMU yaw.
+     *
+     * @param headingSource Supplier returning the heading (in radians).
+     */
+    public void setHeadingSource(DoubleSupplier headingSource) {
+        this.headingSource = headingSource;
+        headingLoop = -1;
+    }
+
+    /**
+     * Gets the robot's heading, reading the sensor only the first time it is requested in each loop.
+     * Reads the sensor every time if {@link #update()} has never been called.
+     *
+     * @return The heading (in radians).
+     * @throws IllegalStateException If no heading source has been set.
+     */
+    public double getHeading() {
+        if (headingSource == null) {
+            throw new IllegalStateException("No heading source set in HydraLoopCache");
+        }
+        if (headingLoop != loopCount || loopCount == 0) {
+            heading = headingSource.getAsDouble();
+            headingLoop = loopCount;
+        }
+        return heading;
+    }
+
+    /**
+     * Sets the service sampling the battery voltage. It is updated at the start of every loop and reads the sensor
+     * only when its sample period has passed.
+     *
+     * @param voltageService The voltage service, or null to remove it.
+     */
+    public void setVoltageService(HydraVoltageService voltageService) {
+        this.voltageService = voltageService;
+    }
+
+    /**
+     * Gets the service sampling the battery voltage.
+     *
+     * @return The voltage service, or null if none is set.
+     */
+    public HydraVoltageService getVoltageService() {
+        return voltageService;
+    }
+
+    /**
+     * Gets the filtered battery voltage. Samples it immediately if {@link #update()} has never been called.
+     *
+     * @return The voltage (in volts).
+     * @throws IllegalStateException If no voltage service has been set.
+     */
+    public double getVoltage() {
+        if (voltageService == null) {
+            throw new IllegalStateException("No voltage service set in HydraLoopCache");
+        }
+        if (loopCount == 0) {
+            voltageService.update(HydraClock.nanoTime());
+        }
+        return voltageService.getVoltage();
+    }
+
+    /**
+     * Gets the factor that scales outputs tuned at {@link HydraKinematics#NOMINAL_VOLTAGE} to the battery voltage.
+     * Returns 1 if no voltage service has been set, so compensated code still runs uncompensated.
+     *
+     * @return Nominal voltage / battery voltage.
+     */
+    public double getVoltageCompensation() {
+        if (voltageService == null) {
+            return 1.0;
+        }
+        if (loopCount == 0) {
+            voltageService.update(HydraClock.nanoTime());
+        }
+        return voltageService.getCompensation();
+    }
+
+    // Resets the singleton instance and returns the hubs to their default caching mode
+    public synchronized void reset() {
+        for (int i = 0; i < hubs.size(); i++) {
+            hubs.get(i).setBulkCachingMode(LynxModule.BulkCachingMode.OFF);
+        }
+        hubs.clear();
+        instance = null;
+    }
+}
@@ -0,0 +1,133 @@
+package com.hydraulichydras.hydralib;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * {@link HydraDrive} for a {@link HydraMecanumDrivetrain}, with feedforward velocity control.
+ * <p>
+ * {@link #setDriveSignal(HydraDriveSignal)} converts the robot-frame velocity and acceleration into wheel velocities
+ * and accelerations with mecanum inverse kinematics, then into motor powers as
+ * kV * velocity + kA * acceleration + kStatic * sign(velocity). With {@link #setVoltageCompensation(boolean)} the
+ * powers are scaled by nominal voltage / battery voltage, read from the {@link HydraVoltageService} registered with
+ * {@link HydraLoopCache} without further hardware reads.
+ * Wheel values are computed with {@link HydraKinematics} into preallocated buffers, so commanding the drive does not
+ * allocate.
+ */
+public class HydraMecanumDrive extends HydraDrive {
+
+    // Wheel velocities below this are treated as stopped when applying kStatic
+    private static final double STATIC_EPSILON = 1e-6;
+
+    private final HydraMecanumDrivetrain drivetrain;
+    private final DoubleSupplier rawHeading;
+
+    // Whether powers are scaled by the loop cache's voltage compensation
+    private boolean voltageCompensation;
+
+    // Feedforward gains
+    private double kV;
+    private double kA;
+    private double kStatic;
+
+    // Distance between the left and right wheels, and between the front and rear wheels
+    private double trackWidth = 1.0;
+    private double wheelBase = 1.0;
+
+    // Per-wheel buffers in motor order: left front, left rear, right rear, right front
+    private final double[] wheelVelocities = new double[4];
+    private final double[] wheelAccelerations = new double[4];
+    private final double[] powers = new double[4];
+
+    /**
+     * Constructs a new HydraMecanumDrive.
+     *
+     * @param drivetrain The drivetrain whose motors are commanded.
+     * @param localizer  The localizer providing the pose estimate.
+     * @param rawHeading The raw heading from an external sensor such as the IMU (in radians).
+     */
+    public HydraMecanumDrive(HydraMecanumDrivetrain drivetrain, HydraLocalizer localizer, DoubleSupplier rawHeading) {
+        this.drivetrain = drivetrain;
+        this.localizer = localizer;
+        this.rawHeading = rawHeading;
+    }
+
+    /**
+     * Sets the feedforward gains.
+     *
+     * @param kV      Power per unit of wheel velocity.
+     * @param kA      Power per unit of wheel acceleration.
+     * @param kStatic Power needed to overcome static friction.
+     */
+    public void setFeedforward(double kV, double kA, double kStatic) {
+        this.kV = kV;
+        this.kA = kA;
+        this.kStatic = kStatic;
+    }
+
+    /**
+     * Sets the drivetrain dimensions used by the inverse kinematics.
+     *
+     * @param trackWidth The distance between the left and right wheels.
+     * @param wheelBase  The distance between the front and rear wheels.
+     */
+    public void setDimensions(double trackWidth, double wheelBase) {
+        this.trackWidth = trackWidth;
+        this.wheelBase = wheelBase;
+    }
+
+    /**
+     * Sets whether feedforward is compensated with the battery voltage published by {@link HydraLoopCache}, which
+     * needs a {@link HydraVoltageService} registered to have any effect.
+     *
+     * @param enabled Whether voltage compensation is applied.
+     */
+    public void setVoltageCompensation(boolean enabled) {
+        voltageCompensation = enabled;
+    }
+
+    @Override
+    protected double getRawExternalHeading() {
+        return rawHeading.getAsDouble();
+    }
+
+    @Override
+    public void setDriveSignal(HydraDriveSignal driveSignal) {
+        double k = (trackWidth + wheelBase) / 2.0;
+        HydraKinematics.mecanumInverse(driveSignal.getVel(), k, wheelVelocities);
+        HydraKinematics.mecanumInverse(driveSignal.getAccel(), k, wheelAccelerations);
+
+        for (int i = 0; i < 4; i++) {
+            double velocity = wheelVelocities[i];
+            double power = kV * velocity + kA * wheelAccelerations[i];
+            if (Math.abs(velocity) > STATIC_EPSILON) {
+                power += Math.copySign(kStatic, velocity);
+            }
+            powers[i] = power;
+        }
+        if (voltageCompensation) {
+            HydraKinematics.scale(powers, HydraLoopCache.getInstance().getVoltageCompensation());
+        }
+        writePowers();
+    }
+
+    @Override
+    public void setDrivePower(HydraPose drivePower) {
+        HydraKinematics.mecanumInverse(drivePower, 1.0, powers);
+        writePowers();
+    }
+
+    // Scales all powers down together if any exceeds 1, keeping the direction of motion, then writes them
+    private void writePowers() {
+        HydraKinematics.desaturate(powers, 1.0);
+        for (int i = 0; i < 4; i++) {
+            drivetrain.setMotorPower(i, powers[i]);
+        }
+    }
+
+    /**
+     * Gets the drivetrain commanded by this drive.
+     */
+    public HydraMecanumDrivetrain getDrivetrain() {
+        return drivetrain;
+    }
+}
@@ -24,12 +24,50 @@ public class HydraMecanumDrivetrain {
      */
     public double WHEEL_RADIUS;
     public double TICKS_PER_REV;
+    public double TRACK_WIDTH;
+    public double WHEEL_BASE;
 
     /**
      * Default Pose setup
      */
     public HydraPose pose;
 
+    /**
+     * Wheel powers computed each loop, in motor index order.
+     */
+    private final double[] wheelPowers = new double[4];
+
+    /**
+     * Wheel travel at the last pose update and since it, in motor index order, and the robot-frame motion they give.
+     */
+    private final double[] lastWheelDistances = new double[4];
+    private final double[] wheelDeltas = new double[4];
+    private final HydraPose robotDelta = new HydraPose();
+    private boolean hasWheelDistances;
+
+    /**
+     * Heading-lock assist for field-centric driving.
+     */
+    private HydraPIDFController headingController;
+    private boolean headingLockEnabled;
+    private double headingLockTarget;
+    private boolean headingLocked;
+
+    /**
+     * Turn input below which heading lock holds the heading.
+     */
+    private double headingLockDeadband = 0.05;
+
+    /**
+     * Whether powers are scaled by the battery voltage compensation from {@link HydraLoopCache}.
+     */
+    private boolean voltageCompensation;
+
+    /**
+     * Trigonometry used for field-centric rotation; null uses the global default.
+     */
+    private HydraTrigFunctions trig;
+
     /**
      * Constructs a new HydraMecanumDrivetrain with the provided DcMotors.
      * @param leftFront The DcMotor for the left front wheel with Index 0.
@@ -64,16 +102,160 @@ public class HydraMecanumDrivetrain {
         double HorizontalTranslation = gamepad.left_stick_x;
         double Pivoting = gamepad.right_stick_x;
 
-        double leftFrontSpeed = (VerticalTranslation + HorizontalTranslation + Pivoting);
-        double leftRearSpeed = ((VerticalTranslation - HorizontalTranslation) + Pivoting);
+        drive(VerticalTranslation, HorizontalTranslation, Pivoting);
+    }
+
+    /**
+     * Sets the motor power based on the gamepad input for field-centric Mecanum drive.
+     * Pushing the left stick forward drives away from the driver whichever way the robot faces.
+     * <p>
+     * The heading is taken from {@link HydraLoopCache#getHeading()}, so a heading source must be set there.
+     * It is read at most once per loop, however many times it is used.
+     * @param gamepad The gamepad object to read input from.
+     */
+    public void setFieldCentricDriverControl(Gamepad gamepad) {
+        fieldCentricDrive(-gamepad.left_stick_y, gamepad.left_stick_x, gamepad.right_stick_x);
+    }
+
+    /**
+     * Sets the motor power based on the shaped inputs of a controller for Mecanum drive.
+     * The controller's {@link HydraDriverProfile} supplies deadbands, response curves and slew limits.
+     * @param controller The controller to read input from.
+     */
+    public void setDriverControl(HydraPSController controller) {
+        drive(controller.getShapedLeftY(), controller.getShapedLeftX(), controller.getShapedRightX());
+    }
+
+    /**
+     * Sets the motor power based on the shaped inputs of a controller for field-centric Mecanum drive.
+     * @param controller The controller to read input from.
+     * @see #setFieldCentricDriverControl(Gamepad)
+     */
+    public void setFieldCentricDriverControl(HydraPSController controller) {
+        fieldCentricDrive(controller.getShapedLeftY(), controller.getShapedLeftX(), controller.getShapedRightX());
+    }
+
+    /**
+     * Drives relative to the field, with heading lock if enabled.
+     * @param forward The power away from the driver.
+     * @param strafe The power to the driver's right.
+     * @param turn The turn power, positive clockwise.
+     */
+    private void fieldCentricDrive(double forward, double strafe, double turn) {
+        double heading = HydraLoopCache.getInstance().getHeading();
+
+        // Field-frame input: x away from the driver, y to the driver's left
+        double fieldX = forward;
+        double fieldY = -strafe;
 
-        double rightRearSpeed = ((VerticalTranslation + HorizontalTranslation) - Pivoting);
-        double rightFrontSpeed = ((VerticalTranslation - HorizontalTranslation) - Pivoting);
+        // Rotate into the robot frame
+        HydraTrigFunctions trig = HydraTrig.resolve(this.trig);
+        double cos = trig.cos(heading);
+        double sin = trig.sin(heading);
+        double robotX = cos * fieldX + sin * fieldY;
+        double robotY = -sin * fieldX + cos * fieldY;
 
-        motors[0].setPower(leftFrontSpeed);
-        motors[1].setPower(leftRearSpeed);
-        motors[2].setPower(rightRearSpeed);
-        motors[3].setPower(rightFrontSpeed);
+        if (headingLockEnabled && headingController != null) {
+            if (Math.abs(turn) > headingLockDeadband) {
+                // The driver is turning: follow them and hold the heading they stop at
+                headingLocked = false;
+            } else {
+                if (!headingLocked) {
+                    headingLockTarget = heading;
+                    headingController.reset();
+                    headingLocked = true;
+                }
+                // The controller output turns counter-clockwise, the turn power turns clockwise
+                turn = -headingController.calculate(heading, headingLockTarget);
+            }
+        }
+
+        drive(robotX, -robotY, turn);
+    }
+
+    /**
+     * Enables heading-lock assist for field-centric driving: when the turn stick is released, the robot holds its
+     * heading against bumps and drift.
+     *
+     * @param coefficients The heading controller gains, in power per radian.
+     */
+    public void setHeadingLock(HydraPIDCoefficients coefficients) {
+        headingController = new HydraPIDFController(coefficients)
+                .setContinuous(true)
+                .setOutputLimits(-1.0, 1.0);
+        headingLockEnabled = true;
+        headingLocked = false;
+    }
+
+    /**
+     * Turns heading-lock assist on or off. Gains must have been set with {@link #setHeadingLock(HydraPIDCoefficients)}.
+     *
+     * @param enabled Whether heading lock is active.
+     */
+    public void setHeadingLockEnabled(boolean enabled) {
+        headingLockEnabled = enabled;
+        headingLocked = false;
+    }
+
+    /**
+     * Makes heading lock turn to and hold a heading, for example to snap to a field wall.
+     *
+     * @param heading The heading to hold (in radians).
+     */
+    public void setHeadingLockTarget(double heading) {
+        headingLockTarget = heading;
+        headingLocked = true;
+        if (headingController != null) {
+            headingController.reset();
+        }
+    }
+
+    /**
+     * Sets the trigonometry implementation used for field-centric driving, overriding the global default.
+     *
+     * @param trig The implementation, or null to use the global default.
+     */
+    public void setTrig(HydraTrigFunctions trig) {
+        this.trig = trig;
+    }
+
+    /**
+     * Sets whether drive powers are scaled by nominal / battery voltage, so the robot drives at the same speed as
+     * the battery drains. The voltage is read from {@link HydraLoopCache#getVoltageCompensation()}, which needs a
+     * {@link HydraVoltageService} registered to have any effect.
+     *
+     * @param enabled Whether voltage compensation is applied.
+     */
+    public void setVoltageCompensation(boolean enabled) {
+        voltageCompensation = enabled;
+    }
+
+    /**
+     * Sets the turn input below which heading lock takes over.
+     *
+     * @param deadband The deadband, as a fraction of full stick.
+     */
+    public void setHeadingLockDeadband(double deadband) {
+        headingLockDeadband = deadband;
+    }
+
+    /**
+     * Drives with robot-centric powers, scaling all wheels down together if any would exceed full power
+     * so the direction of motion is kept. Voltage compensation, if enabled, is applied before scaling down.
+     *
+     * @param forward The forward power.
+     * @param strafe The strafe power, positive to the right.
+     * @param turn The turn power, positive clockwise.
+     */
+    public void drive(double forward, double strafe, double turn) {
+        HydraKinematics.mecanumPowers(forward, strafe, turn, wheelPowers);
+        if (voltageCompensation) {
+            HydraKinematics.scale(wheelPowers, HydraLoopCache.getInstance().getVoltageCompensation());
+        }
+        HydraKinematics.desaturate(wheelPowers, 1.0);
+        for (int i = 0; i < 4; i++) {
+            motors[i].setPower(wheelPowers[i]);
+        }
     }
 
     /**
@@ -87,6 +269,20 @@ public class HydraMecanumDrivetrain {
         this.TICKS_PER_REV = TICKS_PER_REV;
     }
 
+    /**
+     * Sets the Constants for the Drivetrain, including the dimensions needed to track the heading
+     *
+     * @param WHEEL_RADIUS The Radius of your wheels
+     * @param TICKS_PER_REV  The encoder ticks per revolution of a motor
+     * @param TRACK_WIDTH The distance between the left and right wheels
+     * @param WHEEL_BASE The distance between the front and rear wheels
+     */
+    public void setConstants(double WHEEL_RADIUS, double TICKS_PER_REV, double TRACK_WIDTH, double WHEEL_BASE) {
+        setConstants(WHEEL_RADIUS, TICKS_PER_REV);
+        this.TRACK_WIDTH = TRACK_WIDTH;
+        this.WHEEL_BASE = WHEEL_BASE;
+    }
+
     /**
      * Sets the direction of a motor.
      * @param motorIndex The index of the motor in the motors array.
@@ -137,41 +333,31 @@ public class HydraMecanumDrivetrain {
     }
 
     /**
-     * Retrieves the encoder readings of the chassis and converts it to a HydraPose
-     * Should work! (Im assuming)
+     * Retrieves the encoder readings of the chassis and integrates the motion since the last call into the pose.
+     * <p>
+     * The wheel travel is converted to a robot-frame motion with {@link HydraKinematics#mecanumForward}, then
+     * integrated along an arc. The heading is only tracked once the track width and wheel base are set with
+     * {@link #setConstants(double, double, double, double)}. The first call only records the encoder positions.
      */
     public void getPoseEstimate() {
-        // Get encoder ticks for each motor
-        int ticksFL = motors[0].getCurrentPosition();
-        int ticksFR = motors[3].getCurrentPosition();
-        int ticksBL = motors[1].getCurrentPosition();
-        int ticksBR = motors[2].getCurrentPosition();
-
-        // Calculate distance traveled by each wheel
-        double distanceFL = (ticksFL / TICKS_PER_REV) * (2 * Math.PI * WHEEL_RADIUS);
-        double distanceFR = (ticksFR / TICKS_PER_REV) * (2 * Math.PI * WHEEL_RADIUS);
-        double distanceBL = (ticksBL / TICKS_PER_REV) * (2 * Math.PI * WHEEL_RADIUS);
-        double distanceBR = (ticksBR / TICKS_PER_REV) * (2 * Math.PI * WHEEL_RADIUS);
-
-        // Calculate the x and y components of the robot's movement
-        double deltaX = (distanceFL + distanceFR + distanceBL + distanceBR) / 4.0;
-        double deltaY = (distanceFL - distanceFR + distanceBL - distanceBR) / 4.0;
-
-        // Calculate the change in heading based on the difference between front and back wheel movements
-        double deltaTheta = (distanceFL - distanceFR - distanceBL + distanceBR) / (4.0 * WHEEL_RADIUS);
-
-        // Update pose
-        double heading = pose.getHeading(); // Get current heading
-        double newX = pose.getX() + deltaX * Math.cos(heading) - deltaY * Math.sin(heading);
-        double newY = pose.getY() + deltaX * Math.sin(heading) + deltaY * Math.cos(heading);
-        double newHeading = heading + deltaTheta;
-
-        // Normalize heading angle to [-pi, pi]
-        newHeading = Math.atan2(Math.sin(newHeading), Math.cos(newHeading));
-
-        // Update pose
-        HydraPose newPose = new HydraPose(newX, newY, newHeading);
-        pose.set(newPose);
+        // Travel of each wheel since the last call, in motor index order
+        double distancePerTick = 2 * Math.PI * WHEEL_RADIUS / TICKS_PER_REV;
+        for (int i = 0; i < motors.length; i++) {
+            double distance = motors[i].getCurrentPosition() * distancePerTick;
+            wheelDeltas[i] = hasWheelDistances ? distance - lastWheelDistances[i] : 0.0;
+            lastWheelDistances[i] = distance;
+        }
+        hasWheelDistances = true;
+
+        // Robot-frame motion; without the drivetrain dimensions the heading change is unknown
+        double k = (TRACK_WIDTH + WHEEL_BASE) / 2.0;
+        HydraKinematics.mecanumForward(wheelDeltas, k > 0 ? k : 1.0, robotDelta);
+        if (!(k > 0)) {
+            robotDelta.heading = 0.0;
+        }
+
+        // Update pose; the heading is normalized exactly, fast trig is only used for the rotation
+        HydraDeadWheelLocalizer.applyTwist(HydraTrig.resolve(trig), pose, robotDelta.x, robotDelta.y, robotDelta.heading);
     }
 
     /**
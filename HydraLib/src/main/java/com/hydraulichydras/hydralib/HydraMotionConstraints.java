@@ -0,0 +1,46 @@
+package com.hydraulichydras.hydralib;
+
+/**
+ * Kinematic limits used to generate a {@link HydraMotionProfile}.
+ */
+public class HydraMotionConstraints {
+
+    public double maxVelocity;
+    public double maxAcceleration;
+    public double maxJerk; // 0 for a trapezoidal profile
+
+    /**
+     * Constructs constraints for a trapezoidal profile.
+     *
+     * @param maxVelocity     The maximum velocity.
+     * @param maxAcceleration The maximum acceleration.
+     */
+    public HydraMotionConstraints(double maxVelocity, double maxAcceleration) {
+        this(maxVelocity, maxAcceleration, 0.0);
+    }
+
+    /**
+     * Constructs constraints for a jerk-limited S-curve profile.
+     *
+     * @param maxVelocity     The maximum velocity.
+     * @param maxAcceleration The maximum acceleration.
+     * @param maxJerk         The maximum jerk, or 0 for a trapezoidal profile.
+     */
+    public HydraMotionConstraints(double maxVelocity, double maxAcceleration, double maxJerk) {
+        if (maxVelocity <= 0 || maxAcceleration <= 0 || maxJerk < 0) {
+            throw new IllegalArgumentException("Motion constraints must be positive");
+        }
+        this.maxVelocity = maxVelocity;
+        this.maxAcceleration = maxAcceleration;
+        this.maxJerk = maxJerk;
+    }
+
+    /**
+     * Checks whether these constraints limit jerk.
+     *
+     * @return true for an S-curve profile, false for a trapezoidal profile.
+     */
+    public boolean isJerkLimited() {
+        return maxJerk > 0 && !Double.isInfinite(maxJerk);
+    }
+}
@@ -0,0 +1,166 @@
+package com.hydraulichydras.hydralib;
+
+/**
+ * A one-dimensional motion profile stored as a table of constant-jerk segments.
+ * <p>
+ * The kinematics are solved once when the profile is generated by {@link HydraMotionProfileGenerator}; sampling with
+ * {@link #get(double, HydraMotionState)} only looks up the segment (the previously used one in the common case,
+ * binary search otherwise) and evaluates a cubic. A profile can be regenerated in place, so neither planning nor
+ * sampling allocates.
+ */
+public class HydraMotionProfile {
+
+    /** Maximum number of segments a profile can hold. */
+    public static final int MAX_SEGMENTS = 16;
+
+    // Segment table: each segment runs with constant jerk from its start time to the next segment's start time
+    private final double[] startTimes = new double[MAX_SEGMENTS];
+    private final double[] startPositions = new double[MAX_SEGMENTS];
+    private final double[] startVelocities = new double[MAX_SEGMENTS];
+    private final double[] startAccelerations = new double[MAX_SEGMENTS];
+    private final double[] jerks = new double[MAX_SEGMENTS];
+    private int count;
+
+    // State at the end of the last segment
+    private double duration;
+    private double endPosition;
+    private double endVelocity;
+    private double endAcceleration;
+
+    // Segment used by the last lookup
+    private int lastIndex;
+
+    /**
+     * Constructs an empty profile holding at the origin.
+     */
+    public HydraMotionProfile() {
+        reset(0.0, 0.0);
+    }
+
+    /**
+     * Clears the profile and sets its starting state.
+     *
+     * @param position The starting position.
+     * @param velocity The starting velocity.
+     */
+    public void reset(double position, double velocity) {
+        count = 0;
+        lastIndex = 0;
+        duration = 0.0;
+        endPosition = position;
+        endVelocity = velocity;
+        endAcceleration = 0.0;
+    }
+
+    /**
+     * Appends a constant-jerk segment continuing from the end of the profile.
+     *
+     * @param acceleration The acceleration at the start of the segment.
+     * @param jerk         The jerk during the segment.
+     * @param time         The duration of the segment (in seconds). Segments with no duration are skipped.
+     */
+    public void append(double acceleration, double jerk, double time) {
+        if (!(time > 0)) {
+            return;
+        }
+        if (count == MAX_SEGMENTS) {
+            throw new IllegalStateException("Motion profile cannot hold more than " + MAX_SEGMENTS + " segments");
+        }
+        startTimes[count] = duration;
+        startPositions[count] = endPosition;
+        startVelocities[count] = endVelocity;
+        startAccelerations[count] = acceleration;
+        jerks[count] = jerk;
+        count++;
+
+        endPosition += (endVelocity + (acceleration / 2.0 + jerk * time / 6.0) * time) * time;
+        endVelocity += (acceleration + jerk * time / 2.0) * time;
+        endAcceleration = acceleration + jerk * time;
+        duration += time;
+    }
+
+    /**
+     * Samples the profile.
+     *
+     * @param t   Time since the start of the profile (in seconds). Clamped to the profile's duration.
+     * @param out The state to write the sample into.
+     * @return The out state.
+     */
+    public HydraMotionState get(double t, HydraMotionState out) {
+        if (count == 0 || t >= duration) {
+            return out.set(endPosition, 0.0, 0.0, 0.0);
+        }
+        if (t < 0.0) {
+            t = 0.0;
+        }
+
+        int i = findSegment(t);
+        double dt = t - startTimes[i];
+        double a = startAccelerations[i];
+        double j = jerks[i];
+        double v = startVelocities[i];
+        return out.set(
+                startPositions[i] + (v + (a / 2.0 + j * dt / 6.0) * dt) * dt,
+                v + (a + j * dt / 2.0) * dt,
+                a + j * dt,
+                j);
+    }
+
+    // Finds the segment containing t, starting from the one used by the last lookup
+    private int findSegment(double t) {
+        int i = lastIndex;
+        if (t >= startTimes[i] && (i + 1 == count || t < startTimes[i + 1])) {
+            return i;
+        }
+        if (i + 1 < count && t >= startTimes[i + 1] && (i + 2 == count || t < startTimes[i + 2])) {
+            return lastIndex = i + 1;
+        }
+
+        int low = 0;
+        int high = count - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (startTimes[mid] <= t) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return lastIndex = low;
+    }
+
+    /**
+     * Gets the duration of the profile (in seconds).
+     */
+    public double getDuration() {
+        return duration;
+    }
+
+    /**
+     * Gets the position at the end of the profile.
+     */
+    public double getEndPosition() {
+        return endPosition;
+    }
+
+    /**
+     * Gets the velocity at the end of the profile.
+     */
+    public double getEndVelocity() {
+        return endVelocity;
+    }
+
+    /**
+     * Gets the acceleration at the end of the profile.
+     */
+    public double getEndAcceleration() {
+        return endAcceleration;
+    }
+
+    /**
+     * Gets the number of segments in the profile.
+     */
+    public int getSegmentCount() {
+        return count;
+    }
+}
@@ -0,0 +1,108 @@
+package com.hydraulichydras.hydralib;
+
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Command that moves a mechanism to a goal along a trapezoidal or S-curve motion profile.
+ * <p>
+ * The profile is planned from the mechanism's position when the command starts, then sampled every loop and
+ * handed to the setpoint consumer, which typically feeds a position controller and feedforward.
+ * Changing the goal while the command runs re-plans from the current profile state.
+ */
+public class HydraMotionProfileCommand extends HydraCommandFoundation {
+
+    // Current position of the mechanism
+    private final DoubleSupplier position;
+
+    // Receives the profile setpoint every loop
+    private final Consumer<HydraMotionState> setpoint;
+
+    private final HydraMotionConstraints constraints;
+    private final HydraMotionProfile profile = new HydraMotionProfile();
+    private final HydraMotionState state = new HydraMotionState();
+
+    private double goal;
+
+    // Time at which the current profile started (in nanoseconds)
+    private long startTime;
+
+    private boolean running;
+
+    /**
+     * Constructs a new HydraMotionProfileCommand.
+     *
+     * @param subsystem   The subsystem moved by the profile.
+     * @param position    The current position of the mechanism.
+     * @param setpoint    Receives the profile state every loop. The state object is reused between loops.
+     * @param goal        The goal position.
+     * @param constraints The kinematic limits.
+     */
+    public HydraMotionProfileCommand(HydraSubsystem subsystem, DoubleSupplier position, Consumer<HydraMotionState> setpoint,
+                                     double goal, HydraMotionConstraints constraints) {
+        this.position = position;
+        this.setpoint = setpoint;
+        this.goal = goal;
+        this.constraints = constraints;
+        addRequirements(subsystem);
+    }
+
+    // Plans the profile from the current position of the mechanism
+    @Override
+    public void initialize() {
+        HydraMotionProfileGenerator.generate(position.getAsDouble(), 0.0, goal, constraints, profile);
+        startTime = HydraClock.nanoTime();
+        running = true;
+    }
+
+    // Samples the profile and sends the setpoint
+    @Override
+    public void execute() {
+        profile.get(getElapsedTime(), state);
+        setpoint.accept(state);
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        running = false;
+    }
+
+    // Checks if the profile has finished
+    @Override
+    public boolean isFinished() {
+        return getElapsedTime() >= profile.getDuration();
+    }
+
+    /**
+     * Changes the goal. If the command is running, the profile is re-planned from its current state.
+     *
+     * @param goal The new goal position.
+     */
+    public void setGoal(double goal) {
+        this.goal = goal;
+        if (running) {
+            profile.get(getElapsedTime(), state);
+            HydraMotionProfileGenerator.generate(state.x, state.v, state.a, goal, constraints, profile);
+            startTime = HydraClock.nanoTime();
+        }
+    }
+
+    /**
+     * Gets the goal position.
+     */
+    public double getGoal() {
+        return goal;
+    }
+
+    /**
+     * Gets the profile currently being followed.
+     */
+    public HydraMotionProfile getProfile() {
+        return profile;
+    }
+
+    // Time since the current profile started (in seconds)
+    private double getElapsedTime() {
+        return (HydraClock.nanoTime() - startTime) * 1e-9;
+    }
+}
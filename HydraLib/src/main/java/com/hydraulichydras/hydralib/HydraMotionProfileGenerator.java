@@ -0,0 +1,177 @@
+package com.hydraulichydras.hydralib;
+
+/**
+ * Generates trapezoidal and jerk-limited S-curve {@link HydraMotionProfile}s that end at rest at a goal position.
+ * <p>
+ * Profiles can start from any position, velocity and acceleration, which allows re-planning from the current state
+ * when the goal changes mid-motion. S-curve profiles starting mid-acceleration first ramp the acceleration to zero at
+ * the jerk limit, so acceleration stays continuous through the re-plan. Trapezoidal profiles have no jerk limit and
+ * ignore the starting acceleration.
+ */
+public final class HydraMotionProfileGenerator {
+
+    // Iterations used to solve for the peak velocity of a short S-curve move
+    private static final int PEAK_ITERATIONS = 60;
+
+    // Private constructor to prevent instantiation
+    private HydraMotionProfileGenerator() {
+    }
+
+    /**
+     * Generates a new profile from rest.
+     *
+     * @param start       The starting position.
+     * @param goal        The goal position.
+     * @param constraints The kinematic limits.
+     * @return The generated profile.
+     */
+    public static HydraMotionProfile generate(double start, double goal, HydraMotionConstraints constraints) {
+        HydraMotionProfile profile = new HydraMotionProfile();
+        generate(start, 0.0, goal, constraints, profile);
+        return profile;
+    }
+
+    /**
+     * Generates a profile in place, starting from the given state.
+     *
+     * @param position    The starting position.
+     * @param velocity    The starting velocity.
+     * @param goal        The goal position.
+     * @param constraints The kinematic limits. A jerk limit of 0 produces a trapezoidal profile.
+     * @param out         The profile to overwrite.
+     * @return The out profile.
+     */
+    public static HydraMotionProfile generate(double position, double velocity, double goal,
+                                              HydraMotionConstraints constraints, HydraMotionProfile out) {
+        return generate(position, velocity, 0.0, goal, constraints, out);
+    }
+
+    /**
+     * Generates a profile in place, starting from the given state including its acceleration.
+     *
+     * @param position     The starting position.
+     * @param velocity     The starting velocity.
+     * @param acceleration The starting acceleration. Ignored by trapezoidal profiles.
+     * @param goal         The goal position.
+     * @param constraints  The kinematic limits. A jerk limit of 0 produces a trapezoidal profile.
+     * @param out          The profile to overwrite.
+     * @return The out profile.
+     */
+    public static HydraMotionProfile generate(double position, double velocity, double acceleration, double goal,
+                                              HydraMotionConstraints constraints, HydraMotionProfile out) {
+        out.reset(position, velocity);
+        double maxVelocity = constraints.maxVelocity;
+
+        // Bring the acceleration to zero at the jerk limit, so the plan continues without an acceleration step
+        if (constraints.isJerkLimited() && acceleration != 0.0) {
+            out.append(acceleration, -Math.signum(acceleration) * constraints.maxJerk,
+                    Math.abs(acceleration) / constraints.maxJerk);
+            velocity = out.getEndVelocity();
+        }
+
+        // Slow down first if moving faster than allowed
+        if (Math.abs(velocity) > maxVelocity) {
+            appendVelocityChange(out, velocity, Math.copySign(maxVelocity, velocity), constraints);
+            velocity = out.getEndVelocity();
+        }
+
+        // Stop first if moving away from the goal or too fast to stop before it
+        double distance = goal - out.getEndPosition();
+        if (velocity != 0.0 && (Math.signum(velocity) != Math.signum(distance)
+                || velocityChangeDistance(Math.abs(velocity), 0.0, constraints) > Math.abs(distance))) {
+            appendVelocityChange(out, velocity, 0.0, constraints);
+            velocity = 0.0;
+            distance = goal - out.getEndPosition();
+        }
+
+        if (distance == 0.0) {
+            return out;
+        }
+
+        // Accelerate to the peak velocity, cruise, and decelerate to rest at the goal
+        double direction = Math.signum(distance);
+        double remaining = Math.abs(distance);
+        double speed = Math.abs(velocity);
+        double peak = peakVelocity(speed, remaining, constraints);
+        double cruise = remaining - velocityChangeDistance(speed, peak, constraints) - velocityChangeDistance(peak, 0.0, constraints);
+
+        appendVelocityChange(out, direction * speed, direction * peak, constraints);
+        if (cruise > 0.0 && peak > 0.0) {
+            out.append(0.0, 0.0, cruise / peak);
+        }
+        appendVelocityChange(out, direction * peak, 0.0, constraints);
+        return out;
+    }
+
+    // Highest velocity reachable from speed such that the move can still stop within distance
+    private static double peakVelocity(double speed, double distance, HydraMotionConstraints constraints) {
+        double maxVelocity = constraints.maxVelocity;
+        if (!constraints.isJerkLimited()) {
+            return Math.min(maxVelocity, Math.sqrt(constraints.maxAcceleration * distance + speed * speed / 2.0));
+        }
+
+        if (velocityChangeDistance(speed, maxVelocity, constraints) + velocityChangeDistance(maxVelocity, 0.0, constraints) <= distance) {
+            return maxVelocity;
+        }
+
+        // The covered distance grows with the peak velocity, so bisect between the current speed and the limit
+        double low = speed;
+        double high = maxVelocity;
+        for (int i = 0; i < PEAK_ITERATIONS; i++) {
+            double mid = (low + high) / 2.0;
+            if (velocityChangeDistance(speed, mid, constraints) + velocityChangeDistance(mid, 0.0, constraints) <= distance) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Time taken to change velocity by the given amount, starting and ending with zero acceleration
+    private static double velocityChangeTime(double deltaVelocity, HydraMotionConstraints constraints) {
+        double maxAcceleration = constraints.maxAcceleration;
+        if (!constraints.isJerkLimited()) {
+            return deltaVelocity / maxAcceleration;
+        }
+        double maxJerk = constraints.maxJerk;
+        if (deltaVelocity >= maxAcceleration * maxAcceleration / maxJerk) {
+            return deltaVelocity / maxAcceleration + maxAcceleration / maxJerk;
+        }
+        return 2.0 * Math.sqrt(deltaVelocity / maxJerk);
+    }
+
+    // Distance covered while changing between two speeds; symmetric ramps average to the midpoint velocity
+    private static double velocityChangeDistance(double from, double to, HydraMotionConstraints constraints) {
+        return (from + to) / 2.0 * velocityChangeTime(Math.abs(to - from), constraints);
+    }
+
+    // Appends the segments changing the profile's velocity between two signed values
+    private static void appendVelocityChange(HydraMotionProfile profile, double from, double to, HydraMotionConstraints constraints) {
+        double deltaVelocity = Math.abs(to - from);
+        if (deltaVelocity == 0.0) {
+            return;
+        }
+        double sign = Math.signum(to - from);
+        double maxAcceleration = constraints.maxAcceleration;
+
+        if (!constraints.isJerkLimited()) {
+            profile.append(sign * maxAcceleration, 0.0, deltaVelocity / maxAcceleration);
+            return;
+        }
+
+        double maxJerk = constraints.maxJerk;
+        if (deltaVelocity >= maxAcceleration * maxAcceleration / maxJerk) {
+            // Jerk up to the acceleration limit, hold it, then jerk back down
+            double jerkTime = maxAcceleration / maxJerk;
+            profile.append(0.0, sign * maxJerk, jerkTime);
+            profile.append(sign * maxAcceleration, 0.0, deltaVelocity / maxAcceleration - jerkTime);
+            profile.append(sign * maxAcceleration, -sign * maxJerk, jerkTime);
+        } else {
+            // The acceleration limit is never reached
+            double jerkTime = Math.sqrt(deltaVelocity / maxJerk);
+            profile.append(0.0, sign * maxJerk, jerkTime);
+            profile.append(sign * maxJerk * jerkTime, -sign * maxJerk, jerkTime);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.hydraulichydras.hydralib;
+
+import java.util.Locale;
+
+/**
+ * Kinematic state of a one-dimensional mechanism: position and its first three derivatives.
+ */
+public class HydraMotionState {
+
+    public double x; // Position
+    public double v; // Velocity
+    public double a; // Acceleration
+    public double j; // Jerk
+
+    // Default constructor initializes the state at rest at the origin
+    public HydraMotionState() {
+        this(0.0, 0.0);
+    }
+
+    // Constructor to initialize the state with a position and velocity
+    public HydraMotionState(double x, double v) {
+        set(x, v, 0.0, 0.0);
+    }
+
+    // Set the state to the specified values
+    public HydraMotionState set(double x, double v, double a, double j) {
+        this.x = x;
+        this.v = v;
+        this.a = a;
+        this.j = j;
+        return this;
+    }
+
+    // Set the state to the values of another state
+    public HydraMotionState set(HydraMotionState state) {
+        return set(state.x, state.v, state.a, state.j);
+    }
+
+    // Override toString method to provide a string representation of the state
+    @Override
+    public String toString() {
+        return String.format(Locale.ENGLISH, "%.3f %.3f %.3f %.3f", x, v, a, j);
+    }
+}
@@ -0,0 +1,104 @@
+package com.hydraulichydras.hydralib;
+
+import java.util.Arrays;
+
+/**
+ * Simulated DC motor driven by a power in [-1, 1], modelled as a first-order velocity response with dead time.
+ * <p>
+ * The steady-state velocity is gain * power, reached with the given time constant after the input has been delayed by
+ * the dead time, which stands in for bus latency and loop delay. The plant integrates with a fixed internal step so
+ * results do not depend on the loop period used by the caller.
+ */
+public class HydraMotorPlant implements HydraSimulatedPlant {
+
+    // Internal integration step (in seconds)
+    private static final double SUBSTEP = 0.001;
+
+    private final HydraControlTarget target;
+    private final double gain;
+    private final double timeConstant;
+
+    // Inputs waiting out the dead time, one per substep; empty without dead time
+    private final double[] delayLine;
+    private int delayIndex;
+
+    // Constant input added to the commanded one, such as gravity on an arm
+    private double disturbance;
+
+    private double input;
+    private double position;
+    private double velocity;
+
+    /**
+     * Constructs a new HydraMotorPlant.
+     *
+     * @param target       Whether the measurement is position or velocity.
+     * @param gain         Steady-state velocity per unit of power.
+     * @param timeConstant Time to reach 63% of a velocity change (in seconds).
+     * @param deadTime     Delay between an input and its first effect (in seconds).
+     */
+    public HydraMotorPlant(HydraControlTarget target, double gain, double timeConstant, double deadTime) {
+        if (!(timeConstant > 0) || deadTime < 0) {
+            throw new IllegalArgumentException("Time constant must be positive and dead time cannot be negative");
+        }
+        this.target = target;
+        this.gain = gain;
+        this.timeConstant = timeConstant;
+        this.delayLine = new double[(int) Math.round(deadTime / SUBSTEP)];
+    }
+
+    /**
+     * Sets a constant input added to the commanded one.
+     *
+     * @param disturbance The disturbance, in units of power.
+     */
+    public void setDisturbance(double disturbance) {
+        this.disturbance = disturbance;
+    }
+
+    @Override
+    public void setInput(double input) {
+        this.input = Math.max(-1.0, Math.min(1.0, input));
+    }
+
+    @Override
+    public double getMeasurement() {
+        return target == HydraControlTarget.POSITION ? position : velocity;
+    }
+
+    public double getPosition() {
+        return position;
+    }
+
+    public double getVelocity() {
+        return velocity;
+    }
+
+    @Override
+    public void step(double dt) {
+        int steps = Math.max(1, (int) Math.round(dt / SUBSTEP));
+        double h = dt / steps;
+        for (int i = 0; i < steps; i++) {
+            // Oldest input leaves the delay line as the newest enters
+            double applied = input + disturbance;
+            if (delayLine.length > 0) {
+                double newest = applied;
+                applied = delayLine[delayIndex];
+                delayLine[delayIndex] = newest;
+                delayIndex = (delayIndex + 1) % delayLine.length;
+            }
+
+            velocity += (gain * applied - velocity) * h / timeConstant;
+            position += velocity * h;
+        }
+    }
+
+    @Override
+    public void reset() {
+        Arrays.fill(delayLine, 0.0);
+        delayIndex = 0;
+        input = 0.0;
+        position = 0.0;
+        velocity = 0.0;
+    }
+}
@@ -1,23 +1,30 @@
 package com.hydraulichydras.hydralib;
 
 /**
- * Proportional, integral, and derivative (PID) gains used by HydraPIDFController.
+ * Proportional, integral, derivative and feedforward (PIDF) gains used by HydraPIDFController.
  */
 public class HydraPIDCoefficients {
 
     public double kP;
     public double kI;
     public double kD;
+    public double kF; // Output per unit of setpoint
 
     public HydraPIDCoefficients(double kP, double kI, double kD) {
+        this(kP, kI, kD, 0.0);
+    }
+
+    public HydraPIDCoefficients(double kP, double kI, double kD, double kF) {
         this.kP = kP;
         this.kI = kI;
         this.kD = kD;
+        this.kF = kF;
     }
 
     public HydraPIDCoefficients() {
         this.kP = 0.0;
         this.kI = 0.0;
         this.kD = 0.0;
+        this.kF = 0.0;
     }
 }
@@ -0,0 +1,240 @@
+package com.hydraulichydras.hydralib;
+
+/**
+ * PIDF controller driven by {@link HydraPIDCoefficients}.
+ * <p>
+ * The output is kP * error + integral + kD * derivative + kF * setpoint, clamped to the output limits. The integral
+ * is accumulated in output units (kI is applied before summing), so gains can be retuned live without the output
+ * jumping. Supports anti-windup ({@link HydraAntiWindup}), a low-pass filtered derivative, derivative on measurement
+ * to avoid kicks on setpoint changes, and continuous input for angles in radians.
+ * <p>
+ * Updating holds only primitive state and never allocates. The coefficients object is read on every update, so
+ * changes to it take effect immediately.
+ */
+public class HydraPIDFController {
+
+    private final HydraPIDCoefficients coefficients;
+
+    // Configuration
+    private HydraAntiWindup antiWindup = HydraAntiWindup.CLAMPING;
+    private double backCalculationGain = 10.0;
+    private double derivativeFilter = 0.0;
+    private boolean derivativeOnMeasurement = true;
+    private boolean continuous = false;
+    private double minOutput = Double.NEGATIVE_INFINITY;
+    private double maxOutput = Double.POSITIVE_INFINITY;
+
+    // State
+    private double integral;
+    private double derivative;
+    private double lastError;
+    private double lastMeasurement;
+    private double error;
+    private double output;
+    private long lastTime;
+    private boolean hasLast;
+
+    /**
+     * Constructs a new HydraPIDFController.
+     *
+     * @param coefficients The gains. The object is kept, not copied.
+     */
+    public HydraPIDFController(HydraPIDCoefficients coefficients) {
+        this.coefficients = coefficients;
+    }
+
+    /**
+     * Sets how integral windup is limited while the output is saturated.
+     *
+     * @param antiWindup The anti-windup method.
+     */
+    public HydraPIDFController setAntiWindup(HydraAntiWindup antiWindup) {
+        this.antiWindup = antiWindup;
+        return this;
+    }
+
+    /**
+     * Sets the tracking gain for {@link HydraAntiWindup#BACK_CALCULATION}: the fraction of the output excess removed
+     * from the integral per second.
+     *
+     * @param gain The tracking gain (per second).
+     */
+    public HydraPIDFController setBackCalculationGain(double gain) {
+        this.backCalculationGain = gain;
+        return this;
+    }
+
+    /**
+     * Sets the derivative low-pass filter. Each update keeps this fraction of the previous derivative.
+     *
+     * @param filter The filter gain in [0, 1), where 0 disables filtering.
+     */
+    public HydraPIDFController setDerivativeFilter(double filter) {
+        if (filter < 0.0 || filter >= 1.0) {
+            throw new IllegalArgumentException("Derivative filter gain must be in [0, 1)");
+        }
+        this.derivativeFilter = filter;
+        return this;
+    }
+
+    /**
+     * Sets whether the derivative term uses the measurement instead of the error, which avoids output kicks when the
+     * setpoint changes.
+     *
+     * @param derivativeOnMeasurement true to differentiate the measurement.
+     */
+    public HydraPIDFController setDerivativeOnMeasurement(boolean derivativeOnMeasurement) {
+        this.derivativeOnMeasurement = derivativeOnMeasurement;
+        return this;
+    }
+
+    /**
+     * Sets whether the input is an angle in radians, so errors take the shortest way around the circle.
+     *
+     * @param continuous true for angle inputs.
+     */
+    public HydraPIDFController setContinuous(boolean continuous) {
+        this.continuous = continuous;
+        return this;
+    }
+
+    /**
+     * Sets the output limits.
+     *
+     * @param minOutput The lowest output.
+     * @param maxOutput The highest output.
+     */
+    public HydraPIDFController setOutputLimits(double minOutput, double maxOutput) {
+        if (minOutput > maxOutput) {
+            throw new IllegalArgumentException("Minimum output cannot be greater than maximum output");
+        }
+        this.minOutput = minOutput;
+        this.maxOutput = maxOutput;
+        return this;
+    }
+
+    /**
+     * Computes the output, measuring the time step with {@link HydraClock}.
+     *
+     * @param measurement The measured value.
+     * @param setpoint    The target value.
+     * @return The controller output.
+     */
+    public double calculate(double measurement, double setpoint) {
+        long now = HydraClock.nanoTime();
+        double dt = hasLast ? (now - lastTime) * 1e-9 : 0.0;
+        lastTime = now;
+        return calculate(measurement, setpoint, dt);
+    }
+
+    /**
+     * Computes the output for a known time step.
+     *
+     * @param measurement The measured value.
+     * @param setpoint    The target value.
+     * @param dt          The time since the last update (in seconds). The integral and derivative are not updated
+     *                    when this is not positive.
+     * @return The controller output.
+     */
+    public double calculate(double measurement, double setpoint, double dt) {
+        HydraPIDCoefficients k = coefficients;
+        error = continuous ? HydraAngle.normDelta(setpoint - measurement) : setpoint - measurement;
+
+        if (hasLast && dt > 0.0) {
+            double rawDerivative;
+            if (derivativeOnMeasurement) {
+                double change = continuous ? HydraAngle.normDelta(measurement - lastMeasurement) : measurement - lastMeasurement;
+                rawDerivative = -change / dt;
+            } else {
+                rawDerivative = (error - lastError) / dt;
+            }
+            derivative = derivativeFilter * derivative + (1.0 - derivativeFilter) * rawDerivative;
+        } else {
+            derivative = 0.0;
+        }
+
+        double proportional = k.kP * error + k.kD * derivative + k.kF * setpoint;
+        if (dt > 0.0) {
+            double step = k.kI * error * dt;
+            if (antiWindup == HydraAntiWindup.CLAMPING) {
+                // Only integrate if doing so does not push a saturated output further past its limit
+                double candidate = proportional + integral + step;
+                if (!(candidate > maxOutput && step > 0.0) && !(candidate < minOutput && step < 0.0)) {
+                    integral += step;
+                }
+            } else {
+                integral += step;
+            }
+        }
+
+        double unsaturated = proportional + integral;
+        output = Math.max(minOutput, Math.min(maxOutput, unsaturated));
+
+        if (antiWindup == HydraAntiWindup.BACK_CALCULATION && dt > 0.0 && output != unsaturated) {
+            integral += backCalculationGain * (output - unsaturated) * dt;
+        }
+
+        lastError = error;
+        lastMeasurement = measurement;
+        hasLast = true;
+        return output;
+    }
+
+    /**
+     * Updates an array of controllers in one call, for mechanisms driven by several motors.
+     *
+     * @param controllers  The controllers.
+     * @param measurements The measured value for each controller.
+     * @param setpoints    The target value for each controller.
+     * @param dt           The time since the last update (in seconds).
+     * @param outputs      The array receiving each controller's output.
+     */
+    public static void calculate(HydraPIDFController[] controllers, double[] measurements, double[] setpoints,
+                                 double dt, double[] outputs) {
+        for (int i = 0; i < controllers.length; i++) {
+            outputs[i] = controllers[i].calculate(measurements[i], setpoints[i], dt);
+        }
+    }
+
+    /**
+     * Clears the integral, derivative and history, as if the controller was just created.
+     */
+    public void reset() {
+        integral = 0.0;
+        derivative = 0.0;
+        lastError = 0.0;
+        lastMeasurement = 0.0;
+        error = 0.0;
+        output = 0.0;
+        hasLast = false;
+    }
+
+    /**
+     * Checks whether the last error was within a tolerance.
+     *
+     * @param tolerance The largest acceptable error.
+     */
+    public boolean atSetpoint(double tolerance) {
+        return hasLast && Math.abs(error) <= tolerance;
+    }
+
+    public HydraPIDCoefficients getCoefficients() {
+        return coefficients;
+    }
+
+    public double getError() {
+        return error;
+    }
+
+    public double getIntegral() {
+        return integral;
+    }
+
+    public double getDerivative() {
+        return derivative;
+    }
+
+    public double getOutput() {
+        return output;
+    }
+}
@@ -3,32 +3,68 @@ package com.hydraulichydras.hydralib;
 import com.qualcomm.robotcore.hardware.Gamepad;
 
 import java.util.HashMap;
-import java.util.Objects;
 
 /**
  * Class for reading inputs from a PS controller.
+ * <p>
+ * The gamepad is captured into a {@link HydraGamepadSnapshot} once per loop, as counted by {@link HydraLoopCache},
+ * the first time any input is requested. Buttons, edges and chords are then answered with bitwise operations on the
+ * snapshot, so every reader and binding in a loop sees the same state without touching the live gamepad. If the loop
+ * cache is not updated, buttons and sticks are read live and edges are taken from {@link #readButtons()}.
+ * <p>
+ * Captures come from a {@link HydraGamepadSource}. For a live gamepad this is a {@link HydraGamepadBuffer}, which
+ * never mixes fields from different packets and reports whether a new packet arrived; see {@link #hasNewPacket()}.
+ * <p>
+ * Stick values are available raw, or shaped by a {@link HydraDriverProfile}: the shaped getters apply the profile's
+ * radial deadband, response curves and slew limits once per loop, as counted by {@link HydraLoopCache}.
  */
 public class HydraPSController {
 
-    /** The gamepad instance to read inputs from */
+    /** The gamepad instance to read inputs from, or null if reading from another source */
     public Gamepad gamepad;
 
-    /** Map to store switch readers for each button */
+    /** Source the snapshots are captured from */
+    private final HydraGamepadSource source;
+
+    /**
+     * Map to store switch readers for each button. They follow the snapshot and are updated on every capture.
+     *
+     * @deprecated Use {@link #wasJustPressed}, {@link #wasJustReleased}, {@link #stateJustChanged} and
+     * {@link #isDown}, which answer from the snapshot without a map lookup.
+     */
+    @Deprecated
     public HashMap<HydraSwitches.HydraButton, HydraSwitchReader> switchReader;
 
-    /** Map to store controller readers for each button */
+    /**
+     * Map to store controller readers for each button.
+     *
+     * @deprecated Use {@link #getControllerButton}, which looks the reader up by ordinal.
+     */
+    @Deprecated
     public HashMap<HydraSwitches.HydraButton, HydraControllerReader> controllerReader;
 
-    /** Array of all Hydra buttons */
-    private final HydraSwitches.HydraButton[] buttons = {
-            HydraSwitches.HydraButton.CIRCLE, HydraSwitches.HydraButton.CROSS,
-            HydraSwitches.HydraButton.SQUARE, HydraSwitches.HydraButton.TRIANGLE,
-            HydraSwitches.HydraButton.LEFT_BUMPER, HydraSwitches.HydraButton.RIGHT_BUMPER,
-            HydraSwitches.HydraButton.SHARE, HydraSwitches.HydraButton.OPTIONS,
-            HydraSwitches.HydraButton.DPAD_UP, HydraSwitches.HydraButton.DPAD_DOWN,
-            HydraSwitches.HydraButton.DPAD_LEFT, HydraSwitches.HydraButton.DPAD_RIGHT,
-            HydraSwitches.HydraButton.LEFT_STICK_BUTTON, HydraSwitches.HydraButton.RIGHT_STICK_BUTTON
-    };
+    /** Switch and controller readers for each button, indexed by button ordinal */
+    private final HydraSwitchReader[] switchReaders;
+    private final HydraControllerReader[] controllerReaders;
+
+    /** Snapshot of the gamepad and the loop it was captured in */
+    private final HydraGamepadSnapshot snapshot = new HydraGamepadSnapshot();
+    private long capturedLoop = -1;
+
+    /** Packet of the latest capture and the one before */
+    private long packet;
+    private long previousPacket;
+
+    /** Snapshot used for live reads when the loop cache is not updated */
+    private final HydraGamepadSnapshot live = new HydraGamepadSnapshot();
+
+    /** Input shaping profile for the sticks */
+    private HydraDriverProfile profile = new HydraDriverProfile();
+
+    /** Shaped stick values in the order left x, left y, right x, right y, and the loop they were shaped in */
+    private final double[] shaped = new double[4];
+    private final double[] stick = new double[2];
+    private long shapedLoop = -1;
 
     /**
      * Constructor to initialize the HydraPSController with a gamepad instance.
@@ -36,17 +72,118 @@ public class HydraPSController {
      * @param gamepad The gamepad instance to read inputs from.
      */
     public HydraPSController(Gamepad gamepad) {
+        this(gamepad, new HydraGamepadBuffer(gamepad));
+    }
+
+    /**
+     * Constructor to initialize the HydraPSController with any gamepad source, such as a recording being replayed.
+     *
+     * @param source The source to read inputs from.
+     */
+    public HydraPSController(HydraGamepadSource source) {
+        this(null, source);
+    }
+
+    // Shared constructor
+    private HydraPSController(Gamepad gamepad, HydraGamepadSource source) {
         this.gamepad = gamepad;
-        switchReader = new HashMap<>();
-        controllerReader = new HashMap<>();
+        this.source = source;
+
+        packet = source.read(snapshot);
+        previousPacket = packet;
+        snapshot.clearEdges();
 
         // Initialize switch readers and controller readers for each button
+        HydraSwitches.HydraButton[] buttons = HydraSwitches.HydraButton.values();
+        switchReaders = new HydraSwitchReader[buttons.length];
+        controllerReaders = new HydraControllerReader[buttons.length];
+        switchReader = new HashMap<>();
+        controllerReader = new HashMap<>();
         for (HydraSwitches.HydraButton button : buttons) {
-            switchReader.put(button, new HydraSwitchReader(this, button));
-            controllerReader.put(button, new HydraControllerReader(this, button));
+            switchReaders[button.ordinal()] = new HydraSwitchReader(() -> snapshot.isDown(button));
+            controllerReaders[button.ordinal()] = new HydraControllerReader(this, button);
+            switchReader.put(button, switchReaders[button.ordinal()]);
+            controllerReader.put(button, controllerReaders[button.ordinal()]);
         }
     }
 
+    /**
+     * Captures the gamepad if the loop cache has started a new loop since the last capture.
+     *
+     * @return True if the snapshot is current for this loop, false if the loop cache is not being updated.
+     */
+    private boolean captureIfNewLoop() {
+        long loop = HydraLoopCache.getInstance().getLoopCount();
+        if (loop == 0) {
+            return false;
+        }
+        if (loop != capturedLoop) {
+            capture(loop);
+        }
+        return true;
+    }
+
+    // Captures a new snapshot from the source
+    private void capture(long loop) {
+        previousPacket = packet;
+        packet = source.read(snapshot);
+        capturedLoop = loop;
+        for (HydraSwitchReader reader : switchReaders) {
+            reader.readValue();
+        }
+    }
+
+    /**
+     * Gets the snapshot for this loop, or a live read if the loop cache is not being updated.
+     */
+    private HydraGamepadSnapshot current() {
+        if (captureIfNewLoop()) {
+            return snapshot;
+        }
+        source.read(live);
+        return live;
+    }
+
+    /**
+     * Checks whether the latest capture came from a different packet than the one before. When it did not, no input
+     * changed, so bindings and other input handling can be skipped.
+     *
+     * @return True if a new packet arrived.
+     */
+    public boolean hasNewPacket() {
+        captureIfNewLoop();
+        return packet != previousPacket;
+    }
+
+    /**
+     * Gets the sequence number of the packet the latest capture came from.
+     *
+     * @return The packet sequence number, as returned by the {@link HydraGamepadSource}.
+     */
+    public long getPacketSequence() {
+        captureIfNewLoop();
+        return packet;
+    }
+
+    /**
+     * Gets the snapshot the button and edge queries are answered from, capturing it first if a new loop has started.
+     *
+     * @return The gamepad snapshot.
+     */
+    public HydraGamepadSnapshot getSnapshot() {
+        captureIfNewLoop();
+        return snapshot;
+    }
+
+    /**
+     * Gets the mask of buttons currently held, with bit 1 &lt;&lt; ordinal set for each held button.
+     *
+     * @return The button mask.
+     */
+    public int getButtonMask() {
+        return current().getButtons();
+    }
+
     /**
      * Get the state of a specific button.
      *
@@ -54,56 +191,7 @@ public class HydraPSController {
      * @return The state of the button.
      */
     public boolean getButton(HydraSwitches.HydraButton button) {
-        boolean buttonValue = false;
-        // Retrieve the state of the specified button from the gamepad
-        switch (button) {
-            case SQUARE:
-                buttonValue = gamepad.square;
-                break;
-            case TRIANGLE:
-                buttonValue = gamepad.triangle;
-                break;
-            case CROSS:
-                buttonValue = gamepad.cross;
-                break;
-            case CIRCLE:
-                buttonValue = gamepad.circle;
-                break;
-            case LEFT_BUMPER:
-                buttonValue = gamepad.left_bumper;
-                break;
-            case RIGHT_BUMPER:
-                buttonValue = gamepad.right_bumper;
-                break;
-            case DPAD_UP:
-                buttonValue = gamepad.dpad_up;
-                break;
-            case DPAD_DOWN:
-                buttonValue = gamepad.dpad_down;
-                break;
-            case DPAD_LEFT:
-                buttonValue = gamepad.dpad_left;
-                break;
-            case DPAD_RIGHT:
-                buttonValue = gamepad.dpad_right;
-                break;
-            case SHARE:
-                buttonValue = gamepad.share;
-                break;
-            case OPTIONS:
-                buttonValue = gamepad.options;
-                break;
-            case LEFT_STICK_BUTTON:
-                buttonValue = gamepad.left_stick_button;
-                break;
-            case RIGHT_STICK_BUTTON:
-                buttonValue = gamepad.right_stick_button;
-                break;
-            default:
-                buttonValue = false;
-                break;
-        }
-        return buttonValue;
+        return (getButtonMask() & HydraGamepadSnapshot.bit(button)) != 0;
     }
 
     // Similar Javadoc comments can be applied to other methods as needed
@@ -115,19 +203,15 @@ public class HydraPSController {
      * @return The state of the trigger.
      */
     public double getTrigger(HydraSwitches.HydraTrigger trigger) {
-        double triggerValue = 0;
-        // Retrieve the state of the specified trigger from the gamepad
+        // Retrieve the state of the specified trigger from the snapshot
         switch (trigger) {
             case LEFT_TRIGGER:
-                triggerValue = gamepad.left_trigger;
-                break;
+                return current().getLeftTrigger();
             case RIGHT_TRIGGER:
-                triggerValue = gamepad.right_trigger;
-                break;
+                return current().getRightTrigger();
             default:
-                break;
+                return 0;
         }
-        return triggerValue;
     }
 
     /**
@@ -136,7 +220,7 @@ public class HydraPSController {
      * @return The Y-value of the left analog stick.
      */
     public double getLeftY() {
-        return -gamepad.left_stick_y;
+        return -current().getLeftStickY();
     }
 
     /**
@@ -145,7 +229,7 @@ public class HydraPSController {
      * @return The Y-value of the right analog stick.
      */
     public double getRightY() {
-        return gamepad.right_stick_y;
+        return current().getRightStickY();
     }
 
     /**
@@ -154,7 +238,7 @@ public class HydraPSController {
      * @return The X-value of the left analog stick.
      */
     public double getLeftX() {
-        return gamepad.left_stick_x;
+        return current().getLeftStickX();
     }
 
     /**
@@ -163,7 +247,92 @@ public class HydraPSController {
      * @return The X-value of the right analog stick.
      */
     public double getRightX() {
-        return gamepad.right_stick_x;
+        return current().getRightStickX();
+    }
+
+    /**
+     * Sets the input shaping profile used by the shaped stick getters.
+     *
+     * @param profile The driver profile. Profiles hold slew state, so give each controller its own.
+     */
+    public void setProfile(HydraDriverProfile profile) {
+        this.profile = profile;
+        shapedLoop = -1;
+    }
+
+    /**
+     * Gets the input shaping profile used by the shaped stick getters.
+     *
+     * @return The driver profile.
+     */
+    public HydraDriverProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Returns the shaped X-value of the left analog stick.
+     *
+     * @return The shaped X-value of the left analog stick.
+     */
+    public double getShapedLeftX() {
+        shapeSticks();
+        return shaped[0];
+    }
+
+    /**
+     * Returns the shaped Y-value of the left analog stick, positive forward.
+     *
+     * @return The shaped Y-value of the left analog stick.
+     */
+    public double getShapedLeftY() {
+        shapeSticks();
+        return shaped[1];
+    }
+
+    /**
+     * Returns the shaped X-value of the right analog stick.
+     *
+     * @return The shaped X-value of the right analog stick.
+     */
+    public double getShapedRightX() {
+        shapeSticks();
+        return shaped[2];
+    }
+
+    /**
+     * Returns the shaped Y-value of the right analog stick.
+     *
+     * @return The shaped Y-value of the right analog stick.
+     */
+    public double getShapedRightY() {
+        shapeSticks();
+        return shaped[3];
+    }
+
+    /**
+     * Shapes the sticks through the profile, at most once per loop so slew limits see one step per loop.
+     * Shapes on every call if {@link HydraLoopCache#update()} has never been called.
+     */
+    private void shapeSticks() {
+        HydraLoopCache cache = HydraLoopCache.getInstance();
+        long loop = cache.getLoopCount();
+        if (loop == shapedLoop && loop != 0) {
+            return;
+        }
+        shapedLoop = loop;
+        long timestamp = cache.getTimestamp();
+
+        stick[0] = getLeftX();
+        stick[1] = getLeftY();
+        HydraDriverProfile.applyRadialDeadband(stick, profile.getLeftRadialDeadband());
+        shaped[0] = profile.getLeftX().calculate(stick[0], timestamp);
+        shaped[1] = profile.getLeftY().calculate(stick[1], timestamp);
+
+        stick[0] = getRightX();
+        stick[1] = getRightY();
+        HydraDriverProfile.applyRadialDeadband(stick, profile.getRightRadialDeadband());
+        shaped[2] = profile.getRightX().calculate(stick[0], timestamp);
+        shaped[3] = profile.getRightY().calculate(stick[1], timestamp);
     }
 
     /**
@@ -173,7 +342,8 @@ public class HydraPSController {
      * @return True if the button was just pressed, false otherwise.
      */
     public boolean wasJustPressed(HydraSwitches.HydraButton button) {
-        return Objects.requireNonNull(switchReader.get(button)).wasJustPressed();
+        captureIfNewLoop();
+        return snapshot.wasJustPressed(button);
     }
 
     /**
@@ -183,27 +353,54 @@ public class HydraPSController {
      * @return True if the button was just released, false otherwise.
      */
     public boolean wasJustReleased(HydraSwitches.HydraButton button) {
-        return Objects.requireNonNull(switchReader.get(button)).wasJustReleased();
+        captureIfNewLoop();
+        return snapshot.wasJustReleased(button);
     }
 
     /**
      * Updates the state of all buttons.
-     * Call this method once per loop iteration.
+     * Call this method once per loop iteration if {@link HydraLoopCache#update()} is not called; otherwise the
+     * gamepad is captured automatically and this method does nothing more in a loop that has already captured it.
      */
     public void readButtons() {
-        for (HydraSwitches.HydraButton button : buttons) {
-            Objects.requireNonNull(switchReader.get(button)).readValue();
+        long loop = HydraLoopCache.getInstance().getLoopCount();
+        if (loop != 0 && loop == capturedLoop) {
+            return;
         }
+        capture(loop);
+    }
+
+    /**
+     * Checks if every button of a chord is currently pressed.
+     *
+     * @param mask The chord mask, built with {@link HydraGamepadSnapshot#mask}.
+     * @return True if all buttons of the chord are pressed, false otherwise.
+     */
+    public boolean isChordDown(int mask) {
+        return (getButtonMask() & mask) == mask;
+    }
+
+    /**
+     * Checks if a chord was just completed: all of its buttons are pressed now but were not at the last read.
+     *
+     * @param mask The chord mask, built with {@link HydraGamepadSnapshot#mask}.
+     * @return True if the chord was just pressed, false otherwise.
+     */
+    public boolean wasChordJustPressed(int mask) {
+        captureIfNewLoop();
+        return snapshot.wasChordJustPressed(mask);
     }
 
     /**
-     * Checks if the specified button is currently pressed.
+     * Checks if the specified button is currently pressed. This reads the same state as {@link #getButton}: the
+     * snapshot of this loop when the loop cache is updated, otherwise the live gamepad rather than the state captured
+     * by the last {@link #readButtons()}.
      *
      * @param button The button to check.
      * @return True if the button is currently pressed, false otherwise.
      */
     public boolean isDown(HydraSwitches.HydraButton button) {
-        return Objects.requireNonNull(switchReader.get(button)).isDown();
+        return getButton(button);
     }
 
     /**
@@ -213,7 +410,8 @@ public class HydraPSController {
      * @return True if the state of the button has changed, false otherwise.
      */
     public boolean stateJustChanged(HydraSwitches.HydraButton button) {
-        return Objects.requireNonNull(switchReader.get(button)).stateJustChanged();
+        captureIfNewLoop();
+        return snapshot.stateJustChanged(button);
     }
 
     /**
@@ -223,7 +421,7 @@ public class HydraPSController {
      * @return The controller reader for the specified button.
      */
     public HydraControllerReader getControllerButton(HydraSwitches.HydraButton button) {
-        return controllerReader.get(button);
+        return controllerReaders[button.ordinal()];
     }
 
 }
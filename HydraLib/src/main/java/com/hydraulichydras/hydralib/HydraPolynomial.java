@@ -2,60 +2,191 @@ package com.hydraulichydras.hydralib;
 
 import org.ejml.simple.SimpleMatrix;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * Represents and manipulates polynomial functions.
+ * <p>
+ * Coefficients are stored in a primitive array in ascending order, so the coefficient at index i multiplies x^i.
+ * Evaluation uses Horner's method and never allocates, which makes fitted feedforward or calibration curves cheap to
+ * evaluate every loop.
  */
 public class HydraPolynomial {
 
-    // List to store the coefficients of the polynomial
-    private final ArrayList<Double> coeffs = new ArrayList<>();
+    // Coefficients of the polynomial, lowest degree first
+    private final double[] coeffs;
 
     // Constructor to initialize the polynomial with coefficients from a matrix
     public HydraPolynomial(SimpleMatrix coeffs) {
-        for (int i = 0; i < coeffs.getNumElements(); i++) {
-            this.coeffs.add(coeffs.get(i));
+        this.coeffs = new double[coeffs.getNumElements()];
+        for (int i = 0; i < this.coeffs.length; i++) {
+            this.coeffs[i] = coeffs.get(i);
         }
     }
 
     // Constructor to initialize the polynomial with coefficients provided as arguments
     public HydraPolynomial(double... coeffs) {
-        for (double coeff : coeffs) {
-            this.coeffs.add(coeff);
+        this.coeffs = coeffs.clone();
+    }
+
+    /**
+     * Fits a polynomial to sample data by least squares.
+     *
+     * @param xs     The sample inputs.
+     * @param ys     The sample outputs.
+     * @param degree The degree of the fitted polynomial.
+     * @return The polynomial minimizing the sum of squared errors over the samples.
+     * @throws IllegalArgumentException If the arrays differ in length or there are fewer samples than coefficients.
+     */
+    public static HydraPolynomial fit(double[] xs, double[] ys, int degree) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("Sample inputs and outputs must have the same length");
+        }
+        if (degree < 0 || xs.length < degree + 1) {
+            throw new IllegalArgumentException("Not enough samples to fit a polynomial of degree " + degree);
+        }
+
+        // Vandermonde matrix: one row per sample, one column per power of x
+        SimpleMatrix vandermonde = new SimpleMatrix(xs.length, degree + 1);
+        SimpleMatrix outputs = new SimpleMatrix(ys.length, 1);
+        for (int row = 0; row < xs.length; row++) {
+            double power = 1.0;
+            for (int col = 0; col <= degree; col++) {
+                vandermonde.set(row, col, power);
+                power *= xs[row];
+            }
+            outputs.set(row, 0, ys[row]);
         }
+
+        // Solving a non-square system gives the least-squares solution
+        return new HydraPolynomial(vandermonde.solve(outputs));
     }
 
     // Method to evaluate the polynomial at a given x value
     public double calculate(double x) {
         // By default, calculate the polynomial up to the highest degree
-        return calculate(x, coeffs.size() - 1);
+        return calculate(x, coeffs.length - 1);
     }
 
     // Method to evaluate the polynomial up to a given degree at a given x value
     public double calculate(double x, int n) {
         // Check if the degree is valid
-        if (n < 0 || n >= coeffs.size()) {
+        if (n < 0 || n >= coeffs.length) {
             throw new IllegalArgumentException("Invalid degree for polynomial calculation");
         }
 
+        // Horner's method: c0 + x * (c1 + x * (c2 + ...))
+        double result = coeffs[n];
+        for (int i = n - 1; i >= 0; i--) {
+            result = result * x + coeffs[i];
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates the polynomial at many inputs.
+     *
+     * @param xs  The inputs.
+     * @param out The array receiving the value at each input. May be the same array as xs.
+     */
+    public void calculate(double[] xs, double[] out) {
+        int n = coeffs.length - 1;
+        if (n < 0) {
+            throw new IllegalArgumentException("Invalid degree for polynomial calculation");
+        }
+        for (int j = 0; j < xs.length; j++) {
+            double x = xs[j];
+            double result = coeffs[n];
+            for (int i = n - 1; i >= 0; i--) {
+                result = result * x + coeffs[i];
+            }
+            out[j] = result;
+        }
+    }
+
+    /**
+     * Evaluates a derivative of the polynomial without creating the derivative polynomial.
+     *
+     * @param x     The input.
+     * @param order The order of the derivative, where 0 is the polynomial itself.
+     * @return The derivative at x.
+     */
+    public double calculateDerivative(double x, int order) {
+        if (order < 0) {
+            throw new IllegalArgumentException("Derivative order cannot be negative");
+        }
+        int n = coeffs.length - 1;
+        if (order > n) {
+            return 0.0;
+        }
+
+        // Horner's method on the coefficients c_i * i! / (i - order)!
         double result = 0.0;
-        double power = 1.0;
+        for (int i = n; i >= order; i--) {
+            double factor = 1.0;
+            for (int k = i - order + 1; k <= i; k++) {
+                factor *= k;
+            }
+            result = result * x + factor * coeffs[i];
+        }
+        return result;
+    }
 
-        // Calculate the polynomial value using Horner's method
-        for (int i = 0; i <= n; i++) {
-            double coeff = coeffs.get(i);
-            double term = coeff * power;
-            result += term;
-            power *= x;
+    /**
+     * Evaluates a derivative of the polynomial at many inputs.
+     *
+     * @param xs    The inputs.
+     * @param order The order of the derivative, where 0 is the polynomial itself.
+     * @param out   The array receiving the derivative at each input. May be the same array as xs.
+     */
+    public void calculateDerivative(double[] xs, int order, double[] out) {
+        for (int j = 0; j < xs.length; j++) {
+            out[j] = calculateDerivative(xs[j], order);
         }
+    }
+
+    // Method to get the degree of the polynomial
+    public int getDegree() {
+        return coeffs.length - 1;
+    }
+
+    // Method to get the coefficient of the x^i term
+    public double getCoefficient(int i) {
+        return coeffs[i];
+    }
 
+    // Method to get a copy of the coefficients, lowest degree first
+    public double[] getCoefficients() {
+        return coeffs.clone();
+    }
+
+    // Method to create the derivative of the polynomial
+    public HydraPolynomial derivative() {
+        if (coeffs.length == 1) {
+            return new HydraPolynomial(0.0);
+        }
+        double[] derivative = new double[coeffs.length - 1];
+        for (int i = 1; i < coeffs.length; i++) {
+            derivative[i - 1] = i * coeffs[i];
+        }
+        return new HydraPolynomial(derivative);
+    }
+
+    // Method to create a higher-order derivative of the polynomial
+    public HydraPolynomial derivative(int order) {
+        if (order < 0) {
+            throw new IllegalArgumentException("Derivative order cannot be negative");
+        }
+        HydraPolynomial result = this;
+        for (int i = 0; i < order; i++) {
+            result = result.derivative();
+        }
         return result;
     }
 
     // Method to represent the polynomial as a string
     @Override
     public String toString() {
-        return coeffs.toString();
+        return Arrays.toString(coeffs);
     }
 }
@@ -41,6 +41,14 @@ public class HydraPose {
         this.heading = pose.heading;
     }
 
+    // Set the pose to the specified coordinates and heading
+    public HydraPose set(double x, double y, double heading) {
+        this.x = x;
+        this.y = y;
+        this.heading = AngleUnit.normalizeRadians(heading);
+        return this;
+    }
+
     // Constructor to initialize pose with specified coordinates and zero heading
     public HydraPose(double x, double y) {
         this(x, y, 0.0);
@@ -51,21 +59,61 @@ public class HydraPose {
         return new HydraPose(x + other.x, y + other.y, heading + other.heading);
     }
 
+    // Method to add another pose to this pose, writing the result into out
+    public HydraPose add(HydraPose other, HydraPose out) {
+        return out.set(x + other.x, y + other.y, heading + other.heading);
+    }
+
+    // Method to add another pose to this pose, modifying this pose
+    public HydraPose addInPlace(HydraPose other) {
+        return add(other, this);
+    }
+
     // Method to subtract another pose from this pose
     public HydraPose subtract(HydraPose other) {
         return new HydraPose(x - other.x, y - other.y,  AngleUnit.normalizeRadians(heading - other.heading));
     }
 
+    // Method to subtract another pose from this pose, writing the result into out
+    public HydraPose subtract(HydraPose other, HydraPose out) {
+        return out.set(x - other.x, y - other.y, heading - other.heading);
+    }
+
+    // Method to subtract another pose from this pose, modifying this pose
+    public HydraPose subtractInPlace(HydraPose other) {
+        return subtract(other, this);
+    }
+
     // Method to divide this pose by another pose
     public HydraPose divide(HydraPose other) {
         return new HydraPose(this.x / other.x, this.y / other.y, this.heading / other.heading);
     }
 
+    // Method to divide this pose by another pose, writing the result into out
+    public HydraPose divide(HydraPose other, HydraPose out) {
+        return out.set(x / other.x, y / other.y, heading / other.heading);
+    }
+
+    // Method to divide this pose by another pose, modifying this pose
+    public HydraPose divideInPlace(HydraPose other) {
+        return divide(other, this);
+    }
+
     // Method to compute the difference between this pose and another pose
     public HydraPose subt(HydraPose other) {
         return new HydraPose(x - other.x, y - other.y, heading - other.heading);
     }
 
+    // Method to compute the difference between this pose and another pose, writing the result into out
+    public HydraPose subt(HydraPose other, HydraPose out) {
+        return out.set(x - other.x, y - other.y, heading - other.heading);
+    }
+
+    // Method to compute the difference between this pose and another pose, modifying this pose
+    public HydraPose subtInPlace(HydraPose other) {
+        return subt(other, this);
+    }
+
     // Convert the pose to a 2D vector
     public HydraVector2d toVector2d() {
         return new HydraVector2d(x, y);
@@ -75,8 +123,18 @@ public class HydraPose {
         return new HydraVector2d(x, y);
     }
 
+    // Write the position of the pose into out
+    public HydraVector2d vec(HydraVector2d out) {
+        return out.set(x, y);
+    }
+
     public HydraVector2d headingVec() {
-        return new HydraVector2d(Math.cos(heading), Math.sin(heading));
+        return new HydraVector2d(HydraTrig.cos(heading), HydraTrig.sin(heading));
+    }
+
+    // Write the unit vector pointing along the heading into out
+    public HydraVector2d headingVec(HydraVector2d out) {
+        return out.set(HydraTrig.cos(heading), HydraTrig.sin(heading));
     }
 
     // Override equals method to compare poses for equality
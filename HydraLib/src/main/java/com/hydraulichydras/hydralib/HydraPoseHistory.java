@@ -0,0 +1,254 @@
+package com.hydraulichydras.hydralib;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+
+/**
+ * Fixed-capacity ring buffer of timestamped poses, used to apply delayed measurements at the time they were captured.
+ * <p>
+ * Localizers record their estimate on every update. When a measurement arrives late (vision detections typically
+ * arrive 50-150 ms after the frame was taken), the pose at capture time is looked up by binary search and
+ * interpolation, and the motion since then is carried over onto the measured pose.
+ * <p>
+ * Storage is primitive arrays allocated once, so recording and lookups never allocate.
+ * Timestamps are in nanoseconds on the {@link HydraClock} time base and must be recorded in increasing order.
+ */
+public class HydraPoseHistory {
+
+    /** Default capacity: a little over one second of history at a 5 ms loop. */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final long[] timestamps;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] headings;
+
+    // Index of the next write
+    private int head;
+
+    // Number of valid entries
+    private int size;
+
+    /**
+     * Constructs a new HydraPoseHistory with the default capacity.
+     */
+    public HydraPoseHistory() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a new HydraPoseHistory.
+     *
+     * @param capacity The maximum number of poses kept.
+     */
+    public HydraPoseHistory(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Pose history needs room for at least two poses");
+        }
+        timestamps = new long[capacity];
+        xs = new double[capacity];
+        ys = new double[capacity];
+        headings = new double[capacity];
+    }
+
+    /**
+     * Records a pose. Poses older than the newest recorded pose are ignored.
+     *
+     * @param timestamp The time the pose was valid (in nanoseconds).
+     * @param pose      The pose.
+     */
+    public void record(long timestamp, HydraPose pose) {
+        record(timestamp, pose.x, pose.y, pose.heading);
+    }
+
+    /**
+     * Records a pose. Poses older than the newest recorded pose are ignored.
+     *
+     * @param timestamp The time the pose was valid (in nanoseconds).
+     * @param x         The x position.
+     * @param y         The y position.
+     * @param heading   The heading (in radians).
+     */
+    public void record(long timestamp, double x, double y, double heading) {
+        if (size > 0 && timestamp < timestamps[index(size - 1)]) {
+            return;
+        }
+        timestamps[head] = timestamp;
+        xs[head] = x;
+        ys[head] = y;
+        headings[head] = heading;
+        head = (head + 1) % timestamps.length;
+        if (size < timestamps.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Removes all recorded poses.
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Gets the number of recorded poses.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the timestamp of the oldest recorded pose, or 0 if the history is empty.
+     */
+    public long getOldestTimestamp() {
+        return size == 0 ? 0 : timestamps[index(0)];
+    }
+
+    /**
+     * Gets the timestamp of the newest recorded pose, or 0 if the history is empty.
+     */
+    public long getNewestTimestamp() {
+        return size == 0 ? 0 : timestamps[index(size - 1)];
+    }
+
+    /**
+     * Looks up the pose at a past time, interpolating between the two surrounding records.
+     *
+     * @param timestamp The time to look up (in nanoseconds).
+     * @param out       The pose to write the result into.
+     * @return false if the time lies outside the recorded range, in which case out is untouched.
+     */
+    public boolean getPose(long timestamp, HydraPose out) {
+        int i = floor(timestamp);
+        if (i < 0) {
+            return false;
+        }
+        int a = index(i);
+        if (i == size - 1) {
+            if (timestamps[a] != timestamp) {
+                return false;
+            }
+            out.x = xs[a];
+            out.y = ys[a];
+            out.heading = headings[a];
+            return true;
+        }
+
+        int b = index(i + 1);
+        long span = timestamps[b] - timestamps[a];
+        double t = span == 0 ? 0 : (double) (timestamp - timestamps[a]) / span;
+        out.x = xs[a] + (xs[b] - xs[a]) * t;
+        out.y = ys[a] + (ys[b] - ys[a]) * t;
+        out.heading = AngleUnit.normalizeRadians(headings[a] + HydraAngle.normDelta(headings[b] - headings[a]) * t);
+        return true;
+    }
+
+    /**
+     * Carries a pose measured at a past time forward to the present, by applying the motion recorded since then.
+     * A capture time newer than the newest recorded pose is treated as that pose's time, since no motion has been
+     * recorded after it.
+     *
+     * @param timestamp The time the measurement was captured (in nanoseconds).
+     * @param x         The measured x position.
+     * @param y         The measured y position.
+     * @param heading   The measured heading (in radians).
+     * @param current   The current pose estimate.
+     * @param out       The pose to write the present-time measurement into (may be the same object as current).
+     * @return false if the history is empty or the capture time is older than it, in which case out is untouched.
+     */
+    public boolean projectToPresent(long timestamp, double x, double y, double heading, HydraPose current, HydraPose out) {
+        int i = floor(clampToNewest(timestamp));
+        if (i < 0) {
+            return false;
+        }
+
+        // Use the stored neighbours directly so no scratch pose is needed
+        int a = index(i);
+        double pastX = xs[a];
+        double pastY = ys[a];
+        double pastHeading = headings[a];
+        if (i < size - 1) {
+            int b = index(i + 1);
+            long span = timestamps[b] - timestamps[a];
+            double t = span == 0 ? 0 : (double) (timestamp - timestamps[a]) / span;
+            pastX += (xs[b] - xs[a]) * t;
+            pastY += (ys[b] - ys[a]) * t;
+            pastHeading += HydraAngle.normDelta(headings[b] - headings[a]) * t;
+        }
+
+        // Motion since capture, in the robot frame at capture time
+        double cos = HydraTrig.cos(pastHeading);
+        double sin = HydraTrig.sin(pastHeading);
+        double dx = current.x - pastX;
+        double dy = current.y - pastY;
+        double localX = cos * dx + sin * dy;
+        double localY = -sin * dx + cos * dy;
+        double dHeading = current.heading - pastHeading;
+
+        // Replay that motion from the measured pose
+        cos = HydraTrig.cos(heading);
+        sin = HydraTrig.sin(heading);
+        out.x = x + cos * localX - sin * localY;
+        out.y = y + sin * localX + cos * localY;
+        out.heading = AngleUnit.normalizeRadians(heading + dHeading);
+        return true;
+    }
+
+    /**
+     * Moves every pose recorded at or after the given time by the rigid transform taking before to after,
+     * so that later lookups agree with a correction applied to the current estimate. As in
+     * {@link #projectToPresent}, a time newer than the newest recorded pose is treated as that pose's time.
+     *
+     * @param timestamp The time from which poses are moved (in nanoseconds).
+     * @param before    The estimate before the correction.
+     * @param after     The estimate after the correction.
+     */
+    public void rebase(long timestamp, HydraPose before, HydraPose after) {
+        double rotation = after.heading - before.heading;
+        double cos = HydraTrig.cos(rotation);
+        double sin = HydraTrig.sin(rotation);
+
+        timestamp = clampToNewest(timestamp);
+        int first = floor(timestamp);
+        if (first < 0 || timestamps[index(first)] < timestamp) {
+            first++;
+        }
+        for (int i = first; i < size; i++) {
+            int j = index(i);
+            double dx = xs[j] - before.x;
+            double dy = ys[j] - before.y;
+            xs[j] = after.x + cos * dx - sin * dy;
+            ys[j] = after.y + sin * dx + cos * dy;
+            headings[j] = AngleUnit.normalizeRadians(headings[j] + rotation);
+        }
+    }
+
+    // Limits a timestamp to the newest recorded one
+    private long clampToNewest(long timestamp) {
+        return size > 0 ? Math.min(timestamp, timestamps[index(size - 1)]) : timestamp;
+    }
+
+    // Logical index of the last entry recorded at or before the timestamp, or -1 if there is none
+    private int floor(long timestamp) {
+        if (size == 0 || timestamp < timestamps[index(0)]) {
+            return -1;
+        }
+        int low = 0;
+        int high = size - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (timestamps[index(mid)] <= timestamp) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    // Converts a logical index (0 = oldest) to an array index
+    private int index(int logical) {
+        int i = head - size + logical;
+        return i < 0 ? i + timestamps.length : i;
+    }
+}
@@ -0,0 +1,232 @@
+package com.hydraulichydras.hydralib;
+
+/**
+ * Command that follows a {@link HydraPurePursuitPath} with a holonomic drive using pure pursuit.
+ * <p>
+ * Each loop the robot's progress along the path is found by projecting its pose onto the path, starting from the
+ * segment found on the previous loop, so the search costs O(1) amortized instead of scanning the whole path.
+ * The robot then drives towards a point one lookahead distance further along the path, while turning towards the
+ * heading interpolated at that point. The lookahead grows with speed to keep fast motion smooth.
+ * <p>
+ * The pose estimate must be kept up to date while the command runs, typically by calling
+ * {@link HydraDrive#updatePoseEstimate()} from the drive subsystem's periodic method.
+ */
+public class HydraPurePursuitCommand extends HydraCommandFoundation {
+
+    // Number of segments past the current one checked for a closer projection
+    private static final int SEARCH_WINDOW = 3;
+
+    private final HydraDrive drive;
+    private final HydraPurePursuitPath path;
+
+    // Commanded power, reused every loop
+    private final HydraPose drivePower = new HydraPose();
+
+    // Adaptive lookahead: minimum + gain * speed, capped at maximum
+    private double minLookahead = 6.0;
+    private double maxLookahead = 18.0;
+    private double lookaheadGain = 0.25;
+
+    // Output limits and gains
+    private double maxPower = 0.8;
+    private double minPower = 0.1;
+    private double slowdownDistance = 12.0;
+    private double headingGain = 1.0;
+
+    // End conditions
+    private double positionTolerance = 1.0;
+    private double headingTolerance = Math.toRadians(2.0);
+
+    // Trigonometry used to rotate commands into the robot frame; null uses the global default
+    private HydraTrigFunctions trig;
+
+    // Segment containing the robot's projection, and the one containing the lookahead point
+    private int segmentIndex;
+    private int lookaheadIndex;
+
+    // Distance from the robot to the end of the path and heading error, from the last loop
+    private double remainingDistance = Double.POSITIVE_INFINITY;
+    private double headingError = Double.POSITIVE_INFINITY;
+
+    /**
+     * Constructs a new HydraPurePursuitCommand.
+     *
+     * @param drive        The drive to command.
+     * @param path         The path to follow.
+     * @param requirements The subsystems used by the command, typically the one owning the drive.
+     */
+    public HydraPurePursuitCommand(HydraDrive drive, HydraPurePursuitPath path, HydraSubsystem... requirements) {
+        this.drive = drive;
+        this.path = path;
+        addRequirements(requirements);
+    }
+
+    /**
+     * Sets the adaptive lookahead distance, computed as minimum + gain * speed.
+     *
+     * @param minLookahead  The lookahead distance when stationary.
+     * @param maxLookahead  The largest lookahead distance.
+     * @param lookaheadGain The lookahead added per unit of speed (in seconds).
+     */
+    public HydraPurePursuitCommand setLookahead(double minLookahead, double maxLookahead, double lookaheadGain) {
+        this.minLookahead = minLookahead;
+        this.maxLookahead = maxLookahead;
+        this.lookaheadGain = lookaheadGain;
+        return this;
+    }
+
+    /**
+     * Sets the drive power limits.
+     *
+     * @param maxPower         The translational power used away from the end of the path.
+     * @param minPower         The smallest translational power, enough to overcome friction.
+     * @param slowdownDistance The distance from the end of the path over which power ramps down.
+     */
+    public HydraPurePursuitCommand setPower(double maxPower, double minPower, double slowdownDistance) {
+        this.maxPower = maxPower;
+        this.minPower = minPower;
+        this.slowdownDistance = slowdownDistance;
+        return this;
+    }
+
+    /**
+     * Sets the proportional gain turning the robot towards the target heading.
+     *
+     * @param headingGain Rotational power per radian of heading error.
+     */
+    public HydraPurePursuitCommand setHeadingGain(double headingGain) {
+        this.headingGain = headingGain;
+        return this;
+    }
+
+    /**
+     * Sets how close to the end of the path the robot must get before the command finishes.
+     *
+     * @param positionTolerance The position tolerance.
+     * @param headingTolerance  The heading tolerance (in radians).
+     */
+    public HydraPurePursuitCommand setTolerance(double positionTolerance, double headingTolerance) {
+        this.positionTolerance = positionTolerance;
+        this.headingTolerance = headingTolerance;
+        return this;
+    }
+
+    /**
+     * Sets the trigonometry implementation, overriding the global {@link HydraTrig} default.
+     *
+     * @param trig The implementation, or null to use the global default.
+     */
+    public HydraPurePursuitCommand setTrig(HydraTrigFunctions trig) {
+        this.trig = trig;
+        return this;
+    }
+
+    @Override
+    public void initialize() {
+        segmentIndex = 0;
+        lookaheadIndex = 0;
+        remainingDistance = Double.POSITIVE_INFINITY;
+        headingError = Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    public void execute() {
+        HydraPose pose = drive.getPoseEstimate();
+        double x = pose.x;
+        double y = pose.y;
+        double heading = pose.heading;
+
+        // Find the robot's progress along the path
+        double progress = project(x, y);
+
+        // Lookahead grows with speed
+        double speed = 0.0;
+        HydraPose velocity = drive.getPoseVelocity();
+        if (velocity != null) {
+            speed = Math.hypot(velocity.x, velocity.y);
+        }
+        double lookahead = Math.min(maxLookahead, minLookahead + lookaheadGain * speed);
+        double length = path.getLength();
+        double target = Math.min(progress + lookahead, length);
+
+        // Advance the lookahead segment until it contains the target distance
+        if (lookaheadIndex < segmentIndex) {
+            lookaheadIndex = segmentIndex;
+        }
+        int last = path.size() - 2;
+        while (lookaheadIndex < last && path.getDistance(lookaheadIndex + 1) < target) {
+            lookaheadIndex++;
+        }
+        int i = lookaheadIndex;
+        double segmentLength = path.getSegmentLength(i);
+        double t = segmentLength == 0 ? 1.0 : Math.min(1.0, Math.max(0.0, (target - path.getDistance(i)) / segmentLength));
+        double targetX = path.getX(i) + (path.getX(i + 1) - path.getX(i)) * t;
+        double targetY = path.getY(i) + (path.getY(i + 1) - path.getY(i)) * t;
+        double targetHeading = path.getHeading(i) + HydraAngle.normDelta(path.getHeading(i + 1) - path.getHeading(i)) * t;
+
+        // Slow down towards the end of the path
+        double dx = targetX - x;
+        double dy = targetY - y;
+        double distance = Math.hypot(dx, dy);
+        remainingDistance = target >= length ? distance : length - progress;
+        headingError = HydraAngle.normDelta(targetHeading - heading);
+
+        double power = 0.0;
+        if (distance > 1e-9 && remainingDistance > positionTolerance) {
+            power = Math.max(minPower, maxPower * Math.min(1.0, remainingDistance / slowdownDistance));
+            power /= distance;
+        }
+
+        // Rotate the field-frame direction into the robot frame
+        HydraTrigFunctions trig = HydraTrig.resolve(this.trig);
+        double cos = trig.cos(heading);
+        double sin = trig.sin(heading);
+        drivePower.x = (cos * dx + sin * dy) * power;
+        drivePower.y = (-sin * dx + cos * dy) * power;
+        drivePower.heading = Math.max(-maxPower, Math.min(maxPower, headingGain * headingError));
+        drive.setDrivePower(drivePower);
+    }
+
+    // Projects the robot onto the path, searching forward from the last segment, and returns the distance along it
+    private double project(double x, double y) {
+        int last = path.size() - 2;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        double bestProgress = 0.0;
+        int bestIndex = segmentIndex;
+
+        int end = Math.min(last, segmentIndex + SEARCH_WINDOW);
+        for (int i = segmentIndex; i <= end; i++) {
+            double ax = path.getX(i);
+            double ay = path.getY(i);
+            double sx = path.getX(i + 1) - ax;
+            double sy = path.getY(i + 1) - ay;
+            double lengthSquared = sx * sx + sy * sy;
+            double t = lengthSquared == 0 ? 0.0 : ((x - ax) * sx + (y - ay) * sy) / lengthSquared;
+            t = Math.max(0.0, Math.min(1.0, t));
+            double px = ax + sx * t - x;
+            double py = ay + sy * t - y;
+            double distance = px * px + py * py;
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                bestIndex = i;
+                bestProgress = path.getDistance(i) + t * Math.sqrt(lengthSquared);
+            }
+        }
+
+        segmentIndex = bestIndex;
+        return bestProgress;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return remainingDistance <= positionTolerance && Math.abs(headingError) <= headingTolerance;
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        drivePower.x = 0.0;
+        drivePower.y = 0.0;
+        drivePower.heading = 0.0;
+        drive.setDrivePower(drivePower);
+    }
+}
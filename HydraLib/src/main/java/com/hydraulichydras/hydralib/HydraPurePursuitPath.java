@@ -0,0 +1,101 @@
+package com.hydraulichydras.hydralib;
+
+/**
+ * A polyline path for {@link HydraPurePursuitCommand}, stored in primitive arrays.
+ * <p>
+ * Each waypoint has a position and the heading the robot should face when it gets there. Cumulative distances are
+ * computed once on construction so that followers can move along the path by distance without re-measuring it.
+ */
+public class HydraPurePursuitPath {
+
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] headings;
+
+    // Distance along the path at each waypoint
+    private final double[] distances;
+
+    /**
+     * Constructs a new path. The arrays are copied.
+     *
+     * @param xs       The x position of each waypoint.
+     * @param ys       The y position of each waypoint.
+     * @param headings The target heading at each waypoint (in radians).
+     */
+    public HydraPurePursuitPath(double[] xs, double[] ys, double[] headings) {
+        if (xs.length < 2 || ys.length != xs.length || headings.length != xs.length) {
+            throw new IllegalArgumentException("A path needs at least two waypoints with matching x, y and heading arrays");
+        }
+        this.xs = xs.clone();
+        this.ys = ys.clone();
+        this.headings = headings.clone();
+        this.distances = new double[xs.length];
+        for (int i = 1; i < xs.length; i++) {
+            distances[i] = distances[i - 1] + Math.hypot(xs[i] - xs[i - 1], ys[i] - ys[i - 1]);
+        }
+    }
+
+    /**
+     * Constructs a new path through the given poses.
+     *
+     * @param waypoints The waypoints, each with the target heading at that point.
+     * @return The path.
+     */
+    public static HydraPurePursuitPath fromPoses(HydraPose... waypoints) {
+        double[] xs = new double[waypoints.length];
+        double[] ys = new double[waypoints.length];
+        double[] headings = new double[waypoints.length];
+        for (int i = 0; i < waypoints.length; i++) {
+            xs[i] = waypoints[i].x;
+            ys[i] = waypoints[i].y;
+            headings[i] = waypoints[i].heading;
+        }
+        return new HydraPurePursuitPath(xs, ys, headings);
+    }
+
+    /**
+     * Gets the number of waypoints.
+     */
+    public int size() {
+        return xs.length;
+    }
+
+    /**
+     * Gets the total length of the path.
+     */
+    public double getLength() {
+        return distances[distances.length - 1];
+    }
+
+    public double getX(int index) {
+        return xs[index];
+    }
+
+    public double getY(int index) {
+        return ys[index];
+    }
+
+    public double getHeading(int index) {
+        return headings[index];
+    }
+
+    /**
+     * Gets the distance along the path at a waypoint.
+     *
+     * @param index The waypoint index.
+     * @return The distance from the start of the path.
+     */
+    public double getDistance(int index) {
+        return distances[index];
+    }
+
+    /**
+     * Gets the length of the segment starting at a waypoint.
+     *
+     * @param index The index of the segment's first waypoint.
+     * @return The segment length.
+     */
+    public double getSegmentLength(int index) {
+        return distances[index + 1] - distances[index];
+    }
+}
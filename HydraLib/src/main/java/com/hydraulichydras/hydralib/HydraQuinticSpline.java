@@ -0,0 +1,90 @@
+package com.hydraulichydras.hydralib;
+
+/**
+ * A planar quintic Hermite spline segment, parameterized by t in [0, 1].
+ * <p>
+ * The segment matches position, first derivative and second derivative at both ends, so chained segments are
+ * continuous in curvature.
+ */
+public class HydraQuinticSpline {
+
+    private final HydraPolynomial x;
+    private final HydraPolynomial y;
+
+    // Derivatives with respect to t, computed once
+    private final HydraPolynomial dx;
+    private final HydraPolynomial dy;
+    private final HydraPolynomial d2x;
+    private final HydraPolynomial d2y;
+
+    /**
+     * Constructs a new spline segment from the Hermite end conditions.
+     *
+     * @param x0   Start x position, velocity and acceleration with respect to t.
+     * @param y0   Start y position, velocity and acceleration with respect to t.
+     * @param x1   End x position, velocity and acceleration with respect to t.
+     * @param y1   End y position, velocity and acceleration with respect to t.
+     */
+    public HydraQuinticSpline(double[] x0, double[] y0, double[] x1, double[] y1) {
+        this.x = hermite(x0[0], x0[1], x0[2], x1[0], x1[1], x1[2]);
+        this.y = hermite(y0[0], y0[1], y0[2], y1[0], y1[1], y1[2]);
+        this.dx = x.derivative();
+        this.dy = y.derivative();
+        this.d2x = dx.derivative();
+        this.d2y = dy.derivative();
+    }
+
+    // Quintic with the given value, first and second derivative at t = 0 and t = 1
+    private static HydraPolynomial hermite(double p0, double v0, double a0, double p1, double v1, double a1) {
+        return new HydraPolynomial(
+                p0,
+                v0,
+                a0 / 2.0,
+                -10.0 * p0 - 6.0 * v0 - 1.5 * a0 + 0.5 * a1 - 4.0 * v1 + 10.0 * p1,
+                15.0 * p0 + 8.0 * v0 + 1.5 * a0 - a1 + 7.0 * v1 - 15.0 * p1,
+                -6.0 * p0 - 3.0 * v0 - 0.5 * a0 + 0.5 * a1 - 3.0 * v1 + 6.0 * p1);
+    }
+
+    public double getX(double t) {
+        return x.calculate(t);
+    }
+
+    public double getY(double t) {
+        return y.calculate(t);
+    }
+
+    public double getDx(double t) {
+        return dx.calculate(t);
+    }
+
+    public double getDy(double t) {
+        return dy.calculate(t);
+    }
+
+    /**
+     * Gets the speed along the segment with respect to t.
+     */
+    public double getSpeed(double t) {
+        return Math.hypot(dx.calculate(t), dy.calculate(t));
+    }
+
+    /**
+     * Gets the direction of travel at t (in radians).
+     */
+    public double getTangentAngle(double t) {
+        return Math.atan2(dy.calculate(t), dx.calculate(t));
+    }
+
+    /**
+     * Gets the signed curvature at t (positive turning left).
+     */
+    public double getCurvature(double t) {
+        double vx = dx.calculate(t);
+        double vy = dy.calculate(t);
+        double speed = Math.hypot(vx, vy);
+        if (speed == 0.0) {
+            return 0.0;
+        }
+        return (vx * d2y.calculate(t) - vy * d2x.calculate(t)) / (speed * speed * speed);
+    }
+}
@@ -0,0 +1,211 @@
+package com.hydraulichydras.hydralib;
+
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Command that auto-tunes a mechanism with an Astrom-Hagglund relay experiment.
+ * <p>
+ * Instead of a controller, a relay drives the mechanism: the output is bias + amplitude while the measurement is
+ * below the setpoint and bias - amplitude while it is above, with hysteresis to reject noise. This settles into a
+ * steady oscillation whose period is the ultimate period Tu, and whose amplitude a gives the ultimate gain
+ * Ku = 4 * amplitude / (PI * sqrt(a^2 - hysteresis^2)). The first cycles are discarded while the oscillation settles,
+ * then Ku and Tu are averaged over the remaining cycles and turned into gains with a {@link HydraTuningRule}.
+ * <p>
+ * Time is read from {@link HydraClock}, so the same command runs on the robot or against a
+ * {@link HydraSimulatedPlant} through {@link HydraSimulation} at accelerated virtual time.
+ */
+public class HydraRelayTuneCommand extends HydraCommandFoundation {
+
+    private final DoubleSupplier measurement;
+    private final DoubleConsumer output;
+    private final double setpoint;
+    private final double amplitude;
+
+    // Relay configuration
+    private double bias = 0.0;
+    private double hysteresis = 0.0;
+    private int settleCycles = 2;
+    private int measureCycles = 4;
+    private double timeout = 15.0;
+
+    // Relay state
+    private boolean high;
+    private long startTime;
+    private long lastRiseTime;
+    private boolean risen;
+    private double cycleMax;
+    private double cycleMin;
+    private int cycles;
+
+    // Sums over the measured cycles
+    private double periodSum;
+    private double amplitudeSum;
+    private int measured;
+
+    /**
+     * Constructs a new HydraRelayTuneCommand.
+     *
+     * @param subsystem   The mechanism being tuned.
+     * @param measurement The measured position or velocity.
+     * @param output      Receives the relay output, such as a motor power.
+     * @param setpoint    The value to oscillate around.
+     * @param amplitude   The relay amplitude added to and subtracted from the bias.
+     */
+    public HydraRelayTuneCommand(HydraSubsystem subsystem, DoubleSupplier measurement, DoubleConsumer output,
+                                 double setpoint, double amplitude) {
+        if (!(amplitude > 0)) {
+            throw new IllegalArgumentException("Relay amplitude must be positive");
+        }
+        this.measurement = measurement;
+        this.output = output;
+        this.setpoint = setpoint;
+        this.amplitude = amplitude;
+        addRequirements(subsystem);
+    }
+
+    /**
+     * Sets the output the relay switches around, for example to hold up an arm against gravity.
+     *
+     * @param bias The bias output.
+     */
+    public HydraRelayTuneCommand setBias(double bias) {
+        this.bias = bias;
+        return this;
+    }
+
+    /**
+     * Sets how far past the setpoint the measurement must go before the relay switches.
+     *
+     * @param hysteresis The hysteresis, in measurement units. Should exceed the sensor noise.
+     */
+    public HydraRelayTuneCommand setHysteresis(double hysteresis) {
+        this.hysteresis = hysteresis;
+        return this;
+    }
+
+    /**
+     * Sets how many oscillation cycles are discarded and then measured.
+     *
+     * @param settleCycles  The cycles discarded while the oscillation settles.
+     * @param measureCycles The cycles averaged into the result.
+     */
+    public HydraRelayTuneCommand setCycles(int settleCycles, int measureCycles) {
+        if (settleCycles < 0 || measureCycles < 1) {
+            throw new IllegalArgumentException("At least one cycle must be measured");
+        }
+        this.settleCycles = settleCycles;
+        this.measureCycles = measureCycles;
+        return this;
+    }
+
+    /**
+     * Sets the longest the experiment may run before giving up.
+     *
+     * @param seconds The timeout (in seconds).
+     */
+    public HydraRelayTuneCommand setTimeout(double seconds) {
+        this.timeout = seconds;
+        return this;
+    }
+
+    @Override
+    public void initialize() {
+        startTime = HydraClock.nanoTime();
+        high = measurement.getAsDouble() < setpoint;
+        risen = false;
+        cycles = 0;
+        measured = 0;
+        periodSum = 0.0;
+        amplitudeSum = 0.0;
+        cycleMax = Double.NEGATIVE_INFINITY;
+        cycleMin = Double.POSITIVE_INFINITY;
+        output.accept(high ? bias + amplitude : bias - amplitude);
+    }
+
+    @Override
+    public void execute() {
+        double value = measurement.getAsDouble();
+        cycleMax = Math.max(cycleMax, value);
+        cycleMin = Math.min(cycleMin, value);
+
+        if (high && value > setpoint + hysteresis) {
+            high = false;
+        } else if (!high && value < setpoint - hysteresis) {
+            // Switching high starts a new cycle
+            high = true;
+            long now = HydraClock.nanoTime();
+            if (risen) {
+                cycles++;
+                if (cycles > settleCycles) {
+                    periodSum += (now - lastRiseTime) * 1e-9;
+                    amplitudeSum += (cycleMax - cycleMin) / 2.0;
+                    measured++;
+                }
+            }
+            risen = true;
+            lastRiseTime = now;
+            cycleMax = value;
+            cycleMin = value;
+        }
+
+        output.accept(high ? bias + amplitude : bias - amplitude);
+    }
+
+    @Override
+    public boolean isFinished() {
+        return measured >= measureCycles || (HydraClock.nanoTime() - startTime) * 1e-9 >= timeout;
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        output.accept(bias);
+    }
+
+    /**
+     * Checks whether enough cycles were measured to compute a result.
+     */
+    public boolean isSuccessful() {
+        double oscillation = getOscillationAmplitude();
+        return measured >= measureCycles && oscillation > hysteresis;
+    }
+
+    /**
+     * Gets the average oscillation amplitude of the measured cycles, in measurement units.
+     */
+    public double getOscillationAmplitude() {
+        return measured == 0 ? 0.0 : amplitudeSum / measured;
+    }
+
+    /**
+     * Gets the ultimate gain Ku, or NaN if the experiment did not succeed.
+     */
+    public double getUltimateGain() {
+        if (!isSuccessful()) {
+            return Double.NaN;
+        }
+        double oscillation = getOscillationAmplitude();
+        return 4.0 * amplitude / (Math.PI * Math.sqrt(oscillation * oscillation - hysteresis * hysteresis));
+    }
+
+    /**
+     * Gets the ultimate period Tu (in seconds), or NaN if the experiment did not succeed.
+     */
+    public double getUltimatePeriod() {
+        return isSuccessful() ? periodSum / measured : Double.NaN;
+    }
+
+    /**
+     * Proposes gains from the measured ultimate gain and period.
+     *
+     * @param rule The tuning rule.
+     * @return The proposed gains.
+     * @throws IllegalStateException If the experiment did not succeed.
+     */
+    public HydraPIDCoefficients getCoefficients(HydraTuningRule rule) {
+        if (!isSuccessful()) {
+            throw new IllegalStateException("Relay experiment has not produced a steady oscillation");
+        }
+        return rule.apply(getUltimateGain(), getUltimatePeriod());
+    }
+}
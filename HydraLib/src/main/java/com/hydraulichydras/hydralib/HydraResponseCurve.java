@@ -0,0 +1,37 @@
+package com.hydraulichydras.hydralib;
+
+/**
+ * Enumeration representing response curves that map a stick deflection in [0, 1] to an output in [0, 1].
+ * Each curve passes through 0 and 1, so full deflection always gives full output.
+ */
+public enum HydraResponseCurve {
+    /** Output equals the input. */
+    LINEAR,
+
+    /** Blend of linear and cubic, (1 - a) * x + a * x^3, with the parameter a in [0, 1]. */
+    CUBIC,
+
+    /** Exponential, (e^(a * x) - 1) / (e^a - 1), with the parameter a > 0 for more low-speed precision. */
+    EXPONENTIAL;
+
+    /**
+     * Evaluates the curve.
+     *
+     * @param x         The deflection in [0, 1].
+     * @param parameter The curve parameter.
+     * @return The output in [0, 1].
+     */
+    public double apply(double x, double parameter) {
+        switch (this) {
+            case CUBIC:
+                return (1.0 - parameter) * x + parameter * x * x * x;
+            case EXPONENTIAL:
+                if (parameter == 0.0) {
+                    return x;
+                }
+                return Math.expm1(parameter * x) / Math.expm1(parameter);
+            default:
+                return x;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.hydraulichydras.hydralib;
+
+/**
+ * A pool of reusable poses and vectors for hot loops.
+ * <p>
+ * Objects are handed out in order and all become available again on {@link #reset()}, which should be called
+ * once at the start of every loop. Pair the pool with the destination-parameter methods of
+ * {@link HydraPose} and {@link HydraVector2d} to write control code that never allocates.
+ * <p>
+ * A pool must only be used from one thread, and objects taken from it must not be kept across a reset.
+ */
+public class HydraScratchPool {
+
+    private final HydraPose[] poses;
+    private final HydraVector2d[] vectors;
+
+    // Number of objects handed out since the last reset
+    private int posesUsed;
+    private int vectorsUsed;
+
+    /**
+     * Constructs a new HydraScratchPool with 16 poses and 16 vectors.
+     */
+    public HydraScratchPool() {
+        this(16, 16);
+    }
+
+    /**
+     * Constructs a new HydraScratchPool.
+     *
+     * @param poseCapacity   The number of poses available between resets.
+     * @param vectorCapacity The number of vectors available between resets.
+     */
+    public HydraScratchPool(int poseCapacity, int vectorCapacity) {
+        poses = new HydraPose[poseCapacity];
+        vectors = new HydraVector2d[vectorCapacity];
+        for (int i = 0; i < poseCapacity; i++) {
+            poses[i] = new HydraPose();
+        }
+        for (int i = 0; i < vectorCapacity; i++) {
+            vectors[i] = new HydraVector2d();
+        }
+    }
+
+    /**
+     * Takes a pose from the pool, set to the origin.
+     *
+     * @return A scratch pose, valid until the next reset.
+     * @throws IllegalStateException if every pose has been handed out since the last reset.
+     */
+    public HydraPose pose() {
+        if (posesUsed == poses.length) {
+            throw new IllegalStateException("Scratch pool is out of poses, call reset() every loop or raise the capacity");
+        }
+        return poses[posesUsed++].set(0.0, 0.0, 0.0);
+    }
+
+    /**
+     * Takes a vector from the pool, set to zero.
+     *
+     * @return A scratch vector, valid until the next reset.
+     * @throws IllegalStateException if every vector has been handed out since the last reset.
+     */
+    public HydraVector2d vector() {
+        if (vectorsUsed == vectors.length) {
+            throw new IllegalStateException("Scratch pool is out of vectors, call reset() every loop or raise the capacity");
+        }
+        return vectors[vectorsUsed++].set(0.0, 0.0);
+    }
+
+    /**
+     * Makes every object in the pool available again.
+     */
+    public void reset() {
+        posesUsed = 0;
+        vectorsUsed = 0;
+    }
+}
@@ -0,0 +1,33 @@
+package com.hydraulichydras.hydralib;
+
+/**
+ * A simulated mechanism that can stand in for hardware when running commands offline.
+ */
+public interface HydraSimulatedPlant {
+
+    /**
+     * Sets the input applied to the plant, such as a motor power.
+     *
+     * @param input The input.
+     */
+    void setInput(double input);
+
+    /**
+     * Gets the value a sensor on the plant would read.
+     *
+     * @return The measurement.
+     */
+    double getMeasurement();
+
+    /**
+     * Advances the plant's state.
+     *
+     * @param dt The time to advance by (in seconds).
+     */
+    void step(double dt);
+
+    /**
+     * Returns the plant to its initial state.
+     */
+    void reset();
+}
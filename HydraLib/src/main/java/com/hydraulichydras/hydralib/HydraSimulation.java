@@ -0,0 +1,98 @@
+package com.hydraulichydras.hydralib;
+
+/**
+ * Runs a command against a {@link HydraSimulatedPlant}, or a recorded teleop, at accelerated virtual time.
+ * <p>
+ * A {@link HydraVirtualClock} is installed for the duration of the run, and each loop steps the plant and the clock
+ * by the loop period before executing the command, so the command sees the same timing it would on the robot while
+ * the simulation runs as fast as the CPU allows.
+ */
+public final class HydraSimulation {
+
+    // Private constructor to prevent instantiation
+    private HydraSimulation() {
+    }
+
+    /**
+     * Runs a command until it finishes or the timeout passes. The command should read from and write to the plant.
+     *
+     * @param command The command to run.
+     * @param plant   The simulated mechanism.
+     * @param dt      The simulated loop period (in seconds).
+     * @param timeout The longest simulated time to run for (in seconds).
+     * @return The simulated time the command ran for (in seconds).
+     */
+    public static double run(HydraCommand command, HydraSimulatedPlant plant, double dt, double timeout) {
+        if (!(dt > 0)) {
+            throw new IllegalArgumentException("Loop period must be positive");
+        }
+
+        HydraVirtualClock clock = new HydraVirtualClock();
+        clock.install();
+        try {
+            double time = 0.0;
+            command.initialize();
+            boolean finished = false;
+            while (time < timeout) {
+                plant.step(dt);
+                clock.advance(dt);
+                time += dt;
+
+                command.execute();
+                if (command.isFinished()) {
+                    finished = true;
+                    break;
+                }
+            }
+            command.end(!finished);
+            return time;
+        } finally {
+            clock.uninstall();
+        }
+    }
+
+    /**
+     * Re-runs a recorded teleop. Each loop starts a new {@link HydraLoopCache} loop, runs the loop body and then the
+     * {@link HydraCommandMachine}, as {@link HydraCommandOpMode} does, then advances the clock. The replay steps at
+     * most one frame per loop, so bindings on a {@link HydraPSController} reading it see every recorded press and
+     * release and schedule commands in the same order as while recording. With a loop period longer than the
+     * recording's, the replay falls behind the recorded timing and runs more loops than the recording had.
+     *
+     * @param replay The recording, read by the controllers the bindings are on.
+     * @param dt     The simulated loop period (in seconds).
+     * @param loop   Code to run each loop before the command machine, such as driver control; may be null.
+     * @return The simulated time the replay ran for (in seconds).
+     */
+    public static double replay(HydraGamepadReplay replay, double dt, Runnable loop) {
+        if (!(dt > 0)) {
+            throw new IllegalArgumentException("Loop period must be positive");
+        }
+
+        HydraVirtualClock clock = new HydraVirtualClock();
+        clock.install();
+        try {
+            HydraLoopCache cache = HydraLoopCache.getInstance();
+            HydraCommandMachine machine = HydraCommandMachine.getInstance();
+            HydraGamepadSnapshot frame = new HydraGamepadSnapshot();
+            double time = 0.0;
+            replay.start();
+            while (true) {
+                cache.update();
+                if (loop != null) {
+                    loop.run();
+                }
+                machine.run();
+
+                // Steps the replay even if nothing read it this loop; the first loop sees the first frame
+                replay.read(frame);
+                if (replay.isFinished()) {
+                    return time;
+                }
+                clock.advance(dt);
+                time += dt;
+            }
+        } finally {
+            clock.uninstall();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.hydraulichydras.hydralib;
+
+/**
+ * A path through a list of waypoints made of {@link HydraQuinticSpline} segments, sampled by distance along the path.
+ * <p>
+ * An arc-length table mapping distance to spline parameter is built once on construction, so lookups by distance
+ * are a binary search and a polynomial evaluation with no numerical integration at runtime.
+ */
+public class HydraSplinePath {
+
+    // Arc-length table resolution
+    private static final int SAMPLES_PER_SEGMENT = 64;
+
+    // 3-point Gauss-Legendre quadrature nodes and weights on [-1, 1]
+    private static final double GAUSS_NODE = Math.sqrt(0.6);
+    private static final double GAUSS_OUTER_WEIGHT = 5.0 / 9.0;
+    private static final double GAUSS_CENTER_WEIGHT = 8.0 / 9.0;
+
+    private final HydraQuinticSpline[] segments;
+
+    // Distance along the path and the matching spline parameter (segment index + local t) at each table entry
+    private final double[] distances;
+    private final double[] parameters;
+
+    /**
+     * Constructs a new path through the given waypoints.
+     *
+     * @param waypoints The waypoints. Each heading is the direction of travel through that waypoint.
+     */
+    public HydraSplinePath(HydraPose... waypoints) {
+        if (waypoints.length < 2) {
+            throw new IllegalArgumentException("A spline path needs at least two waypoints");
+        }
+
+        segments = new HydraQuinticSpline[waypoints.length - 1];
+        for (int i = 0; i < segments.length; i++) {
+            HydraPose start = waypoints[i];
+            HydraPose end = waypoints[i + 1];
+
+            // Tangents scaled by the chord length keep the parameterization close to uniform speed
+            double chord = Math.hypot(end.x - start.x, end.y - start.y);
+            segments[i] = new HydraQuinticSpline(
+                    new double[] {start.x, chord * Math.cos(start.heading), 0.0},
+                    new double[] {start.y, chord * Math.sin(start.heading), 0.0},
+                    new double[] {end.x, chord * Math.cos(end.heading), 0.0},
+                    new double[] {end.y, chord * Math.sin(end.heading), 0.0});
+        }
+
+        int size = segments.length * SAMPLES_PER_SEGMENT + 1;
+        distances = new double[size];
+        parameters = new double[size];
+        double step = 1.0 / SAMPLES_PER_SEGMENT;
+        for (int i = 0; i < segments.length; i++) {
+            HydraQuinticSpline segment = segments[i];
+            for (int j = 0; j < SAMPLES_PER_SEGMENT; j++) {
+                int k = i * SAMPLES_PER_SEGMENT + j;
+                double center = (j + 0.5) * step;
+                double halfWidth = step / 2.0;
+                double length = halfWidth * (GAUSS_OUTER_WEIGHT * segment.getSpeed(center - GAUSS_NODE * halfWidth)
+                        + GAUSS_CENTER_WEIGHT * segment.getSpeed(center)
+                        + GAUSS_OUTER_WEIGHT * segment.getSpeed(center + GAUSS_NODE * halfWidth));
+                distances[k + 1] = distances[k] + length;
+                parameters[k + 1] = i + (j + 1) * step;
+            }
+        }
+    }
+
+    /**
+     * Gets the total length of the path.
+     */
+    public double getLength() {
+        return distances[distances.length - 1];
+    }
+
+    /**
+     * Gets the number of spline segments.
+     */
+    public int getSegmentCount() {
+        return segments.length;
+    }
+
+    /**
+     * Gets the pose on the path at a distance from the start, facing the direction of travel.
+     *
+     * @param s   The distance along the path. Clamped to the path.
+     * @param out The pose to write the result into.
+     * @return The out pose.
+     */
+    public HydraPose get(double s, HydraPose out) {
+        double parameter = getParameter(s);
+        int i = segmentIndex(parameter);
+        HydraQuinticSpline segment = segments[i];
+        double t = parameter - i;
+        return out.set(segment.getX(t), segment.getY(t), segment.getTangentAngle(t));
+    }
+
+    /**
+     * Gets the direction of travel at a distance from the start (in radians).
+     *
+     * @param s The distance along the path. Clamped to the path.
+     */
+    public double getHeading(double s) {
+        double parameter = getParameter(s);
+        int i = segmentIndex(parameter);
+        return segments[i].getTangentAngle(parameter - i);
+    }
+
+    /**
+     * Gets the signed curvature at a distance from the start (positive turning left).
+     *
+     * @param s The distance along the path. Clamped to the path.
+     */
+    public double getCurvature(double s) {
+        double parameter = getParameter(s);
+        int i = segmentIndex(parameter);
+        return segments[i].getCurvature(parameter - i);
+    }
+
+    /**
+     * Maps a distance along the path to the spline parameter (segment index + local t) using the arc-length table.
+     *
+     * @param s The distance along the path. Clamped to the path.
+     * @return The spline parameter.
+     */
+    public double getParameter(double s) {
+        if (s <= 0.0) {
+            return 0.0;
+        }
+        if (s >= getLength()) {
+            return segments.length;
+        }
+
+        // Last table entry at or before s
+        int low = 0;
+        int high = distances.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (distances[mid] <= s) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        double span = distances[low + 1] - distances[low];
+        double fraction = span == 0.0 ? 0.0 : (s - distances[low]) / span;
+        return parameters[low] + (parameters[low + 1] - parameters[low]) * fraction;
+    }
+
+    // Segment containing a spline parameter, with the end of the path belonging to the last segment
+    private int segmentIndex(double parameter) {
+        return Math.min((int) parameter, segments.length - 1);
+    }
+}
@@ -0,0 +1,100 @@
+package com.hydraulichydras.hydralib;
+
+/**
+ * Localizer using two parallel and one perpendicular odometry pod.
+ * <p>
+ * Pod offsets are measured from the robot's center of rotation, with positive x pointing forward and
+ * positive y pointing left. The parallel pods measure forward travel, the perpendicular pod measures lateral travel.
+ */
+public class HydraThreeWheelLocalizer extends HydraDeadWheelLocalizer {
+
+    private final HydraEncoder leftEncoder;
+    private final HydraEncoder rightEncoder;
+    private final HydraEncoder perpendicularEncoder;
+
+    // Lateral offsets of the parallel pods
+    private double leftY;
+    private double rightY;
+
+    // Forward offset of the perpendicular pod
+    private double perpendicularX;
+
+    // Encoder positions at the last update
+    private int lastLeft, lastRight, lastPerpendicular;
+
+    /**
+     * Constructs a new HydraThreeWheelLocalizer.
+     *
+     * @param leftEncoder          The left parallel pod.
+     * @param rightEncoder         The right parallel pod.
+     * @param perpendicularEncoder The perpendicular pod.
+     * @param leftY                Lateral offset of the left pod (positive = left).
+     * @param rightY               Lateral offset of the right pod (positive = left).
+     * @param perpendicularX       Forward offset of the perpendicular pod (positive = forward).
+     */
+    public HydraThreeWheelLocalizer(HydraEncoder leftEncoder, HydraEncoder rightEncoder, HydraEncoder perpendicularEncoder,
+                                    double leftY, double rightY, double perpendicularX) {
+        this.leftEncoder = leftEncoder;
+        this.rightEncoder = rightEncoder;
+        this.perpendicularEncoder = perpendicularEncoder;
+        setPodOffsets(leftY, rightY, perpendicularX);
+    }
+
+    /**
+     * Sets the offsets of the odometry pods from the center of rotation.
+     *
+     * @param leftY          Lateral offset of the left pod (positive = left).
+     * @param rightY         Lateral offset of the right pod (positive = left).
+     * @param perpendicularX Forward offset of the perpendicular pod (positive = forward).
+     */
+    public void setPodOffsets(double leftY, double rightY, double perpendicularX) {
+        if (leftY == rightY) {
+            throw new IllegalArgumentException("Parallel pods must have different lateral offsets");
+        }
+        this.leftY = leftY;
+        this.rightY = rightY;
+        this.perpendicularX = perpendicularX;
+    }
+
+    /**
+     * Reads the pods and updates the pose estimate.
+     */
+    @Override
+    public void update() {
+        update(leftEncoder.getCurrentPosition(), rightEncoder.getCurrentPosition(), perpendicularEncoder.getCurrentPosition());
+    }
+
+    /**
+     * Updates the pose estimate from already-read encoder positions.
+     *
+     * @param leftTicks          Position of the left parallel pod.
+     * @param rightTicks         Position of the right parallel pod.
+     * @param perpendicularTicks Position of the perpendicular pod.
+     */
+    public void update(int leftTicks, int rightTicks, int perpendicularTicks) {
+        if (!initialized) {
+            lastLeft = leftTicks;
+            lastRight = rightTicks;
+            lastPerpendicular = perpendicularTicks;
+            initialized = true;
+            integrate(0, 0, 0);
+            return;
+        }
+
+        double dLeft = ticksToDistance(leftTicks - lastLeft);
+        double dRight = ticksToDistance(rightTicks - lastRight);
+        double dPerpendicular = ticksToDistance(perpendicularTicks - lastPerpendicular);
+
+        lastLeft = leftTicks;
+        lastRight = rightTicks;
+        lastPerpendicular = perpendicularTicks;
+
+        // A parallel pod at lateral offset y measures dx - y * dHeading
+        double dHeading = (dRight - dLeft) / (leftY - rightY);
+        double dx = (leftY * dRight - rightY * dLeft) / (leftY - rightY);
+        // The perpendicular pod at forward offset x measures dy + x * dHeading
+        double dy = dPerpendicular - perpendicularX * dHeading;
+
+        integrate(dx, dy, dHeading);
+    }
+}
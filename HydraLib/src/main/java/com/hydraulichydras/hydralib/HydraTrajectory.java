@@ -0,0 +1,122 @@
+package com.hydraulichydras.hydralib;
+
+import java.nio.DoubleBuffer;
+
+/**
+ * A time-indexed trajectory table produced by {@link HydraTrajectoryGenerator}.
+ * <p>
+ * Samples are spaced evenly in time, so followers look them up by index with no searching or interpolation at
+ * runtime. Each sample holds the field-frame target pose and the robot-frame velocity and acceleration as a
+ * {@link HydraDriveSignal}, ready for {@link HydraDrive#setDriveSignal(HydraDriveSignal)}.
+ * <p>
+ * Samples are packed into a single {@link DoubleBuffer}, {@link #SAMPLE_SIZE} values each, which can be backed by
+ * an array or by a memory-mapped file loaded through {@link HydraTrajectoryCache}.
+ */
+public class HydraTrajectory {
+
+    /** Number of values stored per sample: pose, velocity and acceleration, each as x, y and heading. */
+    public static final int SAMPLE_SIZE = 9;
+
+    // Offsets of each part of a sample
+    private static final int POSE = 0;
+    private static final int VELOCITY = 3;
+    private static final int ACCELERATION = 6;
+
+    private final double dt;
+    private final DoubleBuffer samples;
+    private final int size;
+
+    /**
+     * Constructs a new trajectory from packed samples.
+     *
+     * @param dt      The time between samples (in seconds).
+     * @param samples The samples, {@link #SAMPLE_SIZE} values each, starting at index 0 of the buffer.
+     */
+    public HydraTrajectory(double dt, DoubleBuffer samples) {
+        if (!(dt > 0)) {
+            throw new IllegalArgumentException("Sample period must be positive");
+        }
+        if (samples.capacity() == 0 || samples.capacity() % SAMPLE_SIZE != 0) {
+            throw new IllegalArgumentException("Trajectory samples must hold a whole, non-zero number of samples");
+        }
+        this.dt = dt;
+        this.samples = samples;
+        this.size = samples.capacity() / SAMPLE_SIZE;
+    }
+
+    /**
+     * Gets the number of samples.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the time between samples (in seconds).
+     */
+    public double getDt() {
+        return dt;
+    }
+
+    /**
+     * Gets the duration of the trajectory (in seconds).
+     */
+    public double getDuration() {
+        return (size - 1) * dt;
+    }
+
+    /**
+     * Gets the index of the sample nearest to a time, clamped to the trajectory.
+     *
+     * @param t Time since the start of the trajectory (in seconds).
+     * @return The sample index.
+     */
+    public int getIndex(double t) {
+        if (t <= 0.0) {
+            return 0;
+        }
+        return (int) Math.min(size - 1, Math.round(t / dt));
+    }
+
+    /**
+     * Gets the field-frame target pose of a sample.
+     *
+     * @param index The sample index.
+     * @param out   The pose to write the result into.
+     * @return The out pose.
+     */
+    public HydraPose getPose(int index, HydraPose out) {
+        int offset = index * SAMPLE_SIZE + POSE;
+        out.x = samples.get(offset);
+        out.y = samples.get(offset + 1);
+        out.heading = samples.get(offset + 2);
+        return out;
+    }
+
+    /**
+     * Gets the robot-frame target velocity and acceleration of a sample.
+     *
+     * @param index The sample index.
+     * @param out   The signal to write the result into.
+     * @return The out signal.
+     */
+    public HydraDriveSignal getDriveSignal(int index, HydraDriveSignal out) {
+        int offset = index * SAMPLE_SIZE;
+        HydraPose vel = out.getVel();
+        vel.x = samples.get(offset + VELOCITY);
+        vel.y = samples.get(offset + VELOCITY + 1);
+        vel.heading = samples.get(offset + VELOCITY + 2);
+        HydraPose accel = out.getAccel();
+        accel.x = samples.get(offset + ACCELERATION);
+        accel.y = samples.get(offset + ACCELERATION + 1);
+        accel.heading = samples.get(offset + ACCELERATION + 2);
+        return out;
+    }
+
+    /**
+     * Gets the packed sample buffer. The buffer is shared, not copied.
+     */
+    public DoubleBuffer getSamples() {
+        return samples.duplicate();
+    }
+}
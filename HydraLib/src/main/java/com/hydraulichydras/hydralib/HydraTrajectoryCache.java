@@ -0,0 +1,241 @@
+package com.hydraulichydras.hydralib;
+
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Persists generated {@link HydraTrajectory}s to the robot controller's storage so later inits can skip generation.
+ * <p>
+ * Each trajectory is stored in its own file as a small header followed by the packed sample table. The header holds
+ * a 64-bit FNV-1a hash of the waypoints, constraints and generation settings; on load the file is memory-mapped and
+ * used directly as the trajectory's sample buffer, with no parsing. If the file is missing, damaged or its hash no
+ * longer matches, the trajectory is regenerated and the file rewritten.
+ * <p>
+ * Storage errors never fail the OpMode: the freshly generated trajectory is returned, the cache is skipped and the
+ * error is available from {@link #getError()}.
+ */
+public class HydraTrajectoryCache {
+
+    // File layout: magic, version, hash, dt, sample count, padding; then the samples, all little-endian
+    private static final int MAGIC = 0x4854524A; // "HTRJ"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final String EXTENSION = ".traj";
+
+    // 64-bit FNV-1a parameters
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final File directory;
+    private IOException error;
+
+    /**
+     * Constructs a new cache in the default folder.
+     */
+    public HydraTrajectoryCache() {
+        this(defaultDirectory());
+    }
+
+    /**
+     * Constructs a new cache.
+     *
+     * @param directory The folder holding the cached trajectory files.
+     */
+    public HydraTrajectoryCache(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Gets the default folder for cached trajectories, on the robot controller's storage.
+     * <p>
+     * Only resolved when called, so caches in other folders also work off the robot, such as in unit tests.
+     *
+     * @return The folder.
+     */
+    public static File defaultDirectory() {
+        return new File(AppUtil.FIRST_FOLDER, "hydralib/trajectories");
+    }
+
+    /**
+     * Loads a trajectory with the default generation settings, generating and storing it if needed.
+     *
+     * @param name        A unique file-safe name for the trajectory.
+     * @param constraints The drivetrain limits.
+     * @param waypoints   The spline path waypoints.
+     * @return The trajectory.
+     */
+    public HydraTrajectory get(String name, HydraDriveConstraints constraints, HydraPose... waypoints) {
+        return get(name, constraints, HydraTrajectoryGenerator.DEFAULT_RESOLUTION, HydraTrajectoryGenerator.DEFAULT_DT, waypoints);
+    }
+
+    /**
+     * Loads a trajectory, generating and storing it if needed.
+     *
+     * @param name        A unique file-safe name for the trajectory.
+     * @param constraints The drivetrain limits.
+     * @param resolution  The distance between grid points used for the speed passes.
+     * @param dt          The time between trajectory samples (in seconds).
+     * @param waypoints   The spline path waypoints.
+     * @return The trajectory.
+     */
+    public HydraTrajectory get(String name, HydraDriveConstraints constraints, double resolution, double dt,
+                               HydraPose... waypoints) {
+        long hash = hash(constraints, resolution, dt, waypoints);
+        File file = new File(directory, name + EXTENSION);
+
+        HydraTrajectory trajectory = load(file, hash);
+        if (trajectory != null) {
+            return trajectory;
+        }
+
+        trajectory = HydraTrajectoryGenerator.generate(new HydraSplinePath(waypoints), constraints, resolution, dt);
+        try {
+            save(file, hash, trajectory);
+        } catch (IOException e) {
+            // The trajectory is still usable; it will be regenerated next time
+            error = e;
+        }
+        return trajectory;
+    }
+
+    /**
+     * Gets the error from the most recent failed attempt to store a trajectory.
+     *
+     * @return The error, or null if every trajectory was stored.
+     */
+    public IOException getError() {
+        return error;
+    }
+
+    /**
+     * Deletes all cached trajectory files.
+     */
+    public void clear() {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.getName().endsWith(EXTENSION)) {
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * Computes the cache key for a trajectory: a 64-bit FNV-1a hash of everything that affects generation.
+     *
+     * @param constraints The drivetrain limits.
+     * @param resolution  The distance between grid points used for the speed passes.
+     * @param dt          The time between trajectory samples (in seconds).
+     * @param waypoints   The spline path waypoints.
+     * @return The hash.
+     */
+    public static long hash(HydraDriveConstraints constraints, double resolution, double dt, HydraPose... waypoints) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = hash(hash, VERSION);
+        hash = hash(hash, HydraTrajectoryGenerator.VERSION);
+        hash = hash(hash, constraints.maxWheelVelocity);
+        hash = hash(hash, constraints.maxWheelAcceleration);
+        hash = hash(hash, constraints.maxCentripetalAcceleration);
+        hash = hash(hash, constraints.trackWidth);
+        hash = hash(hash, constraints.wheelBase);
+        hash = hash(hash, resolution);
+        hash = hash(hash, dt);
+        hash = hash(hash, waypoints.length);
+        for (HydraPose waypoint : waypoints) {
+            hash = hash(hash, waypoint.x);
+            hash = hash(hash, waypoint.y);
+            hash = hash(hash, waypoint.heading);
+        }
+        return hash;
+    }
+
+    // Folds the bytes of a double into the hash
+    private static long hash(long hash, double value) {
+        return hash(hash, Double.doubleToLongBits(value));
+    }
+
+    // Folds the bytes of a long into the hash, low byte first
+    private static long hash(long hash, long value) {
+        for (int i = 0; i < 8; i++) {
+            hash ^= (value >>> (i * 8)) & 0xFF;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    // Maps a cached trajectory file, or returns null if it is missing, damaged or stale
+    private static HydraTrajectory load(File file, long hash) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try (RandomAccessFile input = new RandomAccessFile(file, "r")) {
+            FileChannel channel = input.getChannel();
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                return null;
+            }
+
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getLong(8) != hash) {
+                return null;
+            }
+            double dt = buffer.getDouble(16);
+            int count = buffer.getInt(24);
+            if (count <= 0 || size != HEADER_SIZE + (long) count * HydraTrajectory.SAMPLE_SIZE * 8) {
+                return null;
+            }
+
+            buffer.position(HEADER_SIZE);
+            ByteBuffer samples = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+            return new HydraTrajectory(dt, samples.asDoubleBuffer());
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // Writes a trajectory to a temporary file, then renames it into place so a partial write is never loaded
+    private void save(File file, long hash, HydraTrajectory trajectory) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create " + directory);
+        }
+
+        int values = trajectory.size() * HydraTrajectory.SAMPLE_SIZE;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + values * 8).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putLong(hash);
+        buffer.putDouble(trajectory.getDt());
+        buffer.putInt(trajectory.size());
+        buffer.putInt(0);
+        buffer.asDoubleBuffer().put(trajectory.getSamples());
+        buffer.rewind();
+
+        File temporary = new File(directory, file.getName() + ".tmp");
+        try (FileOutputStream output = new FileOutputStream(temporary)) {
+            FileChannel channel = output.getChannel();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        if (!temporary.renameTo(file)) {
+            file.delete();
+            if (!temporary.renameTo(file)) {
+                temporary.delete();
+                throw new IOException("Could not write " + file);
+            }
+        }
+    }
+}
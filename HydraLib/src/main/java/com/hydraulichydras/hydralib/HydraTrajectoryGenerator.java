@@ -0,0 +1,136 @@
+package com.hydraulichydras.hydralib;
+
+import java.nio.DoubleBuffer;
+
+/**
+ * Generates time-optimal {@link HydraTrajectory}s along a {@link HydraSplinePath} for a mecanum drivetrain.
+ * <p>
+ * The path is sampled on a fine distance grid and the speed limit at each point is taken from the wheel velocity
+ * limit (shared between translation and the rotation needed to follow the curve) and the centripetal limit. A forward
+ * pass then limits how quickly the robot can speed up and a backward pass how late it can slow down, giving the
+ * fastest speed profile that starts and ends at rest. The result is resampled at a fixed period for lookup by index.
+ * <p>
+ * The robot faces the direction of travel along the path.
+ */
+public final class HydraTrajectoryGenerator {
+
+    /** Version of the generated output, raised whenever generation changes so cached trajectories are remade. */
+    public static final int VERSION = 1;
+
+    /** Default distance between grid points used for the speed passes. */
+    public static final double DEFAULT_RESOLUTION = 0.25;
+
+    /** Default time between trajectory samples (in seconds). */
+    public static final double DEFAULT_DT = 0.01;
+
+    // Private constructor to prevent instantiation
+    private HydraTrajectoryGenerator() {
+    }
+
+    /**
+     * Generates a trajectory with the default resolution and sample period.
+     *
+     * @param path        The path to follow.
+     * @param constraints The drivetrain limits.
+     * @return The generated trajectory.
+     */
+    public static HydraTrajectory generate(HydraSplinePath path, HydraDriveConstraints constraints) {
+        return generate(path, constraints, DEFAULT_RESOLUTION, DEFAULT_DT);
+    }
+
+    /**
+     * Generates a trajectory.
+     *
+     * @param path        The path to follow.
+     * @param constraints The drivetrain limits.
+     * @param resolution  The distance between grid points used for the speed passes.
+     * @param dt          The time between trajectory samples (in seconds).
+     * @return The generated trajectory.
+     */
+    public static HydraTrajectory generate(HydraSplinePath path, HydraDriveConstraints constraints,
+                                           double resolution, double dt) {
+        if (!(resolution > 0) || !(dt > 0)) {
+            throw new IllegalArgumentException("Resolution and sample period must be positive");
+        }
+
+        double length = path.getLength();
+        // At least one interior point, as the passes hold both ends at rest
+        int count = Math.max(3, (int) Math.ceil(length / resolution) + 1);
+        double ds = length / (count - 1);
+        double k = constraints.getRotationFactor();
+
+        // Curvature and speed limit at each grid point
+        double[] curvatures = new double[count];
+        double[] velocities = new double[count];
+        double[] maxAccelerations = new double[count];
+        for (int i = 0; i < count; i++) {
+            double curvature = path.getCurvature(i * ds);
+            double turn = 1.0 + k * Math.abs(curvature);
+            curvatures[i] = curvature;
+            velocities[i] = constraints.maxWheelVelocity / turn;
+            if (curvature != 0.0) {
+                velocities[i] = Math.min(velocities[i], Math.sqrt(constraints.maxCentripetalAcceleration / Math.abs(curvature)));
+            }
+            maxAccelerations[i] = constraints.maxWheelAcceleration / turn;
+        }
+
+        // Forward pass: start at rest and accelerate as hard as allowed
+        velocities[0] = 0.0;
+        for (int i = 0; i < count - 1; i++) {
+            double reachable = Math.sqrt(velocities[i] * velocities[i] + 2.0 * maxAccelerations[i] * ds);
+            velocities[i + 1] = Math.min(velocities[i + 1], reachable);
+        }
+
+        // Backward pass: end at rest and brake as late as allowed
+        velocities[count - 1] = 0.0;
+        for (int i = count - 1; i > 0; i--) {
+            double reachable = Math.sqrt(velocities[i] * velocities[i] + 2.0 * maxAccelerations[i] * ds);
+            velocities[i - 1] = Math.min(velocities[i - 1], reachable);
+        }
+
+        // Time at each grid point, with constant acceleration between points
+        double[] times = new double[count];
+        for (int i = 0; i < count - 1; i++) {
+            double sum = velocities[i] + velocities[i + 1];
+            times[i + 1] = times[i] + (sum > 0.0 ? 2.0 * ds / sum : 0.0);
+        }
+
+        // Resample at a fixed period
+        double duration = times[count - 1];
+        int samples = (int) Math.ceil(duration / dt) + 1;
+        double[] table = new double[samples * HydraTrajectory.SAMPLE_SIZE];
+        HydraPose pose = new HydraPose();
+        int j = 0;
+        for (int n = 0; n < samples; n++) {
+            double t = Math.min(n * dt, duration);
+            while (j < count - 2 && times[j + 1] <= t) {
+                j++;
+            }
+
+            double v0 = velocities[j];
+            double acceleration = ds > 0.0 ? (velocities[j + 1] * velocities[j + 1] - v0 * v0) / (2.0 * ds) : 0.0;
+            double tau = t - times[j];
+            double s = Math.min(j * ds + (v0 + acceleration * tau / 2.0) * tau, (j + 1) * ds);
+            double v = Math.max(0.0, v0 + acceleration * tau);
+            double fraction = ds > 0.0 ? (s - j * ds) / ds : 0.0;
+            double curvature = curvatures[j] + (curvatures[j + 1] - curvatures[j]) * fraction;
+            double curvatureRate = ds > 0.0 ? (curvatures[j + 1] - curvatures[j]) / ds : 0.0;
+
+            path.get(s, pose);
+
+            // Pose, then robot-frame velocity and acceleration
+            int offset = n * HydraTrajectory.SAMPLE_SIZE;
+            table[offset] = pose.x;
+            table[offset + 1] = pose.y;
+            table[offset + 2] = pose.heading;
+            table[offset + 3] = v;
+            table[offset + 4] = 0.0;
+            table[offset + 5] = v * curvature;
+            table[offset + 6] = acceleration;
+            table[offset + 7] = 0.0;
+            table[offset + 8] = acceleration * curvature + v * v * curvatureRate;
+        }
+
+        return new HydraTrajectory(dt, DoubleBuffer.wrap(table));
+    }
+}
@@ -0,0 +1,80 @@
+package com.hydraulichydras.hydralib;
+
+/**
+ * Selects the trigonometry implementation used by the library.
+ * <p>
+ * {@link #EXACT} delegates to {@link Math}, and {@link #FAST} uses {@link HydraFastTrig}'s lookup table and
+ * polynomial approximations. The global default is used by value types such as {@link HydraVector2d} and
+ * {@link HydraPose}, and by components that have not been given their own implementation with a setTrig method.
+ */
+public final class HydraTrig {
+
+    /** Implementation backed by {@link Math}. */
+    public static final HydraTrigFunctions EXACT = new HydraTrigFunctions() {
+        @Override
+        public double sin(double radians) {
+            return Math.sin(radians);
+        }
+
+        @Override
+        public double cos(double radians) {
+            return Math.cos(radians);
+        }
+
+        @Override
+        public double atan2(double y, double x) {
+            return Math.atan2(y, x);
+        }
+    };
+
+    /** Fast approximate implementation; see {@link HydraFastTrig} for its error bounds. */
+    public static final HydraTrigFunctions FAST = new HydraFastTrig();
+
+    // Implementation used when a component has none of its own
+    private static volatile HydraTrigFunctions defaultTrig = EXACT;
+
+    // Private constructor to prevent instantiation
+    private HydraTrig() {
+    }
+
+    /**
+     * Sets the global default implementation.
+     *
+     * @param trig The implementation, such as {@link #EXACT} or {@link #FAST}.
+     */
+    public static void setDefault(HydraTrigFunctions trig) {
+        if (trig == null) {
+            throw new IllegalArgumentException("Trig implementation cannot be null");
+        }
+        defaultTrig = trig;
+    }
+
+    /**
+     * Gets the global default implementation.
+     */
+    public static HydraTrigFunctions getDefault() {
+        return defaultTrig;
+    }
+
+    /**
+     * Resolves a component's implementation, falling back to the global default when it has none.
+     *
+     * @param trig The component's implementation, or null.
+     * @return The implementation to use.
+     */
+    public static HydraTrigFunctions resolve(HydraTrigFunctions trig) {
+        return trig != null ? trig : defaultTrig;
+    }
+
+    public static double sin(double radians) {
+        return defaultTrig.sin(radians);
+    }
+
+    public static double cos(double radians) {
+        return defaultTrig.cos(radians);
+    }
+
+    public static double atan2(double y, double x) {
+        return defaultTrig.atan2(y, x);
+    }
+}
@@ -0,0 +1,30 @@
+package com.hydraulichydras.hydralib;
+
+/**
+ * The trigonometric functions used on hot paths, so that an exact or a fast approximate implementation can be
+ * plugged in. See {@link HydraTrig} for the built-in implementations and the global default.
+ */
+public interface HydraTrigFunctions {
+
+    /**
+     * Computes the sine of an angle.
+     *
+     * @param radians The angle (in radians).
+     */
+    double sin(double radians);
+
+    /**
+     * Computes the cosine of an angle.
+     *
+     * @param radians The angle (in radians).
+     */
+    double cos(double radians);
+
+    /**
+     * Computes the angle of the point (x, y) from the positive x-axis, in (-PI, PI].
+     *
+     * @param y The y-coordinate.
+     * @param x The x-coordinate.
+     */
+    double atan2(double y, double x);
+}
@@ -0,0 +1,40 @@
+package com.hydraulichydras.hydralib;
+
+/**
+ * Enumeration representing rules that turn a relay experiment's ultimate gain and period into PID gains.
+ */
+public enum HydraTuningRule {
+    /** Classic Ziegler-Nichols: fast, with noticeable overshoot. */
+    ZIEGLER_NICHOLS(0.6, 0.5, 0.125),
+
+    /** Tyreus-Luyben: more conservative, with less overshoot and better robustness. */
+    TYREUS_LUYBEN(1.0 / 2.2, 2.2, 1.0 / 6.3),
+
+    /** Ziegler-Nichols variant aimed at little to no overshoot. */
+    NO_OVERSHOOT(0.2, 0.5, 1.0 / 3.0);
+
+    // Proportional gain as a fraction of the ultimate gain, and integral and derivative times as fractions of the period
+    private final double gainRatio;
+    private final double integralRatio;
+    private final double derivativeRatio;
+
+    HydraTuningRule(double gainRatio, double integralRatio, double derivativeRatio) {
+        this.gainRatio = gainRatio;
+        this.integralRatio = integralRatio;
+        this.derivativeRatio = derivativeRatio;
+    }
+
+    /**
+     * Computes PID gains.
+     *
+     * @param ultimateGain   The proportional gain at which the loop oscillates steadily.
+     * @param ultimatePeriod The period of that oscillation (in seconds).
+     * @return The gains.
+     */
+    public HydraPIDCoefficients apply(double ultimateGain, double ultimatePeriod) {
+        double kP = gainRatio * ultimateGain;
+        double integralTime = integralRatio * ultimatePeriod;
+        double derivativeTime = derivativeRatio * ultimatePeriod;
+        return new HydraPIDCoefficients(kP, kP / integralTime, kP * derivativeTime);
+    }
+}
@@ -0,0 +1,95 @@
+package com.hydraulichydras.hydralib;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Localizer using one parallel and one perpendicular odometry pod, with heading taken from an IMU.
+ * <p>
+ * Pod offsets are measured from the robot's center of rotation, with positive x pointing forward and
+ * positive y pointing left. The heading source should return radians, counter-clockwise positive,
+ * such as {@link HydraDrive#getExternalHeading()}.
+ */
+public class HydraTwoWheelLocalizer extends HydraDeadWheelLocalizer {
+
+    private final HydraEncoder parallelEncoder;
+    private final HydraEncoder perpendicularEncoder;
+    private final DoubleSupplier headingSupplier;
+
+    // Lateral offset of the parallel pod
+    private double parallelY;
+
+    // Forward offset of the perpendicular pod
+    private double perpendicularX;
+
+    // Sensor values at the last update
+    private int lastParallel, lastPerpendicular;
+    private double lastHeading;
+
+    /**
+     * Constructs a new HydraTwoWheelLocalizer.
+     *
+     * @param parallelEncoder      The parallel pod.
+     * @param perpendicularEncoder The perpendicular pod.
+     * @param headingSupplier      The IMU heading (in radians).
+     * @param parallelY            Lateral offset of the parallel pod (positive = left).
+     * @param perpendicularX       Forward offset of the perpendicular pod (positive = forward).
+     */
+    public HydraTwoWheelLocalizer(HydraEncoder parallelEncoder, HydraEncoder perpendicularEncoder, DoubleSupplier headingSupplier,
+                                  double parallelY, double perpendicularX) {
+        this.parallelEncoder = parallelEncoder;
+        this.perpendicularEncoder = perpendicularEncoder;
+        this.headingSupplier = headingSupplier;
+        setPodOffsets(parallelY, perpendicularX);
+    }
+
+    /**
+     * Sets the offsets of the odometry pods from the center of rotation.
+     *
+     * @param parallelY      Lateral offset of the parallel pod (positive = left).
+     * @param perpendicularX Forward offset of the perpendicular pod (positive = forward).
+     */
+    public void setPodOffsets(double parallelY, double perpendicularX) {
+        this.parallelY = parallelY;
+        this.perpendicularX = perpendicularX;
+    }
+
+    /**
+     * Reads the pods and the IMU and updates the pose estimate.
+     */
+    @Override
+    public void update() {
+        update(parallelEncoder.getCurrentPosition(), perpendicularEncoder.getCurrentPosition(), headingSupplier.getAsDouble());
+    }
+
+    /**
+     * Updates the pose estimate from already-read sensor values.
+     *
+     * @param parallelTicks      Position of the parallel pod.
+     * @param perpendicularTicks Position of the perpendicular pod.
+     * @param heading            IMU heading (in radians).
+     */
+    public void update(int parallelTicks, int perpendicularTicks, double heading) {
+        if (!initialized) {
+            lastParallel = parallelTicks;
+            lastPerpendicular = perpendicularTicks;
+            lastHeading = heading;
+            initialized = true;
+            integrate(0, 0, 0);
+            return;
+        }
+
+        double dParallel = ticksToDistance(parallelTicks - lastParallel);
+        double dPerpendicular = ticksToDistance(perpendicularTicks - lastPerpendicular);
+        double dHeading = HydraAngle.normDelta(heading - lastHeading);
+
+        lastParallel = parallelTicks;
+        lastPerpendicular = perpendicularTicks;
+        lastHeading = heading;
+
+        // Remove the arc each pod sweeps while the robot turns about its center
+        double dx = dParallel + parallelY * dHeading;
+        double dy = dPerpendicular - perpendicularX * dHeading;
+
+        integrate(dx, dy, dHeading);
+    }
+}
@@ -44,8 +44,9 @@ public class HydraVector2d {
      * @param angle The angle of the vector in degrees.
      */
     public HydraVector2d(HydraAngle angle) {
-        this.x = Math.cos(Math.toRadians(angle.convertAngle(HydraAngleType.NEG_180_TO_180_CARTESIAN).getAngle()));
-        this.y = Math.sin(Math.toRadians(angle.convertAngle(HydraAngleType.NEG_180_TO_180_CARTESIAN).getAngle()));
+        double radians = Math.toRadians(angle.getAngle(HydraAngleType.NEG_180_TO_180_CARTESIAN));
+        this.x = Math.cos(radians);
+        this.y = Math.sin(radians);
         this.fixFloatingPointErrors();
     }
 
@@ -57,7 +58,33 @@ public class HydraVector2d {
      * @return A new HydraVector2d instance with the specified polar coordinates.
      */
     public static HydraVector2d polar(double r, double theta) {
-        return new HydraVector2d(r * Math.cos(theta), r * Math.sin(theta));
+        return new HydraVector2d(r * HydraTrig.cos(theta), r * HydraTrig.sin(theta));
+    }
+
+    /**
+     * Writes a vector with polar coordinates into an existing vector.
+     *
+     * @param r     The magnitude of the vector.
+     * @param theta The angle of the vector in radians.
+     * @param out   The vector to write the result into.
+     * @return The out vector.
+     */
+    public static HydraVector2d polar(double r, double theta, HydraVector2d out) {
+        return out.set(r * HydraTrig.cos(theta), r * HydraTrig.sin(theta));
+    }
+
+    /**
+     * Sets both components of the vector.
+     *
+     * @param x The new x-component of the vector.
+     * @param y The new y-component of the vector.
+     * @return This vector for method chaining.
+     */
+    public HydraVector2d set(double x, double y) {
+        this.x = x;
+        this.y = y;
+        this.fixFloatingPointErrors();
+        return this;
     }
 
     /**
@@ -75,7 +102,7 @@ public class HydraVector2d {
      * @return The angle of the vector in radians.
      */
     public double Angle() {
-        return HydraAngle.norm(Math.atan2(y, x));
+        return HydraAngle.norm(HydraTrig.atan2(y, x));
     }
 
     /**
@@ -108,6 +135,27 @@ public class HydraVector2d {
         return new HydraVector2d(getX() * scalar, getY() * scalar);
     }
 
+    /**
+     * Multiplies the vector by a scalar, writing the result into an existing vector.
+     *
+     * @param scalar The scalar value.
+     * @param out    The vector to write the result into.
+     * @return The out vector.
+     */
+    public HydraVector2d scale(double scalar, HydraVector2d out) {
+        return out.set(x * scalar, y * scalar);
+    }
+
+    /**
+     * Multiplies this vector by a scalar, modifying this vector.
+     *
+     * @param scalar The scalar value.
+     * @return This vector for method chaining.
+     */
+    public HydraVector2d scaleInPlace(double scalar) {
+        return scale(scalar, this);
+    }
+
     /**
      * Divides the vector by a scalar.
      *
@@ -130,6 +178,27 @@ public class HydraVector2d {
         return new HydraVector2d(x - other.getX(), y - other.getY());
     }
 
+    /**
+     * Subtracts another vector from this vector, writing the result into an existing vector.
+     *
+     * @param other The other vector.
+     * @param out   The vector to write the result into.
+     * @return The out vector.
+     */
+    public HydraVector2d subt(HydraVector2d other, HydraVector2d out) {
+        return out.set(x - other.x, y - other.y);
+    }
+
+    /**
+     * Subtracts another vector from this vector, modifying this vector.
+     *
+     * @param other The other vector.
+     * @return This vector for method chaining.
+     */
+    public HydraVector2d subtInPlace(HydraVector2d other) {
+        return subt(other, this);
+    }
+
     /**
      * Adds another vector to this vector.
      *
@@ -140,6 +209,27 @@ public class HydraVector2d {
         return new HydraVector2d(x + other.getX(), y + other.getY());
     }
 
+    /**
+     * Adds another vector to this vector, writing the result into an existing vector.
+     *
+     * @param other The other vector.
+     * @param out   The vector to write the result into.
+     * @return The out vector.
+     */
+    public HydraVector2d plus(HydraVector2d other, HydraVector2d out) {
+        return out.set(x + other.x, y + other.y);
+    }
+
+    /**
+     * Adds another vector to this vector, modifying this vector.
+     *
+     * @param other The other vector.
+     * @return This vector for method chaining.
+     */
+    public HydraVector2d plusInPlace(HydraVector2d other) {
+        return plus(other, this);
+    }
+
     /**
      * Computes the magnitude (length) of the vector.
      *
@@ -167,13 +257,36 @@ public class HydraVector2d {
         return this.divide(magnitude());
     }
 
+    /**
+     * Writes the unit vector in the same direction as this vector into an existing vector.
+     *
+     * @param out The vector to write the result into.
+     * @return The out vector.
+     * @throws IllegalArgumentException if this vector has zero magnitude.
+     */
+    public HydraVector2d unit(HydraVector2d out) {
+        double magnitude = magnitude();
+        if (magnitude == 0) throw new IllegalArgumentException("Division by zero");
+        return out.set(x / magnitude, y / magnitude);
+    }
+
+    /**
+     * Scales this vector to unit length, modifying this vector.
+     *
+     * @return This vector for method chaining.
+     * @throws IllegalArgumentException if this vector has zero magnitude.
+     */
+    public HydraVector2d unitInPlace() {
+        return unit(this);
+    }
+
     /**
      * Computes the angle (in radians) of the vector with respect to the positive x-axis.
      *
      * @return The angle of the vector in radians.
      */
     public double angle() {
-        return HydraAngle.norm(Math.atan2(y, x));
+        return HydraAngle.norm(HydraTrig.atan2(y, x));
     }
 
     /**
@@ -182,7 +295,7 @@ public class HydraVector2d {
      * @return The angle of the vector as an Angle object.
      */
     public HydraAngle getAngle() {
-        double angRad = Math.atan2(y, x);
+        double angRad = HydraTrig.atan2(y, x);
         return new HydraAngle(Math.toDegrees(angRad), HydraAngleType.NEG_180_TO_180_CARTESIAN);
     }
 
@@ -193,7 +306,7 @@ public class HydraVector2d {
      * @return The angle in the specified type.
      */
     public double getAngleDouble(HydraAngleType type) {
-        return this.getAngle().convertAngle(type).getAngle();
+        return HydraAngle.convert(Math.toDegrees(HydraTrig.atan2(y, x)), HydraAngleType.NEG_180_TO_180_CARTESIAN, type);
     }
 
     /**
@@ -204,11 +317,34 @@ public class HydraVector2d {
      */
     public HydraVector2d rotation(double angle) {
         return new HydraVector2d(
-                x * Math.cos(angle) - y * Math.sin(angle),
-                x * Math.sin(angle) + y * Math.cos(angle)
+                x * HydraTrig.cos(angle) - y * HydraTrig.sin(angle),
+                x * HydraTrig.sin(angle) + y * HydraTrig.cos(angle)
         );
     }
 
+    /**
+     * Rotates the vector by the specified angle counter-clockwise, writing the result into an existing vector.
+     *
+     * @param angle The angle to rotate the vector by (in radians).
+     * @param out   The vector to write the result into.
+     * @return The out vector.
+     */
+    public HydraVector2d rotation(double angle, HydraVector2d out) {
+        double cos = HydraTrig.cos(angle);
+        double sin = HydraTrig.sin(angle);
+        return out.set(x * cos - y * sin, x * sin + y * cos);
+    }
+
+    /**
+     * Rotates this vector by the specified angle counter-clockwise, modifying this vector.
+     *
+     * @param angle The angle to rotate the vector by (in radians).
+     * @return This vector for method chaining.
+     */
+    public HydraVector2d rotationInPlace(double angle) {
+        return rotation(angle, this);
+    }
+
     /**
      * Rotates the vector to the specified angle.
      *
@@ -233,7 +369,7 @@ public class HydraVector2d {
         } else {
             angRads = -1 * Math.toRadians(ang);
         }
-        return new HydraVector2d(x * Math.cos(angRads) - y * Math.sin(angRads), x * Math.sin(angRads) + y * Math.cos(angRads));
+        return new HydraVector2d(x * HydraTrig.cos(angRads) - y * HydraTrig.sin(angRads), x * HydraTrig.sin(angRads) + y * HydraTrig.cos(angRads));
     }
 
     /**
@@ -245,7 +381,7 @@ public class HydraVector2d {
     public HydraVector2d project(HydraVector2d other) {
         double magnitude = other.magnitude();
         double angle = angle();
-        return new HydraVector2d(magnitude * Math.cos(angle), magnitude * Math.sin(angle));
+        return new HydraVector2d(magnitude * HydraTrig.cos(angle), magnitude * HydraTrig.sin(angle));
     }
 
     /**
@@ -399,6 +535,29 @@ public class HydraVector2d {
         return normed;
     }
 
+    /**
+     * Normalizes a group of vectors in place so that they maintain the same relative magnitudes,
+     * with the vector of largest magnitude having at most the specified limit.
+     *
+     * @param limit The magnitude limit for the largest vector after normalization.
+     * @param vecs  The vectors to be normalized, modified in place.
+     * @return The vecs array for method chaining.
+     */
+    public static HydraVector2d[] batchNormalizeInPlace(double limit, HydraVector2d... vecs) {
+        double maxMag = 0;
+        for (int i = 0; i < vecs.length; i++) {
+            maxMag = Math.max(maxMag, vecs[i].getMagnitude());
+        }
+        if (limit >= maxMag) {
+            return vecs;
+        }
+        double scale = limit / maxMag;
+        for (int i = 0; i < vecs.length; i++) {
+            vecs[i].scaleInPlace(scale);
+        }
+        return vecs;
+    }
+
     // Override toString method to provide a string representation of the vector
     @Override
     public String toString() {
@@ -0,0 +1,80 @@
+package com.hydraulichydras.hydralib;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A manually advanced time source for {@link HydraClock}.
+ * <p>
+ * Once installed, everything reading {@link HydraClock} sees time move only when {@link #advance(double)} is called,
+ * so simulations and replays can run faster than real time while behaving as if each loop took its nominal time.
+ */
+public class HydraVirtualClock implements LongSupplier {
+
+    // Current virtual time (in nanoseconds)
+    private volatile long nanos;
+
+    /**
+     * Constructs a new HydraVirtualClock starting at time zero.
+     */
+    public HydraVirtualClock() {
+        this(0L);
+    }
+
+    /**
+     * Constructs a new HydraVirtualClock.
+     *
+     * @param startNanos The starting time (in nanoseconds).
+     */
+    public HydraVirtualClock(long startNanos) {
+        this.nanos = startNanos;
+    }
+
+    @Override
+    public long getAsLong() {
+        return nanos;
+    }
+
+    /**
+     * Moves time forward.
+     *
+     * @param seconds The time to advance by (in seconds).
+     */
+    public void advance(double seconds) {
+        advanceNanos((long) (seconds * 1e9));
+    }
+
+    /**
+     * Moves time forward.
+     *
+     * @param deltaNanos The time to advance by (in nanoseconds). Cannot be negative.
+     */
+    public void advanceNanos(long deltaNanos) {
+        if (deltaNanos < 0) {
+            throw new IllegalArgumentException("Time cannot move backwards");
+        }
+        nanos += deltaNanos;
+    }
+
+    /**
+     * Jumps to a time, which cannot be earlier than the current time.
+     *
+     * @param timeNanos The new time (in nanoseconds).
+     */
+    public void setTime(long timeNanos) {
+        advanceNanos(timeNanos - nanos);
+    }
+
+    /**
+     * Makes this clock the time source of {@link HydraClock}.
+     */
+    public void install() {
+        HydraClock.setSource(this);
+    }
+
+    /**
+     * Restores the system time source of {@link HydraClock}.
+     */
+    public void uninstall() {
+        HydraClock.useSystemTime();
+    }
+}
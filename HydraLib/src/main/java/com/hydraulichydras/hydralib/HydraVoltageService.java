@@ -0,0 +1,142 @@
+package com.hydraulichydras.hydralib;
+
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.VoltageSensor;
+
+import java.util.List;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Samples the battery voltage at a low rate and low-pass filters it.
+ * <p>
+ * Reading a hub's voltage sensor is a separate, slow transaction that is not part of the bulk read, and the value
+ * sags and recovers with every current spike. This service reads the sensor at most once per sample period and
+ * smooths the readings with an exponential moving average. Register it with
+ * {@link HydraLoopCache#setVoltageService(HydraVoltageService)} so it is updated at the start of each loop, and read
+ * the voltage, or the nominal / actual compensation factor, from the loop cache anywhere in the robot without
+ * further hardware reads.
+ */
+public class HydraVoltageService {
+
+    // Source of raw voltage readings
+    private final DoubleSupplier source;
+
+    // Sampling and filtering configuration (in seconds)
+    private double samplePeriod = 0.1;
+    private double timeConstant = 0.5;
+
+    // Filtered voltage and the time it was last sampled (in nanoseconds)
+    private double voltage = Double.NaN;
+    private long lastSampleTime;
+    private long samples;
+
+    /**
+     * Constructs a new HydraVoltageService reading from any voltage source.
+     *
+     * @param source Supplier returning the battery voltage (in volts).
+     */
+    public HydraVoltageService(DoubleSupplier source) {
+        this.source = source;
+    }
+
+    /**
+     * Constructs a new HydraVoltageService reading the hub voltage sensors in the hardware map.
+     * The lowest positive reading is used, since it limits what the motors can achieve.
+     *
+     * @param hardwareMap The hardware map containing the voltage sensors.
+     * @throws IllegalArgumentException If the hardware map has no voltage sensors.
+     */
+    public HydraVoltageService(HardwareMap hardwareMap) {
+        List<VoltageSensor> list = hardwareMap.getAll(VoltageSensor.class);
+        if (list.isEmpty()) {
+            throw new IllegalArgumentException("No voltage sensors in the hardware map");
+        }
+        final VoltageSensor[] sensors = list.toArray(new VoltageSensor[0]);
+        this.source = () -> {
+            double lowest = Double.POSITIVE_INFINITY;
+            for (VoltageSensor sensor : sensors) {
+                double reading = sensor.getVoltage();
+                if (reading > 0.0) {
+                    lowest = Math.min(lowest, reading);
+                }
+            }
+            return lowest == Double.POSITIVE_INFINITY ? 0.0 : lowest;
+        };
+    }
+
+    /**
+     * Sets how often the sensor is read.
+     *
+     * @param seconds The time between readings (in seconds).
+     */
+    public HydraVoltageService setSamplePeriod(double seconds) {
+        if (seconds < 0) {
+            throw new IllegalArgumentException("Sample period cannot be negative");
+        }
+        this.samplePeriod = seconds;
+        return this;
+    }
+
+    /**
+     * Sets the time constant of the moving average. Longer values reject more noise but follow real sag more slowly.
+     *
+     * @param seconds The filter time constant (in seconds), or 0 to disable filtering.
+     */
+    public HydraVoltageService setTimeConstant(double seconds) {
+        if (seconds < 0) {
+            throw new IllegalArgumentException("Time constant cannot be negative");
+        }
+        this.timeConstant = seconds;
+        return this;
+    }
+
+    /**
+     * Reads the sensor if a sample period has passed since the last reading.
+     * Called by {@link HydraLoopCache#update()} when the service is registered there.
+     *
+     * @param timestamp The current time (in nanoseconds).
+     */
+    public void update(long timestamp) {
+        if (samples > 0 && (timestamp - lastSampleTime) * 1e-9 < samplePeriod) {
+            return;
+        }
+        double elapsed = (timestamp - lastSampleTime) * 1e-9;
+        double reading = source.getAsDouble();
+        lastSampleTime = timestamp;
+        samples++;
+        if (!(reading > 0.0)) {
+            // Ignore dropouts rather than dragging the average towards zero
+            return;
+        }
+        if (Double.isNaN(voltage) || timeConstant == 0.0) {
+            voltage = reading;
+        } else {
+            voltage += (1.0 - Math.exp(-elapsed / timeConstant)) * (reading - voltage);
+        }
+    }
+
+    /**
+     * Gets the filtered battery voltage.
+     *
+     * @return The voltage (in volts), or NaN before the first valid reading.
+     */
+    public double getVoltage() {
+        return voltage;
+    }
+
+    /**
+     * Gets the factor that scales outputs tuned at {@link HydraKinematics#NOMINAL_VOLTAGE} to the current voltage.
+     *
+     * @return Nominal voltage / filtered voltage, or 1 before the first valid reading.
+     */
+    public double getCompensation() {
+        return voltage > 0.0 ? HydraKinematics.NOMINAL_VOLTAGE / voltage : 1.0;
+    }
+
+    /**
+     * Gets the number of times the sensor has been read.
+     */
+    public long getSampleCount() {
+        return samples;
+    }
+}
@@ -0,0 +1,111 @@
+package com.hydraulichydras.hydralib;
+
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DcMotorEx for tests that records what is written to it and reports a set encoder position and velocity.
+ * <p>
+ * The motor is a dynamic proxy, so it implements the whole SDK interface; calls it does not model are logged and
+ * return zero, false or null.
+ */
+final class FakeDcMotor implements InvocationHandler {
+
+    /** The motor to hand to the code under test. */
+    final DcMotorEx motor = (DcMotorEx) Proxy.newProxyInstance(
+            DcMotorEx.class.getClassLoader(), new Class<?>[] {DcMotorEx.class}, this);
+
+    /** Every call except getters, in order, as the method name followed by its arguments. */
+    final List<String> calls = new ArrayList<>();
+
+    // Last values written
+    DcMotor.RunMode mode;
+    double power;
+    int targetPosition;
+    double velocitySetpoint = Double.NaN;
+
+    // Values reported by the encoder
+    int position;
+    double velocity;
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        String name = method.getName();
+        switch (name) {
+            case "getCurrentPosition":
+                return position;
+            case "getVelocity":
+                return velocity;
+            case "getPower":
+                return power;
+            case "getMode":
+                return mode;
+            case "getTargetPosition":
+                return targetPosition;
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "FakeDcMotor";
+            default:
+                break;
+        }
+
+        StringBuilder call = new StringBuilder(name);
+        if (args != null) {
+            for (Object arg : args) {
+                call.append(' ').append(arg);
+            }
+        }
+        calls.add(call.toString());
+
+        switch (name) {
+            case "setMode":
+                mode = (DcMotor.RunMode) args[0];
+                break;
+            case "setPower":
+                power = (Double) args[0];
+                break;
+            case "setTargetPosition":
+                targetPosition = (Integer) args[0];
+                break;
+            case "setVelocity":
+                velocitySetpoint = (Double) args[0];
+                break;
+            default:
+                break;
+        }
+        return defaultValue(method.getReturnType());
+    }
+
+    // Clears the call log
+    void clearCalls() {
+        calls.clear();
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0.0;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        return null;
+    }
+}
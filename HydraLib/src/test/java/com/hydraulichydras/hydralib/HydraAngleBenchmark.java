@@ -0,0 +1,99 @@
+package com.hydraulichydras.hydralib;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the HydraAngle conversions with the previous conversion chain in {@link LegacyHydraAngle}, through both the
+ * object API and the primitive helpers. Run {@link #main} from the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HydraAngleBenchmark {
+
+    // Power of two, so the input index can wrap with a mask
+    private static final int INPUTS = 1024;
+
+    private final double[] angles = new double[INPUTS];
+    private final HydraAngleType[] inputTypes = new HydraAngleType[INPUTS];
+    private final HydraAngleType[] outputTypes = new HydraAngleType[INPUTS];
+    private int index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        HydraAngleType[] types = HydraAngleType.values();
+        for (int i = 0; i < INPUTS; i++) {
+            angles[i] = (random.nextDouble() - 0.5) * 1500;
+            inputTypes[i] = types[random.nextInt(types.length)];
+            outputTypes[i] = types[random.nextInt(types.length)];
+        }
+    }
+
+    private int next() {
+        return index = (index + 1) & (INPUTS - 1);
+    }
+
+    @Benchmark
+    public double legacyConvert() {
+        int i = next();
+        return new LegacyHydraAngle(angles[i], inputTypes[i]).convertAngle(outputTypes[i]).getAngle();
+    }
+
+    @Benchmark
+    public double objectConvert() {
+        int i = next();
+        return new HydraAngle(angles[i], inputTypes[i]).convertAngle(outputTypes[i]).getAngle();
+    }
+
+    @Benchmark
+    public double primitiveConvert() {
+        int i = next();
+        return HydraAngle.convert(angles[i], inputTypes[i], outputTypes[i]);
+    }
+
+    @Benchmark
+    public double legacyAverage() {
+        int i = next();
+        int j = (i + 1) & (INPUTS - 1);
+        return LegacyHydraAngle.getAverageAngle(new LegacyHydraAngle(angles[i], inputTypes[i]),
+                new LegacyHydraAngle(angles[j], inputTypes[j])).getAngle();
+    }
+
+    @Benchmark
+    public double objectAverage() {
+        int i = next();
+        int j = (i + 1) & (INPUTS - 1);
+        return HydraAngle.getAverageAngle(new HydraAngle(angles[i], inputTypes[i]),
+                new HydraAngle(angles[j], inputTypes[j])).getAngle();
+    }
+
+    @Benchmark
+    public double primitiveAverage() {
+        int i = next();
+        int j = (i + 1) & (INPUTS - 1);
+        return HydraAngle.average(angles[i], inputTypes[i], angles[j], inputTypes[j]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(HydraAngleBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,108 @@
+package com.hydraulichydras.hydralib;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks the table-driven HydraAngle conversions against the previous conversion chain, kept in
+ * {@link LegacyHydraAngle}.
+ * <p>
+ * The only intended difference is at the seam of each range: the old chain could return 360 where the new code
+ * returns 0 (and -180 where it returns 180), so values that differ by exactly one turn are treated as equal.
+ */
+public class HydraAngleTest {
+
+    private static final int SAMPLES = 250_000;
+    private static final double EPSILON = 1e-9;
+    private static final HydraAngleType[] TYPES = HydraAngleType.values();
+
+    @Test
+    public void objectApiMatchesLegacyConversions() {
+        Random random = new Random(42);
+        for (int i = 0; i < SAMPLES; i++) {
+            double a = randomAngle(random, i);
+            double b = randomAngle(random, i + 1);
+            HydraAngleType typeA = TYPES[random.nextInt(TYPES.length)];
+            HydraAngleType typeB = TYPES[random.nextInt(TYPES.length)];
+
+            LegacyHydraAngle legacyA = new LegacyHydraAngle(a, typeA);
+            LegacyHydraAngle legacyB = new LegacyHydraAngle(b, typeB);
+            HydraAngle angleA = new HydraAngle(a, typeA);
+            HydraAngle angleB = new HydraAngle(b, typeB);
+
+            check(sameAngle(legacyA.getAngle(), angleA.getAngle()), "construct", a, typeA, b, typeB);
+            check(sameAngle(legacyA.convertAngle(typeB).getAngle(), angleA.convertAngle(typeB).getAngle()), "convertAngle", a, typeA, b, typeB);
+            check(Math.abs(legacyA.getDifference(legacyB) - angleA.getDifference(angleB)) < EPSILON, "getDifference", a, typeA, b, typeB);
+            check(legacyA.directionTo(legacyB) == angleA.directionTo(angleB), "directionTo", a, typeA, b, typeB);
+            check(sameAngle(legacyA.rotateBy(b).getAngle(), angleA.rotateBy(b).getAngle()), "rotateBy", a, typeA, b, typeB);
+            check(sameAngle(LegacyHydraAngle.getAverageAngle(legacyA, legacyB).getAngle(),
+                    HydraAngle.getAverageAngle(angleA, angleB).getAngle()), "getAverageAngle", a, typeA, b, typeB);
+        }
+    }
+
+    @Test
+    public void primitiveApiMatchesLegacyConversions() {
+        Random random = new Random(43);
+        for (int i = 0; i < SAMPLES; i++) {
+            double a = randomAngle(random, i);
+            double b = randomAngle(random, i + 1);
+            HydraAngleType typeA = TYPES[random.nextInt(TYPES.length)];
+            HydraAngleType typeB = TYPES[random.nextInt(TYPES.length)];
+            HydraAngleDirection direction = random.nextBoolean() ? HydraAngleDirection.CLOCKWISE : HydraAngleDirection.COUNTER_CLOCKWISE;
+
+            LegacyHydraAngle legacyA = new LegacyHydraAngle(a, typeA);
+            LegacyHydraAngle legacyB = new LegacyHydraAngle(b, typeB);
+
+            check(sameAngle(legacyA.convertAngleDouble(typeB), HydraAngle.convert(a, typeA, typeB)), "convert", a, typeA, b, typeB);
+            check(Math.abs(legacyA.getDifference(legacyB) - HydraAngle.difference(a, typeA, b, typeB)) < EPSILON, "difference", a, typeA, b, typeB);
+            check(legacyA.directionTo(legacyB) == HydraAngle.direction(a, typeA, b, typeB), "direction", a, typeA, b, typeB);
+            check(sameAngle(legacyA.rotateBy(b, direction).getAngle(), HydraAngle.rotate(a, typeA, b, direction)), "rotate", a, typeA, b, typeB);
+            check(sameAngle(LegacyHydraAngle.getAverageAngle(legacyA, legacyB).getAngle(),
+                    HydraAngle.average(a, typeA, b, typeB)), "average", a, typeA, b, typeB);
+        }
+    }
+
+    @Test
+    public void convertStaysInsideTheOutputRange() {
+        Random random = new Random(44);
+        for (int i = 0; i < SAMPLES; i++) {
+            double angle = randomAngle(random, i);
+            HydraAngleType input = TYPES[random.nextInt(TYPES.length)];
+            HydraAngleType output = TYPES[random.nextInt(TYPES.length)];
+            double converted = HydraAngle.convert(angle, input, output);
+            boolean inRange = HydraAngle.isZeroTo360(output)
+                    ? converted >= 0 && converted < 360
+                    : converted > -180 && converted <= 180;
+            check(inRange, "convert range", angle, input, converted, output);
+        }
+    }
+
+    @Test
+    public void headingAndCartesianAreMirrored() {
+        assertEquals(0.0, HydraAngle.convert(90, HydraAngleType.ZERO_TO_360_CARTESIAN, HydraAngleType.ZERO_TO_360_HEADING), EPSILON);
+        assertEquals(90.0, HydraAngle.convert(0, HydraAngleType.ZERO_TO_360_HEADING, HydraAngleType.ZERO_TO_360_CARTESIAN), EPSILON);
+        assertEquals(-90.0, HydraAngle.convert(180, HydraAngleType.ZERO_TO_360_CARTESIAN, HydraAngleType.NEG_180_TO_180_HEADING), EPSILON);
+        assertEquals(0.0, HydraAngle.convert(720, HydraAngleType.ZERO_TO_360_HEADING, HydraAngleType.ZERO_TO_360_HEADING), EPSILON);
+    }
+
+    // Mostly random angles over several turns, with every tenth on a multiple of 45 degrees to hit the seams
+    private static double randomAngle(Random random, int i) {
+        return i % 10 == 0 ? 45 * random.nextInt(17) - 360 : (random.nextDouble() - 0.5) * 1500;
+    }
+
+    private static boolean sameAngle(double expected, double actual) {
+        double difference = Math.abs(expected - actual);
+        return difference < EPSILON || Math.abs(difference - 360) < EPSILON;
+    }
+
+    // Fails with the inputs in the message; the message is only built on failure, which keeps the loops fast
+    private static void check(boolean condition, String operation, double a, HydraAngleType typeA, double b, HydraAngleType typeB) {
+        if (!condition) {
+            fail(operation + " differs for " + a + " " + typeA + ", " + b + " " + typeB);
+        }
+    }
+}
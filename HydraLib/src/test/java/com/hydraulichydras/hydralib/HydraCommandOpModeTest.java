@@ -0,0 +1,48 @@
+package com.hydraulichydras.hydralib;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HydraCommandOpModeTest {
+
+    @Test
+    public void stopDuringInitInterruptsTasksWithoutWaiting() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        HydraCommandOpMode opMode = new HydraCommandOpMode() {
+            @Override
+            public void initialize() {
+                setInitTimeout(10.0);
+                submitInitTask("slow", () -> {
+                    started.countDown();
+                    try {
+                        Thread.sleep(60_000);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                    return null;
+                });
+            }
+
+            @Override
+            public boolean isStopRequested() {
+                return true;
+            }
+        };
+
+        long start = System.nanoTime();
+        opMode.runOpMode();
+        assertTrue("Waited for init tasks", System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        assertFalse(opMode.isInitReady());
+
+        // The task is interrupted once it runs, rather than left running after the OpMode ended
+        if (started.await(1, TimeUnit.SECONDS)) {
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.hydraulichydras.hydralib;
+
+import com.qualcomm.robotcore.hardware.DcMotor;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+public class HydraControlledMotorTest {
+
+    private final FakeDcMotor fake = new FakeDcMotor();
+
+    @Test
+    public void hostModeWritesPowerOnlyWhenItChanges() {
+        HydraControlledMotor motor = new HydraControlledMotor(fake.motor, HydraControlTarget.VELOCITY,
+                new HydraPIDCoefficients(0.001, 0.0, 0.0));
+        assertEquals(HydraControlMode.HOST, motor.getControlMode());
+        assertEquals(DcMotor.RunMode.RUN_WITHOUT_ENCODER, fake.mode);
+
+        motor.setSetpoint(500);
+        fake.velocity = 100;
+        fake.clearCalls();
+        motor.update();
+        assertEquals(0.4, fake.power, 1e-12);
+        assertEquals(1, fake.calls.size());
+
+        motor.update();
+        assertEquals(1, fake.calls.size());
+        assertEquals(2, motor.getReadCount());
+    }
+
+    @Test
+    public void hubVelocityIsSentOnFirstUpdateAfterEverySwitch() {
+        HydraControlledMotor motor = new HydraControlledMotor(fake.motor, HydraControlTarget.VELOCITY,
+                new HydraPIDCoefficients(10.0, 3.0, 0.0, 12.0));
+        motor.setSetpoint(800);
+
+        fake.clearCalls();
+        motor.setControlMode(HydraControlMode.HUB);
+        assertEquals(Arrays.asList("setVelocityPIDFCoefficients 10.0 3.0 0.0 12.0", "setMode RUN_USING_ENCODER"), fake.calls);
+
+        fake.clearCalls();
+        motor.update();
+        motor.update();
+        assertEquals(Collections.singletonList("setVelocity 800.0"), fake.calls);
+
+        // Host mode drives the motor by power, so the hub's setpoint no longer applies
+        motor.setControlMode(HydraControlMode.HOST);
+        assertEquals(DcMotor.RunMode.RUN_WITHOUT_ENCODER, fake.mode);
+        motor.update();
+
+        // Back on the hub, the unchanged setpoint must still be sent
+        motor.setControlMode(HydraControlMode.HUB);
+        fake.clearCalls();
+        motor.update();
+        assertEquals(Collections.singletonList("setVelocity 800.0"), fake.calls);
+        assertEquals(800.0, fake.velocitySetpoint, 0.0);
+    }
+
+    @Test
+    public void hubPositionSetsTargetBeforeRunToPosition() {
+        HydraControlledMotor motor = new HydraControlledMotor(fake.motor, HydraControlTarget.POSITION,
+                new HydraPIDCoefficients(5.0, 0.0, 0.0));
+        motor.setMaxPower(0.6);
+        motor.setSetpoint(250.4);
+
+        fake.clearCalls();
+        motor.setControlMode(HydraControlMode.HUB);
+        assertEquals(Arrays.asList("setPositionPIDFCoefficients 5.0", "setTargetPosition 250",
+                "setMode RUN_TO_POSITION", "setPower 0.6"), fake.calls);
+
+        // The target was sent with the mode change
+        fake.clearCalls();
+        motor.update();
+        assertEquals(Collections.<String>emptyList(), fake.calls);
+
+        motor.setSetpoint(300);
+        motor.update();
+        assertEquals(Collections.singletonList("setTargetPosition 300"), fake.calls);
+    }
+
+    @Test
+    public void hostPowerIsSentOnFirstUpdateAfterSwitch() {
+        HydraControlledMotor motor = new HydraControlledMotor(fake.motor, HydraControlTarget.POSITION,
+                new HydraPIDCoefficients(0.01, 0.0, 0.0));
+        motor.setSetpoint(50);
+        motor.update();
+        assertEquals(0.5, fake.power, 1e-12);
+
+        motor.setControlMode(HydraControlMode.HUB);
+        motor.setControlMode(HydraControlMode.HOST);
+
+        // The hub set its own power in between, so the same host power is written again
+        fake.power = 1.0;
+        fake.clearCalls();
+        motor.update();
+        assertEquals(Collections.singletonList("setPower 0.5"), fake.calls);
+    }
+
+    @Test
+    public void hubGainsArePushedOnlyInHubMode() {
+        HydraControlledMotor motor = new HydraControlledMotor(fake.motor, HydraControlTarget.VELOCITY,
+                new HydraPIDCoefficients(0.001, 0.0, 0.0));
+        fake.clearCalls();
+        motor.setHubCoefficients(new HydraPIDCoefficients(10.0, 3.0, 0.0, 12.0));
+        assertEquals(Collections.<String>emptyList(), fake.calls);
+
+        motor.setControlMode(HydraControlMode.HUB);
+        fake.clearCalls();
+        motor.setHubCoefficients(new HydraPIDCoefficients(20.0, 3.0, 0.0, 12.0));
+        assertEquals(Collections.singletonList("setVelocityPIDFCoefficients 20.0 3.0 0.0 12.0"), fake.calls);
+    }
+}
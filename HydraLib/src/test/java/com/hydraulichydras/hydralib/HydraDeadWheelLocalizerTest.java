@@ -0,0 +1,152 @@
+package com.hydraulichydras.hydralib;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Drives a long randomized path through the dead-wheel localizers and measures drift against ground truth.
+ * <p>
+ * Pod readings are generated from the true motion and quantized to whole encoder ticks, so the only error source is
+ * the encoder resolution and the integration itself.
+ */
+public class HydraDeadWheelLocalizerTest {
+
+    private static final double DT = 0.01;
+    private static final int LOOPS = 12000;
+
+    // Pod geometry (in inches)
+    private static final double LEFT_Y = 7.0;
+    private static final double RIGHT_Y = -6.5;
+    private static final double PARALLEL_Y = -3.0;
+    private static final double PERPENDICULAR_X = -4.5;
+
+    private final HydraVirtualClock clock = new HydraVirtualClock(1_000_000_000L);
+
+    // True pose and robot-frame velocity
+    private double x, y, heading;
+    private double vx, vy, omega;
+
+    // Unquantized pod travel
+    private double left, right, parallel, perpendicular;
+
+    // Velocity the random motion is currently easing towards
+    private double targetVx, targetVy, targetOmega;
+
+    @Before
+    public void setUp() {
+        clock.install();
+    }
+
+    @After
+    public void tearDown() {
+        clock.uninstall();
+    }
+
+    @Test
+    public void twoWheelDriftStaysBounded() {
+        HydraTwoWheelLocalizer localizer = new HydraTwoWheelLocalizer(null, null, null, PARALLEL_Y, PERPENDICULAR_X);
+        double perTick = localizer.ticksToDistance(1);
+        Random random = new Random(26);
+
+        localizer.update(0, 0, 0.0);
+        for (int i = 0; i < LOOPS; i++) {
+            step(random, i);
+            localizer.update(ticks(parallel, perTick), ticks(perpendicular, perTick), AngleUnit.normalizeRadians(heading));
+        }
+
+        assertDrift(localizer.getPoseEstimate(), 0.05, 1e-9);
+    }
+
+    @Test
+    public void threeWheelDriftStaysBounded() {
+        HydraThreeWheelLocalizer localizer = new HydraThreeWheelLocalizer(null, null, null, LEFT_Y, RIGHT_Y, PERPENDICULAR_X);
+        double perTick = localizer.ticksToDistance(1);
+        Random random = new Random(26);
+
+        localizer.update(0, 0, 0);
+        for (int i = 0; i < LOOPS; i++) {
+            step(random, i);
+            localizer.update(ticks(left, perTick), ticks(right, perTick), ticks(perpendicular, perTick));
+        }
+
+        assertDrift(localizer.getPoseEstimate(), 0.05, 1e-3);
+    }
+
+    @Test
+    public void straightLineIsExact() {
+        HydraThreeWheelLocalizer localizer = new HydraThreeWheelLocalizer(null, null, null, LEFT_Y, RIGHT_Y, PERPENDICULAR_X);
+        int ticks = (int) Math.round(48.0 / localizer.ticksToDistance(1));
+        localizer.update(0, 0, 0);
+        localizer.update(ticks, ticks, 0);
+
+        HydraPose pose = localizer.getPoseEstimate();
+        assertEquals(localizer.ticksToDistance(ticks), pose.x, 1e-9);
+        assertEquals(0.0, pose.y, 1e-9);
+        assertEquals(0.0, pose.heading, 1e-9);
+    }
+
+    @Test
+    public void velocityIsMeasuredWhenTimeStartsAtZero() {
+        HydraVirtualClock zero = new HydraVirtualClock();
+        zero.install();
+        HydraThreeWheelLocalizer localizer = new HydraThreeWheelLocalizer(null, null, null, LEFT_Y, RIGHT_Y, PERPENDICULAR_X);
+        int ticks = 100;
+
+        localizer.update(0, 0, 0);
+        zero.advance(DT);
+        localizer.update(ticks, ticks, 0);
+
+        assertEquals(localizer.ticksToDistance(ticks) / DT, localizer.getPoseVelocity().x, 1e-6);
+    }
+
+    // Advances the true robot by one loop of smoothly varying random motion
+    private void step(Random random, int loop) {
+        if (loop % 100 == 0) {
+            targetVx = (random.nextDouble() * 2 - 1) * 40.0;
+            targetVy = (random.nextDouble() * 2 - 1) * 30.0;
+            targetOmega = (random.nextDouble() * 2 - 1) * 3.0;
+        }
+        vx += (targetVx - vx) * 0.05;
+        vy += (targetVy - vy) * 0.05;
+        omega += (targetOmega - omega) * 0.05;
+
+        double dx = vx * DT;
+        double dy = vy * DT;
+        double dHeading = omega * DT;
+
+        // Pods measure the robot-frame motion of their own mounting point
+        left += dx - LEFT_Y * dHeading;
+        right += dx - RIGHT_Y * dHeading;
+        parallel += dx - PARALLEL_Y * dHeading;
+        perpendicular += dy + PERPENDICULAR_X * dHeading;
+
+        // Integrate the true pose finely with the midpoint rule
+        int substeps = 50;
+        for (int s = 0; s < substeps; s++) {
+            double mid = heading + dHeading / substeps / 2.0;
+            x += (dx * Math.cos(mid) - dy * Math.sin(mid)) / substeps;
+            y += (dx * Math.sin(mid) + dy * Math.cos(mid)) / substeps;
+            heading += dHeading / substeps;
+        }
+
+        clock.advance(DT);
+    }
+
+    private static int ticks(double distance, double perTick) {
+        return (int) Math.round(distance / perTick);
+    }
+
+    private void assertDrift(HydraPose pose, double positionBound, double headingBound) {
+        double positionError = Math.hypot(pose.x - x, pose.y - y);
+        double headingError = Math.abs(AngleUnit.normalizeRadians(pose.heading - heading));
+        assertTrue("Position drift " + positionError + " exceeds " + positionBound, positionError <= positionBound);
+        assertTrue("Heading drift " + headingError + " exceeds " + headingBound, headingError <= headingBound);
+    }
+}
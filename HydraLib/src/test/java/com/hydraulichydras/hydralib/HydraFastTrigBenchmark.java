@@ -0,0 +1,90 @@
+package com.hydraulichydras.hydralib;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput of {@link HydraFastTrig} with {@link Math}. The matching accuracy checks are in
+ * {@link HydraFastTrigTest}. Run {@link #main} from the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HydraFastTrigBenchmark {
+
+    // Power of two, so the input index can wrap with a mask
+    private static final int INPUTS = 1024;
+
+    private final HydraFastTrig fast = new HydraFastTrig();
+    private final double[] angles = new double[INPUTS];
+    private final double[] xs = new double[INPUTS];
+    private final double[] ys = new double[INPUTS];
+    private int index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(41);
+        for (int i = 0; i < INPUTS; i++) {
+            angles[i] = (random.nextDouble() * 2 - 1) * 4 * Math.PI;
+            xs[i] = random.nextDouble() * 2 - 1;
+            ys[i] = random.nextDouble() * 2 - 1;
+        }
+    }
+
+    private int next() {
+        return index = (index + 1) & (INPUTS - 1);
+    }
+
+    @Benchmark
+    public double fastSin() {
+        return fast.sin(angles[next()]);
+    }
+
+    @Benchmark
+    public double mathSin() {
+        return Math.sin(angles[next()]);
+    }
+
+    @Benchmark
+    public double fastCos() {
+        return fast.cos(angles[next()]);
+    }
+
+    @Benchmark
+    public double mathCos() {
+        return Math.cos(angles[next()]);
+    }
+
+    @Benchmark
+    public double fastAtan2() {
+        int i = next();
+        return fast.atan2(ys[i], xs[i]);
+    }
+
+    @Benchmark
+    public double mathAtan2() {
+        int i = next();
+        return Math.atan2(ys[i], xs[i]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(HydraFastTrigBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,68 @@
+package com.hydraulichydras.hydralib;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks {@link HydraFastTrig} against {@link Math} within its documented error bounds.
+ */
+public class HydraFastTrigTest {
+
+    // Documented maximum absolute errors
+    private static final double SIN_BOUND = 3e-7;
+    private static final double ATAN_BOUND = 2e-8;
+
+    private static final int SAMPLES = 2_000_000;
+
+    private final HydraFastTrig trig = new HydraFastTrig();
+
+    @Test
+    public void sinAndCosStayWithinBound() {
+        Random random = new Random(41);
+        double maxError = 0.0;
+        for (int i = 0; i < SAMPLES; i++) {
+            // Within a thousand turns either side of zero
+            double angle = (random.nextDouble() * 2 - 1) * 2000.0 * Math.PI;
+            maxError = Math.max(maxError, Math.abs(trig.sin(angle) - Math.sin(angle)));
+            maxError = Math.max(maxError, Math.abs(trig.cos(angle) - Math.cos(angle)));
+        }
+        assertTrue("Max sin/cos error " + maxError, maxError <= SIN_BOUND);
+    }
+
+    @Test
+    public void atan2StaysWithinBound() {
+        Random random = new Random(41);
+        double maxError = 0.0;
+        for (int i = 0; i < SAMPLES; i++) {
+            // Mix magnitudes so every octant and both steep and shallow angles are covered
+            double scale = Math.pow(10.0, random.nextInt(7) - 3);
+            double y = (random.nextDouble() * 2 - 1) * scale;
+            double x = (random.nextDouble() * 2 - 1) * Math.pow(10.0, random.nextInt(7) - 3);
+            maxError = Math.max(maxError, Math.abs(trig.atan2(y, x) - Math.atan2(y, x)));
+        }
+        assertTrue("Max atan2 error " + maxError, maxError <= ATAN_BOUND);
+    }
+
+    @Test
+    public void atan2HandlesAxesAndOrigin() {
+        assertEquals(0.0, trig.atan2(0.0, 0.0), 0.0);
+        assertEquals(0.0, trig.atan2(0.0, 1.0), ATAN_BOUND);
+        assertEquals(Math.PI / 2, trig.atan2(1.0, 0.0), ATAN_BOUND);
+        assertEquals(Math.PI, trig.atan2(0.0, -1.0), ATAN_BOUND);
+        assertEquals(-Math.PI / 2, trig.atan2(-1.0, 0.0), ATAN_BOUND);
+        assertEquals(Math.PI / 4, trig.atan2(1.0, 1.0), ATAN_BOUND);
+        assertEquals(-3 * Math.PI / 4, trig.atan2(-1.0, -1.0), ATAN_BOUND);
+    }
+
+    @Test
+    public void sinIsExactAtTableEntries() {
+        for (int i = -8; i <= 8; i++) {
+            double angle = i * Math.PI / 4;
+            assertEquals(Math.sin(angle), trig.sin(angle), 1e-15);
+        }
+    }
+}
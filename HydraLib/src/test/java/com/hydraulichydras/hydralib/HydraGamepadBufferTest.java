@@ -0,0 +1,91 @@
+package com.hydraulichydras.hydralib;
+
+import com.qualcomm.robotcore.hardware.Gamepad;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HydraGamepadBufferTest {
+
+    private final Gamepad gamepad = new Gamepad();
+
+    @Test
+    public void readReturnsPacketTimestamp() {
+        gamepad.timestamp = 100;
+        gamepad.cross = true;
+        gamepad.left_stick_y = -0.5f;
+        HydraGamepadBuffer buffer = new HydraGamepadBuffer(gamepad);
+        HydraGamepadSnapshot snapshot = new HydraGamepadSnapshot();
+
+        assertEquals(100, buffer.read(snapshot));
+        assertTrue(snapshot.isDown(HydraSwitches.HydraButton.CROSS));
+        assertEquals(-0.5f, snapshot.getLeftStickY(), 0f);
+
+        // The same packet reads with the same sequence number
+        long first = buffer.read(snapshot);
+        assertEquals(first, buffer.read(snapshot));
+
+        gamepad.timestamp = 120;
+        assertNotEquals(first, buffer.read(snapshot));
+    }
+
+    @Test
+    public void pollingThreadNeverMixesFrames() throws InterruptedException {
+        HydraGamepadBuffer buffer = new HydraGamepadBuffer(gamepad).setAutoPoll(false);
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        // Packets write every field from one counter, under the gamepad's monitor like the SDK's receive thread
+        Thread writer = new Thread(() -> {
+            for (int n = 1; running.get(); n = n % 1000000 + 1) {
+                synchronized (gamepad) {
+                    setFields(n);
+                }
+            }
+        });
+        Thread poller = new Thread(() -> {
+            while (running.get()) {
+                buffer.poll();
+            }
+        });
+        writer.start();
+        poller.start();
+
+        HydraGamepadSnapshot snapshot = new HydraGamepadSnapshot();
+        try {
+            long deadline = System.nanoTime() + 200_000_000L;
+            int reads = 0;
+            while (System.nanoTime() < deadline || reads < 1000) {
+                long packet = buffer.read(snapshot);
+                float value = packet;
+                assertEquals(value, snapshot.getLeftStickX(), 0f);
+                assertEquals(value, snapshot.getLeftStickY(), 0f);
+                assertEquals(value, snapshot.getRightStickX(), 0f);
+                assertEquals(value, snapshot.getRightStickY(), 0f);
+                assertEquals(value, snapshot.getLeftTrigger(), 0f);
+                assertEquals(value, snapshot.getRightTrigger(), 0f);
+                assertEquals(packet % 2 == 1, snapshot.isDown(HydraSwitches.HydraButton.CROSS));
+                reads++;
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+            poller.join();
+        }
+    }
+
+    private void setFields(int n) {
+        gamepad.timestamp = n;
+        gamepad.cross = n % 2 == 1;
+        gamepad.left_stick_x = n;
+        gamepad.left_stick_y = n;
+        gamepad.right_stick_x = n;
+        gamepad.right_stick_y = n;
+        gamepad.left_trigger = n;
+        gamepad.right_trigger = n;
+    }
+}
@@ -0,0 +1,96 @@
+package com.hydraulichydras.hydralib;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class HydraGamepadReplayTest {
+
+    private static final HydraSwitches.HydraButton CROSS = HydraSwitches.HydraButton.CROSS;
+
+    // Recorded loop period (in nanoseconds) and number of presses
+    private static final long PERIOD = 10_000_000L;
+    private static final int PRESSES = 100;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void tearDown() {
+        HydraLoopCache.getInstance().reset();
+    }
+
+    @Test
+    public void replayAtRecordedPeriodFiresEveryPress() throws IOException {
+        HydraGamepadReplay replay = HydraGamepadReplay.load(recordTapping());
+        assertEquals(2 * PRESSES, replay.size());
+        assertEquals(PRESSES, countPresses(replay, 0.01));
+    }
+
+    @Test
+    public void replayWithLongerPeriodFiresEveryPress() throws IOException {
+        HydraGamepadReplay replay = HydraGamepadReplay.load(recordTapping());
+        assertEquals(PRESSES, countPresses(replay, 0.025));
+        assertTrue(replay.isFinished());
+    }
+
+    @Test
+    public void replayWithShorterPeriodFiresEveryPress() throws IOException {
+        HydraGamepadReplay replay = HydraGamepadReplay.load(recordTapping());
+        assertEquals(PRESSES, countPresses(replay, 0.003));
+    }
+
+    @Test
+    public void framesAreDeliveredAtRecordedTimes() throws IOException {
+        HydraGamepadReplay replay = HydraGamepadReplay.load(recordTapping());
+        HydraVirtualClock clock = new HydraVirtualClock();
+        clock.install();
+        try {
+            HydraGamepadSnapshot snapshot = new HydraGamepadSnapshot();
+            replay.start();
+            assertEquals(1, replay.read(snapshot));
+            assertEquals(1, replay.read(snapshot));
+
+            clock.advanceNanos(PERIOD);
+            assertEquals(2, replay.read(snapshot));
+            assertEquals(2, replay.read(snapshot));
+        } finally {
+            clock.uninstall();
+        }
+    }
+
+    // Replays the recording through a controller, counting the presses its edge query reports
+    private static int countPresses(HydraGamepadReplay replay, double dt) {
+        HydraPSController controller = new HydraPSController(replay);
+        int[] presses = new int[1];
+        HydraSimulation.replay(replay, dt, () -> {
+            if (controller.wasJustPressed(CROSS)) {
+                presses[0]++;
+            }
+        });
+        return presses[0];
+    }
+
+    // Records a driver tapping cross, starting released, with one packet per loop
+    private File recordTapping() {
+        File file = new File(folder.getRoot(), "tapping.gpad");
+        HydraGamepadRecorder recorder = new HydraGamepadRecorder(file);
+        HydraGamepadSnapshot snapshot = new HydraGamepadSnapshot();
+        for (int i = 0; i < 2 * PRESSES; i++) {
+            int buttons = i % 2 == 1 ? HydraGamepadSnapshot.bit(CROSS) : 0;
+            snapshot.set(buttons, 0f, 0f, 0f, 0f, 0f, 0f);
+            assertTrue(recorder.record(snapshot, i + 1, i * PERIOD));
+        }
+        recorder.close();
+        assertNull(recorder.getError());
+        return file;
+    }
+}
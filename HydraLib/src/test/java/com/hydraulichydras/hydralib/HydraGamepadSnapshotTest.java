@@ -0,0 +1,77 @@
+package com.hydraulichydras.hydralib;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HydraGamepadSnapshotTest {
+
+    private static final HydraSwitches.HydraButton CROSS = HydraSwitches.HydraButton.CROSS;
+    private static final HydraSwitches.HydraButton CIRCLE = HydraSwitches.HydraButton.CIRCLE;
+
+    private final HydraGamepadSnapshot snapshot = new HydraGamepadSnapshot();
+
+    @Test
+    public void everyButtonHasItsOwnBit() {
+        int all = 0;
+        for (HydraSwitches.HydraButton button : HydraSwitches.HydraButton.values()) {
+            int bit = HydraGamepadSnapshot.bit(button);
+            assertEquals(button.name(), 1, Integer.bitCount(bit));
+            assertEquals(button.name(), 0, all & bit);
+            all |= bit;
+        }
+        assertEquals(all, HydraGamepadSnapshot.mask(HydraSwitches.HydraButton.values()));
+    }
+
+    @Test
+    public void edgesFollowPressAndRelease() {
+        press(CROSS);
+        assertTrue(snapshot.isDown(CROSS));
+        assertTrue(snapshot.wasJustPressed(CROSS));
+        assertTrue(snapshot.stateJustChanged(CROSS));
+        assertFalse(snapshot.wasJustReleased(CROSS));
+
+        // Held: no edge
+        press(CROSS);
+        assertTrue(snapshot.isDown(CROSS));
+        assertFalse(snapshot.wasJustPressed(CROSS));
+        assertFalse(snapshot.stateJustChanged(CROSS));
+
+        press();
+        assertFalse(snapshot.isDown(CROSS));
+        assertTrue(snapshot.wasJustReleased(CROSS));
+        assertTrue(snapshot.stateJustChanged(CROSS));
+        assertFalse(snapshot.wasJustPressed(CIRCLE));
+    }
+
+    @Test
+    public void chordFiresOnceWhenCompleted() {
+        int chord = HydraGamepadSnapshot.mask(CROSS, CIRCLE);
+
+        press(CROSS);
+        assertFalse(snapshot.isChordDown(chord));
+        assertFalse(snapshot.wasChordJustPressed(chord));
+
+        press(CROSS, CIRCLE);
+        assertTrue(snapshot.isChordDown(chord));
+        assertTrue(snapshot.wasChordJustPressed(chord));
+
+        press(CROSS, CIRCLE);
+        assertTrue(snapshot.isChordDown(chord));
+        assertFalse(snapshot.wasChordJustPressed(chord));
+    }
+
+    @Test
+    public void clearEdgesForgetsPreviousState() {
+        press(CROSS);
+        snapshot.clearEdges();
+        assertTrue(snapshot.isDown(CROSS));
+        assertEquals(0, snapshot.getChanged());
+    }
+
+    private void press(HydraSwitches.HydraButton... buttons) {
+        snapshot.set(HydraGamepadSnapshot.mask(buttons), 0f, 0f, 0f, 0f, 0f, 0f);
+    }
+}
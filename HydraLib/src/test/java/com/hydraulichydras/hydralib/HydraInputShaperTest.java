@@ -0,0 +1,69 @@
+package com.hydraulichydras.hydralib;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class HydraInputShaperTest {
+
+    @Test
+    public void curvesPassThroughEndpoints() {
+        for (HydraResponseCurve curve : HydraResponseCurve.values()) {
+            assertEquals(curve.name(), 0.0, curve.apply(0.0, 0.7), 1e-12);
+            assertEquals(curve.name(), 1.0, curve.apply(1.0, 0.7), 1e-12);
+        }
+        assertEquals(0.5, HydraResponseCurve.EXPONENTIAL.apply(0.5, 0.0), 0.0);
+    }
+
+    @Test
+    public void deadbandRescalesRemainingTravel() {
+        HydraInputShaper shaper = new HydraInputShaper().setDeadband(0.1);
+
+        assertEquals(0.0, shaper.shape(0.05), 0.0);
+        assertEquals(0.0, shaper.shape(-0.1), 0.0);
+        assertEquals(0.5, shaper.shape(0.55), 1e-12);
+        assertEquals(-0.5, shaper.shape(-0.55), 1e-12);
+        assertEquals(1.0, shaper.shape(1.0), 1e-12);
+        assertEquals(1.0, shaper.shape(1.5), 1e-12);
+    }
+
+    @Test
+    public void tableMatchesCurve() {
+        HydraInputShaper shaper = new HydraInputShaper().setCurve(HydraResponseCurve.EXPONENTIAL, 3.0).setScale(0.5);
+
+        for (int i = 0; i <= 1000; i++) {
+            double x = i / 1000.0;
+            double expected = 0.5 * HydraResponseCurve.EXPONENTIAL.apply(x, 3.0);
+            assertEquals("input " + x, expected, shaper.shape(x), 1e-4);
+            assertEquals("input " + -x, -expected, shaper.shape(-x), 1e-4);
+        }
+    }
+
+    @Test
+    public void slewRateLimitsChange() {
+        HydraInputShaper shaper = new HydraInputShaper().setSlewRate(2.0);
+        long period = 20_000_000L;
+
+        // The first update only records the time
+        assertEquals(0.0, shaper.calculate(1.0, 0L), 0.0);
+        for (int i = 1; i <= 25; i++) {
+            assertEquals(Math.min(1.0, 0.04 * i), shaper.calculate(1.0, i * period), 1e-12);
+        }
+        assertEquals(0.96, shaper.calculate(0.0, 26 * period), 1e-12);
+
+        shaper.reset();
+        assertEquals(0.0, shaper.getOutput(), 0.0);
+    }
+
+    @Test
+    public void withoutSlewRateOutputFollowsInput() {
+        HydraInputShaper shaper = new HydraInputShaper();
+        assertEquals(1.0, shaper.calculate(1.0, 0L), 0.0);
+        assertEquals(-1.0, shaper.calculate(-1.0, 1L), 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fullDeadbandIsRejected() {
+        new HydraInputShaper().setDeadband(1.0);
+    }
+}
@@ -0,0 +1,180 @@
+package com.hydraulichydras.hydralib;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HydraKalmanLocalizerTest {
+
+    private final HydraVirtualClock clock = new HydraVirtualClock();
+
+    // Number of times the filter read the IMU, and the heading it reports
+    private int imuReads;
+    private double imuHeading;
+
+    private final ScriptedOdometry odometry = new ScriptedOdometry();
+    private HydraKalmanLocalizer localizer;
+
+    @Before
+    public void setUp() {
+        clock.install();
+        localizer = new HydraKalmanLocalizer(odometry, () -> {
+            imuReads++;
+            return imuHeading;
+        });
+        localizer.setHeadingUpdatePeriod(0.5);
+        imuReads = 0;
+    }
+
+    @After
+    public void tearDown() {
+        HydraLoopCache.getInstance().reset();
+        clock.uninstall();
+    }
+
+    @Test
+    public void firstHeadingUpdateIsNotSkippedWhenTimeStartsAtZero() {
+        localizer.update();
+        assertEquals(1, imuReads);
+    }
+
+    @Test
+    public void headingUpdatesAreRateLimited() {
+        localizer.update();
+
+        clock.advance(0.1);
+        localizer.update();
+        assertEquals(1, imuReads);
+
+        clock.advance(0.4);
+        localizer.update();
+        assertEquals(2, imuReads);
+    }
+
+    @Test
+    public void predictionFollowsOdometryAndGrowsCovariance() {
+        HydraKalmanLocalizer deadReckoning = new HydraKalmanLocalizer(odometry, null);
+        deadReckoning.setProcessNoise(0.01, 0.005);
+
+        odometry.move(1.0, 0.0, 0.0);
+        for (int i = 0; i < 10; i++) {
+            deadReckoning.update();
+        }
+        assertEquals(10.0, deadReckoning.getPoseEstimate().x, 1e-12);
+        assertEquals(0.1, variance(deadReckoning, 0), 1e-12);
+        assertEquals(0.1, variance(deadReckoning, 1), 1e-12);
+        assertEquals(0.0, variance(deadReckoning, 2), 0.0);
+
+        // Turning grows the heading variance, and heading uncertainty then spreads into position
+        odometry.move(0.0, 0.0, 0.1);
+        deadReckoning.update();
+        assertEquals(0.0005, variance(deadReckoning, 2), 1e-12);
+        odometry.move(1.0, 0.0, 0.0);
+        deadReckoning.update();
+        double lateral = variance(deadReckoning, 1);
+        assertTrue("Lateral variance " + lateral, lateral > 0.11 + 1e-6);
+    }
+
+    @Test
+    public void imuHeadingIsFusedByVariance() {
+        localizer.setProcessNoise(0.01, 0.005);
+        localizer.setHeadingNoise(0.0004);
+
+        // Odometry turns 0.2 rad while the IMU reports 0.3 rad
+        imuHeading = 0.3;
+        odometry.move(0.0, 0.0, 0.2);
+        localizer.update();
+
+        double predicted = 0.005 * 0.2;
+        double gain = predicted / (predicted + 0.0004);
+        assertEquals(0.2 + gain * 0.1, localizer.getPoseEstimate().heading, 1e-12);
+        assertEquals((1.0 - gain) * predicted, variance(localizer, 2), 1e-12);
+    }
+
+    @Test
+    public void absoluteMeasurementIsWeightedByVariance() {
+        HydraKalmanLocalizer deadReckoning = new HydraKalmanLocalizer(odometry, null);
+        deadReckoning.setProcessNoise(0.01, 0.005);
+        odometry.move(1.0, 0.0, 0.0);
+        for (int i = 0; i < 10; i++) {
+            deadReckoning.update();
+        }
+
+        // Equal variances: the estimate moves halfway and its variance halves
+        deadReckoning.addAbsoluteMeasurement(12.0, 1.0, 0.0, 0.1, 0.01);
+        assertEquals(11.0, deadReckoning.getPoseEstimate().x, 1e-9);
+        assertEquals(0.5, deadReckoning.getPoseEstimate().y, 1e-9);
+        assertEquals(0.05, variance(deadReckoning, 0), 1e-9);
+        assertEquals(0.05, variance(deadReckoning, 1), 1e-9);
+    }
+
+    @Test
+    public void delayedMeasurementIsCarriedForward() {
+        HydraKalmanLocalizer deadReckoning = new HydraKalmanLocalizer(odometry, null);
+        deadReckoning.setProcessNoise(0.01, 0.005);
+        HydraLoopCache cache = HydraLoopCache.getInstance();
+        odometry.move(1.0, 0.0, 0.0);
+
+        long captureTime = 0;
+        for (int i = 1; i <= 10; i++) {
+            clock.advance(0.01);
+            cache.update();
+            deadReckoning.update();
+            if (i == 5) {
+                captureTime = cache.getTimestamp();
+            }
+        }
+
+        // Captured when the estimate was x = 5, and the robot moved 5 since
+        assertTrue(deadReckoning.addAbsoluteMeasurement(5.5, 0.0, 0.0, 0.1, 0.01, captureTime));
+        assertEquals(10.25, deadReckoning.getPoseEstimate().x, 1e-9);
+
+        // The history moved with the correction
+        HydraPose past = new HydraPose();
+        assertTrue(deadReckoning.getPoseHistory().getPose(captureTime, past));
+        assertEquals(5.25, past.x, 1e-9);
+
+        // Older than the history: rejected
+        assertFalse(deadReckoning.addAbsoluteMeasurement(0.0, 0.0, 0.0, 0.1, 0.01, 0L));
+    }
+
+    @Test
+    public void historyUsesLoopTimestamp() {
+        HydraLoopCache cache = HydraLoopCache.getInstance();
+        clock.advance(1.0);
+        cache.update();
+
+        // Time passes within the loop before the localizer runs
+        clock.advance(0.004);
+        localizer.update();
+
+        assertEquals(cache.getTimestamp(), localizer.getPoseHistory().getNewestTimestamp());
+    }
+
+    private static double variance(HydraKalmanLocalizer localizer, int i) {
+        return localizer.getCovariance().get(i, i);
+    }
+
+    // Odometry reporting a set robot-frame motion on every update
+    private static class ScriptedOdometry extends HydraDeadWheelLocalizer {
+
+        private double dx;
+        private double dy;
+        private double dHeading;
+
+        void move(double dx, double dy, double dHeading) {
+            this.dx = dx;
+            this.dy = dy;
+            this.dHeading = dHeading;
+        }
+
+        @Override
+        public void update() {
+            integrate(dx, dy, dHeading);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.hydraulichydras.hydralib;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class HydraKinematicsTest {
+
+    private static final double K = (14.0 + 12.0) / 2.0;
+
+    @Test
+    public void mecanumForwardInvertsInverse() {
+        Random random = new Random(43);
+        double[] wheels = new double[4];
+        HydraPose velocity = new HydraPose();
+        for (int i = 0; i < 1000; i++) {
+            double vx = random.nextDouble() * 100 - 50;
+            double vy = random.nextDouble() * 100 - 50;
+            double omega = random.nextDouble() * 8 - 4;
+            HydraKinematics.mecanumInverse(vx, vy, omega, K, wheels);
+            HydraKinematics.mecanumForward(wheels, K, velocity);
+            assertEquals(vx, velocity.x, 1e-9);
+            assertEquals(vy, velocity.y, 1e-9);
+            assertEquals(omega, velocity.heading, 1e-12);
+        }
+    }
+
+    @Test
+    public void mecanumWheelsMatchDriveDirections() {
+        double[] wheels = new double[4];
+        HydraPose velocity = new HydraPose();
+
+        // Forward: every wheel forward
+        HydraKinematics.mecanumPowers(1, 0, 0, wheels);
+        assertArrayEquals(new double[] {1, 1, 1, 1}, wheels, 0.0);
+        HydraKinematics.mecanumForward(wheels, K, velocity);
+        assertEquals(1.0, velocity.x, 0.0);
+        assertEquals(0.0, velocity.y, 0.0);
+        assertEquals(0.0, velocity.heading, 0.0);
+
+        // Strafe right: left front and right rear forward, moving toward negative y
+        HydraKinematics.mecanumPowers(0, 1, 0, wheels);
+        assertArrayEquals(new double[] {1, -1, 1, -1}, wheels, 0.0);
+        HydraKinematics.mecanumForward(wheels, K, velocity);
+        assertEquals(0.0, velocity.x, 0.0);
+        assertEquals(-1.0, velocity.y, 0.0);
+        assertEquals(0.0, velocity.heading, 0.0);
+
+        // Turn clockwise: left side forward, heading decreasing
+        HydraKinematics.mecanumPowers(0, 0, 1, wheels);
+        assertArrayEquals(new double[] {1, 1, -1, -1}, wheels, 0.0);
+        HydraKinematics.mecanumForward(wheels, K, velocity);
+        assertEquals(0.0, velocity.x, 0.0);
+        assertEquals(0.0, velocity.y, 0.0);
+        assertEquals(-1.0 / K, velocity.heading, 1e-15);
+    }
+
+    @Test
+    public void xDriveForwardInvertsInverse() {
+        Random random = new Random(44);
+        double[] wheels = new double[4];
+        HydraPose velocity = new HydraPose();
+        for (int i = 0; i < 1000; i++) {
+            double vx = random.nextDouble() * 100 - 50;
+            double vy = random.nextDouble() * 100 - 50;
+            double omega = random.nextDouble() * 8 - 4;
+            HydraKinematics.xDriveInverse(vx, vy, omega, 9.0, wheels);
+            HydraKinematics.xDriveForward(wheels, 9.0, velocity);
+            assertEquals(vx, velocity.x, 1e-9);
+            assertEquals(vy, velocity.y, 1e-9);
+            assertEquals(omega, velocity.heading, 1e-12);
+        }
+    }
+
+    @Test
+    public void tankForwardInvertsInverse() {
+        double[] wheels = new double[2];
+        HydraKinematics.tankInverse(30, 2, 14, wheels);
+        assertArrayEquals(new double[] {16, 44}, wheels, 1e-12);
+        HydraPose velocity = HydraKinematics.tankForward(wheels, 14, new HydraPose());
+        assertEquals(30.0, velocity.x, 1e-12);
+        assertEquals(0.0, velocity.y, 0.0);
+        assertEquals(2.0, velocity.heading, 1e-12);
+    }
+
+    @Test
+    public void desaturateKeepsRatios() {
+        double[] values = {2.0, -4.0, 1.0, 0.5};
+        assertEquals(4.0, HydraKinematics.desaturate(values, 1.0), 0.0);
+        assertArrayEquals(new double[] {0.5, -1.0, 0.25, 0.125}, values, 0.0);
+
+        double[] within = {0.5, -0.25, 1.0, 0.0};
+        assertEquals(1.0, HydraKinematics.desaturate(within, 1.0), 0.0);
+        assertArrayEquals(new double[] {0.5, -0.25, 1.0, 0.0}, within, 0.0);
+    }
+
+    @Test
+    public void scaleForVoltageIgnoresMissingReading() {
+        double[] values = {0.5, -0.5};
+        HydraKinematics.scaleForVoltage(values, 0.0);
+        assertArrayEquals(new double[] {0.5, -0.5}, values, 0.0);
+
+        HydraKinematics.scaleForVoltage(values, 10.0);
+        assertArrayEquals(new double[] {0.6, -0.6}, values, 1e-12);
+    }
+}
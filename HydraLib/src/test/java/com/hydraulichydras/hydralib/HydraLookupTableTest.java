@@ -0,0 +1,134 @@
+package com.hydraulichydras.hydralib;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HydraLookupTableTest {
+
+    @Test
+    public void gridPointsAreExact() {
+        double[] xs = {0.0, 1.0, 2.5, 4.0, 7.0};
+        double[] ys = {3.0, -1.0, 2.0, 8.0, 0.5};
+        for (HydraInterpolation interpolation : HydraInterpolation.values()) {
+            HydraLookupTable1d table = new HydraLookupTable1d(xs, ys, interpolation);
+            assertFalse(table.isUniform());
+            for (int i = 0; i < xs.length; i++) {
+                assertEquals(interpolation.name(), ys[i], table.get(xs[i]), 1e-12);
+            }
+        }
+    }
+
+    @Test
+    public void linearReproducesLines() {
+        HydraLookupTable1d table = HydraLookupTable1d.compile(x -> 2.0 * x - 1.0, -5.0, 5.0, 11, HydraInterpolation.LINEAR);
+        assertTrue(table.isUniform());
+        for (double x = -5.0; x <= 5.0; x += 0.1) {
+            assertEquals(2.0 * x - 1.0, table.get(x), 1e-12);
+        }
+    }
+
+    @Test
+    public void cubicReproducesParabolas() {
+        double[] xs = {0.0, 0.5, 2.0, 2.25, 4.0, 6.0};
+        double[] ys = new double[xs.length];
+        for (int i = 0; i < xs.length; i++) {
+            ys[i] = xs[i] * xs[i] - 3.0 * xs[i];
+        }
+        HydraLookupTable1d table = new HydraLookupTable1d(xs, ys, HydraInterpolation.CUBIC);
+        for (double x = 0.0; x <= 6.0; x += 0.05) {
+            assertEquals(x * x - 3.0 * x, table.get(x), 1e-9);
+        }
+    }
+
+    @Test
+    public void uniformIndexingMatchesBinarySearch() {
+        HydraPolynomial polynomial = new HydraPolynomial(1.0, -2.0, 0.5, 0.25);
+        HydraLookupTable1d uniform = HydraLookupTable1d.compile(polynomial, -3.0, 3.0, 61, HydraInterpolation.CUBIC);
+
+        // The same grid with one point nudged, so lookups fall back to binary search
+        double[] xs = HydraLookupTable1d.grid(-3.0, 3.0, 61);
+        xs[30] += 1e-6;
+        double[] ys = new double[xs.length];
+        polynomial.calculate(xs, ys);
+        HydraLookupTable1d searched = new HydraLookupTable1d(xs, ys, HydraInterpolation.CUBIC);
+
+        assertTrue(uniform.isUniform());
+        assertFalse(searched.isUniform());
+        Random random = new Random(47);
+        for (int i = 0; i < 10000; i++) {
+            double x = random.nextDouble() * 6.0 - 3.0;
+            assertEquals(polynomial.calculate(x), uniform.get(x), 1e-3);
+            assertEquals(uniform.get(x), searched.get(x), 1e-4);
+        }
+    }
+
+    @Test
+    public void inputsAreClamped() {
+        HydraLookupTable1d table = new HydraLookupTable1d(new double[] {1.0, 2.0}, new double[] {10.0, 20.0},
+                HydraInterpolation.LINEAR);
+        assertEquals(10.0, table.get(-100.0), 0.0);
+        assertEquals(20.0, table.get(100.0), 0.0);
+
+        HydraLookupTable2d table2d = HydraLookupTable2d.compile((x, y) -> x + 10.0 * y, 0.0, 1.0, 3, 0.0, 1.0, 3,
+                HydraInterpolation.LINEAR);
+        assertEquals(0.0, table2d.get(-1.0, -1.0), 1e-12);
+        assertEquals(11.0, table2d.get(2.0, 2.0), 1e-12);
+    }
+
+    @Test
+    public void bilinearReproducesBilinearFunctions() {
+        double[] xs = {0.0, 1.0, 3.0, 4.0};
+        double[] ys = {-2.0, 0.0, 0.5, 2.0};
+        double[][] values = new double[xs.length][ys.length];
+        for (int i = 0; i < xs.length; i++) {
+            for (int j = 0; j < ys.length; j++) {
+                values[i][j] = bilinear(xs[i], ys[j]);
+            }
+        }
+        HydraLookupTable2d table = new HydraLookupTable2d(xs, ys, values, HydraInterpolation.LINEAR);
+
+        Random random = new Random(48);
+        for (int i = 0; i < 1000; i++) {
+            double x = random.nextDouble() * 4.0;
+            double y = random.nextDouble() * 4.0 - 2.0;
+            assertEquals(bilinear(x, y), table.get(x, y), 1e-12);
+        }
+    }
+
+    @Test
+    public void bicubicReproducesQuadratics() {
+        HydraLookupTable2d table = HydraLookupTable2d.compile(HydraLookupTableTest::quadratic, -1.0, 1.0, 9, 0.0, 2.0, 5,
+                HydraInterpolation.CUBIC);
+
+        Random random = new Random(49);
+        for (int i = 0; i < 1000; i++) {
+            double x = random.nextDouble() * 2.0 - 1.0;
+            double y = random.nextDouble() * 2.0;
+            assertEquals(quadratic(x, y), table.get(x, y), 1e-9);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decreasingGridIsRejected() {
+        new HydraLookupTable1d(new double[] {0.0, 2.0, 1.0}, new double[] {0.0, 0.0, 0.0}, HydraInterpolation.LINEAR);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mismatchedValuesAreRejected() {
+        new HydraLookupTable2d(new double[] {0.0, 1.0}, new double[] {0.0, 1.0}, new double[][] {{0.0, 0.0}},
+                HydraInterpolation.LINEAR);
+    }
+
+    private static double bilinear(double x, double y) {
+        return 1.0 + 2.0 * x - 3.0 * y + 0.5 * x * y;
+    }
+
+    private static double quadratic(double x, double y) {
+        return x * x - 2.0 * x * y + 0.5 * y * y + x - y + 3.0;
+    }
+}
@@ -0,0 +1,52 @@
+package com.hydraulichydras.hydralib;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class HydraMecanumDriveTest {
+
+    private final FakeDcMotor[] motors = {new FakeDcMotor(), new FakeDcMotor(), new FakeDcMotor(), new FakeDcMotor()};
+    private final HydraMecanumDrive drive = new HydraMecanumDrive(new HydraMecanumDrivetrain(
+            motors[0].motor, motors[1].motor, motors[2].motor, motors[3].motor), null, () -> 0.0);
+
+    // Driving forward at 20 while speeding up at 10
+    private final HydraDriveSignal signal = new HydraDriveSignal(new HydraPose(20, 0, 0), new HydraPose(10, 0, 0));
+
+    @After
+    public void tearDown() {
+        HydraLoopCache.getInstance().reset();
+    }
+
+    @Test
+    public void feedforwardSetsEveryWheel() {
+        drive.setFeedforward(0.02, 0.004, 0.05);
+        drive.setDriveSignal(signal);
+        assertPowers(0.02 * 20 + 0.004 * 10 + 0.05);
+    }
+
+    @Test
+    public void compensationUsesTheLoopCacheVoltage() {
+        drive.setFeedforward(0.02, 0.0, 0.0);
+        drive.setVoltageCompensation(true);
+
+        // Without a voltage service the powers are left as they are
+        drive.setDriveSignal(signal);
+        assertPowers(0.4);
+
+        HydraLoopCache.getInstance().setVoltageService(new HydraVoltageService(() -> 10.0));
+        drive.setDriveSignal(signal);
+        assertPowers(0.4 * HydraKinematics.NOMINAL_VOLTAGE / 10.0);
+
+        drive.setVoltageCompensation(false);
+        drive.setDriveSignal(signal);
+        assertPowers(0.4);
+    }
+
+    private void assertPowers(double expected) {
+        for (FakeDcMotor motor : motors) {
+            assertEquals(expected, motor.power, 1e-9);
+        }
+    }
+}
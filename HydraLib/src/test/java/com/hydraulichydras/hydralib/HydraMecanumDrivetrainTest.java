@@ -0,0 +1,130 @@
+package com.hydraulichydras.hydralib;
+
+import com.qualcomm.robotcore.hardware.Gamepad;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class HydraMecanumDrivetrainTest {
+
+    private final FakeDcMotor[] motors = {new FakeDcMotor(), new FakeDcMotor(), new FakeDcMotor(), new FakeDcMotor()};
+    private final HydraMecanumDrivetrain drivetrain = new HydraMecanumDrivetrain(
+            motors[0].motor, motors[1].motor, motors[2].motor, motors[3].motor);
+    private final Gamepad gamepad = new Gamepad();
+    private final HydraVirtualClock clock = new HydraVirtualClock();
+
+    // Heading reported to the loop cache (in radians)
+    private double heading;
+
+    @Before
+    public void setUp() {
+        clock.install();
+        HydraLoopCache.getInstance().setHeadingSource(() -> heading);
+    }
+
+    @After
+    public void tearDown() {
+        HydraLoopCache.getInstance().reset();
+        clock.uninstall();
+    }
+
+    @Test
+    public void forwardIsAwayFromTheDriverAtAnyHeading() {
+        gamepad.left_stick_y = -0.5f;
+
+        assertRobotMotion(0.0, 0.5, 0.0, 0.0);
+
+        // Facing left, away from the driver is to the robot's right
+        assertRobotMotion(Math.PI / 2, 0.0, -0.5, 0.0);
+        assertRobotMotion(-Math.PI / 2, 0.0, 0.5, 0.0);
+
+        // Facing the driver, away from them is backwards
+        assertRobotMotion(Math.PI, -0.5, 0.0, 0.0);
+    }
+
+    @Test
+    public void strafeIsToTheDriversRightAtAnyHeading() {
+        gamepad.left_stick_x = 0.5f;
+
+        assertRobotMotion(0.0, 0.0, -0.5, 0.0);
+
+        // Facing left, the driver's right is behind the robot
+        assertRobotMotion(Math.PI / 2, -0.5, 0.0, 0.0);
+        assertRobotMotion(-Math.PI / 2, 0.5, 0.0, 0.0);
+
+        // Facing the driver, their right is the robot's left
+        assertRobotMotion(Math.PI, 0.0, 0.5, 0.0);
+    }
+
+    @Test
+    public void turnIsClockwiseWhateverTheHeading() {
+        gamepad.right_stick_x = 0.5f;
+        assertRobotMotion(0.0, 0.0, 0.0, -0.5);
+        assertRobotMotion(Math.PI / 2, 0.0, 0.0, -0.5);
+    }
+
+    @Test
+    public void headingLockTurnsBackAgainstDisturbance() {
+        drivetrain.setHeadingLock(new HydraPIDCoefficients(1.0, 0.0, 0.0));
+
+        // Released stick: the heading it stops at is held
+        heading = 0.5;
+        assertRobotMotion(0.5, 0.0, 0.0, 0.0);
+
+        // Bumped counter-clockwise, the robot turns clockwise to recover, and the other way
+        assertRobotMotion(0.6, 0.0, 0.0, -0.1);
+        assertRobotMotion(0.4, 0.0, 0.0, 0.1);
+
+        // The driver turning overrides the lock, which then holds the new heading
+        gamepad.right_stick_x = 0.5f;
+        assertRobotMotion(0.4, 0.0, 0.0, -0.5);
+        gamepad.right_stick_x = 0.0f;
+        assertRobotMotion(0.2, 0.0, 0.0, 0.0);
+        assertRobotMotion(0.3, 0.0, 0.0, -0.1);
+    }
+
+    @Test
+    public void headingLockSettlesAfterBump() {
+        drivetrain.setHeadingLock(new HydraPIDCoefficients(1.0, 0.0, 0.0));
+        drive();
+
+        // Knocked 0.3 rad counter-clockwise, then turning at 5 rad/s per unit of power
+        heading = 0.3;
+        for (int i = 0; i < 200; i++) {
+            clock.advance(0.01);
+            drive();
+            heading += robotMotion().heading * 5.0 * 0.01;
+        }
+        assertEquals(0.0, heading, 0.001);
+    }
+
+    // Drives at a heading and checks the robot-frame motion the wheel powers produce
+    private void assertRobotMotion(double heading, double forward, double left, double counterClockwise) {
+        this.heading = heading;
+        drive();
+        HydraPose motion = robotMotion();
+        String at = " at heading " + heading;
+        assertEquals("forward" + at, forward, motion.x, 1e-9);
+        assertEquals("left" + at, left, motion.y, 1e-9);
+        assertEquals("turn" + at, counterClockwise, motion.heading, 1e-9);
+    }
+
+    // Runs one loop of field-centric driver control
+    private void drive() {
+        HydraLoopCache.getInstance().update();
+        drivetrain.setFieldCentricDriverControl(gamepad);
+    }
+
+    // Robot-frame motion commanded by the wheel powers
+    private HydraPose robotMotion() {
+        double[] powers = new double[4];
+        for (int i = 0; i < 4; i++) {
+            powers[i] = motors[i].power;
+        }
+        HydraPose motion = new HydraPose();
+        return HydraKinematics.mecanumForward(powers, 1.0, motion);
+    }
+}
@@ -0,0 +1,76 @@
+package com.hydraulichydras.hydralib;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HydraMotionProfileGeneratorTest {
+
+    private static final double EPSILON = 1e-9;
+
+    private final HydraMotionConstraints sCurve = new HydraMotionConstraints(40.0, 60.0, 300.0);
+
+    @Test
+    public void profileEndsAtRestAtGoal() {
+        HydraMotionProfile profile = HydraMotionProfileGenerator.generate(0.0, 30.0, sCurve);
+        HydraMotionState state = profile.get(profile.getDuration(), new HydraMotionState());
+
+        assertEquals(30.0, profile.getEndPosition(), 1e-6);
+        assertEquals(0.0, profile.getEndVelocity(), 1e-6);
+        assertEquals(30.0, state.x, 1e-6);
+        assertJerkLimited(profile, sCurve);
+    }
+
+    @Test
+    public void replanMidAccelerationKeepsAccelerationContinuous() {
+        HydraMotionProfile profile = HydraMotionProfileGenerator.generate(0.0, 30.0, sCurve);
+        HydraMotionState state = profile.get(0.15, new HydraMotionState());
+        assertTrue("Sample should be mid-acceleration", state.a > 1.0);
+
+        // Reverse the goal while still accelerating towards the old one
+        HydraMotionProfile replanned = new HydraMotionProfile();
+        HydraMotionProfileGenerator.generate(state.x, state.v, state.a, -10.0, sCurve, replanned);
+
+        HydraMotionState start = replanned.get(0.0, new HydraMotionState());
+        assertEquals(state.x, start.x, EPSILON);
+        assertEquals(state.v, start.v, EPSILON);
+        assertEquals(state.a, start.a, EPSILON);
+        assertEquals(-10.0, replanned.getEndPosition(), 1e-6);
+        assertEquals(0.0, replanned.getEndVelocity(), 1e-6);
+        assertJerkLimited(replanned, sCurve);
+    }
+
+    @Test
+    public void replanFromRestMatchesPlainGenerate() {
+        HydraMotionProfile plain = HydraMotionProfileGenerator.generate(2.0, 12.0, sCurve);
+        HydraMotionProfile explicit = HydraMotionProfileGenerator.generate(2.0, 0.0, 0.0, 12.0, sCurve, new HydraMotionProfile());
+
+        assertEquals(plain.getDuration(), explicit.getDuration(), EPSILON);
+        assertEquals(plain.getSegmentCount(), explicit.getSegmentCount());
+    }
+
+    @Test
+    public void trapezoidIgnoresStartingAcceleration() {
+        HydraMotionConstraints trapezoid = new HydraMotionConstraints(40.0, 60.0);
+        HydraMotionProfile withAcceleration = HydraMotionProfileGenerator.generate(0.0, 5.0, 50.0, 20.0, trapezoid, new HydraMotionProfile());
+        HydraMotionProfile withoutAcceleration = HydraMotionProfileGenerator.generate(0.0, 5.0, 20.0, trapezoid, new HydraMotionProfile());
+
+        assertEquals(withoutAcceleration.getDuration(), withAcceleration.getDuration(), EPSILON);
+    }
+
+    // Checks that acceleration never steps by more than the jerk limit allows between samples
+    private static void assertJerkLimited(HydraMotionProfile profile, HydraMotionConstraints constraints) {
+        double dt = 1e-4;
+        HydraMotionState state = new HydraMotionState();
+        double lastAcceleration = profile.get(0.0, state).a;
+        for (double t = dt; t < profile.getDuration(); t += dt) {
+            double acceleration = profile.get(t, state).a;
+            assertTrue("Acceleration exceeds the limit at t = " + t,
+                    Math.abs(acceleration) <= constraints.maxAcceleration + 1e-6);
+            assertTrue("Acceleration step at t = " + t,
+                    Math.abs(acceleration - lastAcceleration) <= constraints.maxJerk * dt * (1 + 1e-6));
+            lastAcceleration = acceleration;
+        }
+    }
+}
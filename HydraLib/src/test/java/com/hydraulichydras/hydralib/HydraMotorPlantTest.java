@@ -0,0 +1,41 @@
+package com.hydraulichydras.hydralib;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HydraMotorPlantTest {
+
+    @Test
+    public void withoutDeadTimeInputActsImmediately() {
+        HydraMotorPlant plant = new HydraMotorPlant(HydraControlTarget.VELOCITY, 100.0, 0.1, 0.0);
+        plant.setInput(1.0);
+        plant.step(0.001);
+        assertEquals(1.0, plant.getVelocity(), 1e-12);
+    }
+
+    @Test
+    public void deadTimeDelaysInput() {
+        HydraMotorPlant plant = new HydraMotorPlant(HydraControlTarget.VELOCITY, 100.0, 0.1, 0.02);
+        plant.setInput(1.0);
+        plant.step(0.02);
+        assertEquals(0.0, plant.getVelocity(), 0.0);
+        plant.step(0.001);
+        assertEquals(1.0, plant.getVelocity(), 1e-12);
+    }
+
+    @Test
+    public void velocitySettlesAtGainTimesPower() {
+        HydraMotorPlant plant = new HydraMotorPlant(HydraControlTarget.POSITION, 100.0, 0.1, 0.01);
+        plant.setInput(0.5);
+        plant.step(0.11);
+
+        // One time constant after the dead time: 63% of the way
+        assertEquals(50.0 * (1.0 - Math.exp(-1.0)), plant.getVelocity(), 0.5);
+        plant.step(2.0);
+        assertEquals(50.0, plant.getVelocity(), 1e-6);
+        assertTrue(plant.getMeasurement() > 0.0);
+        assertEquals(plant.getPosition(), plant.getMeasurement(), 0.0);
+    }
+}
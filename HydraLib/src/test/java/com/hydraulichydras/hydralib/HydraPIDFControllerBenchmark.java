@@ -0,0 +1,87 @@
+package com.hydraulichydras.hydralib;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-update cost of {@link HydraPIDFController}, on its own and through the batch update.
+ * Run {@link #main} from the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HydraPIDFControllerBenchmark {
+
+    private static final int BATCH = 8;
+    private static final double DT = 0.01;
+
+    private HydraPIDFController controller;
+    private HydraPIDFController filtered;
+    private final HydraPIDFController[] controllers = new HydraPIDFController[BATCH];
+    private final double[] measurements = new double[BATCH];
+    private final double[] setpoints = new double[BATCH];
+    private final double[] outputs = new double[BATCH];
+
+    // Measurement that changes on every update so nothing can be folded away
+    private double measurement;
+
+    @Setup
+    public void setUp() {
+        HydraPIDCoefficients coefficients = new HydraPIDCoefficients(0.8, 0.2, 0.05, 0.01);
+        controller = new HydraPIDFController(coefficients).setOutputLimits(-1.0, 1.0);
+        filtered = new HydraPIDFController(coefficients)
+                .setOutputLimits(-1.0, 1.0)
+                .setAntiWindup(HydraAntiWindup.BACK_CALCULATION)
+                .setDerivativeFilter(0.7)
+                .setDerivativeOnMeasurement(true)
+                .setContinuous(true);
+        for (int i = 0; i < BATCH; i++) {
+            controllers[i] = new HydraPIDFController(coefficients).setOutputLimits(-1.0, 1.0);
+            setpoints[i] = i;
+        }
+    }
+
+    @Benchmark
+    public double update() {
+        measurement = measurement * 0.999 + 0.001;
+        return controller.calculate(measurement, 1.0, DT);
+    }
+
+    @Benchmark
+    public double updateAllOptions() {
+        measurement = measurement * 0.999 + 0.001;
+        return filtered.calculate(measurement, 1.0, DT);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public double[] batchUpdate() {
+        measurement = measurement * 0.999 + 0.001;
+        for (int i = 0; i < BATCH; i++) {
+            measurements[i] = measurement + i;
+        }
+        HydraPIDFController.calculate(controllers, measurements, setpoints, DT, outputs);
+        return outputs;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(HydraPIDFControllerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,84 @@
+package com.hydraulichydras.hydralib;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class HydraPSControllerTest {
+
+    private static final HydraSwitches.HydraButton CROSS = HydraSwitches.HydraButton.CROSS;
+
+    // Buttons held on the fake gamepad, and the number of times it was read
+    private int buttons;
+    private int reads;
+
+    private final HydraPSController controller = new HydraPSController(out -> {
+        reads++;
+        out.set(buttons, 0f, 0f, 0f, 0f, 0f, 0f);
+        return reads;
+    });
+
+    @After
+    public void tearDown() {
+        HydraLoopCache.getInstance().reset();
+    }
+
+    @Test
+    public void gamepadIsCapturedOncePerLoop() {
+        HydraLoopCache cache = HydraLoopCache.getInstance();
+        reads = 0;
+
+        cache.update();
+        buttons = HydraGamepadSnapshot.bit(CROSS);
+        assertTrue(controller.wasJustPressed(CROSS));
+
+        // Changes within a loop are not seen until the next one
+        buttons = 0;
+        assertTrue(controller.isDown(CROSS));
+        assertTrue(controller.getControllerButton(CROSS).get());
+        assertEquals(1, reads);
+
+        cache.update();
+        assertFalse(controller.isDown(CROSS));
+        assertTrue(controller.wasJustReleased(CROSS));
+        assertEquals(2, reads);
+    }
+
+    @Test
+    public void withoutLoopCacheEdgesComeFromReadButtons() {
+        buttons = HydraGamepadSnapshot.bit(CROSS);
+        assertFalse(controller.wasJustPressed(CROSS));
+
+        controller.readButtons();
+        assertTrue(controller.wasJustPressed(CROSS));
+
+        // isDown reads the gamepad live, while the edges stay as of the last readButtons()
+        buttons = 0;
+        assertFalse(controller.isDown(CROSS));
+        assertTrue(controller.wasJustPressed(CROSS));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void deprecatedReadersFollowSnapshot() {
+        assertSame(controller.getControllerButton(CROSS), controller.controllerReader.get(CROSS));
+        HydraSwitchReader reader = controller.switchReader.get(CROSS);
+
+        buttons = HydraGamepadSnapshot.bit(CROSS);
+        controller.readButtons();
+        assertTrue(reader.isDown());
+        assertTrue(reader.wasJustPressed());
+
+        controller.readButtons();
+        assertFalse(reader.wasJustPressed());
+
+        buttons = 0;
+        controller.readButtons();
+        assertTrue(reader.wasJustReleased());
+        assertFalse(reader.isDown());
+    }
+}
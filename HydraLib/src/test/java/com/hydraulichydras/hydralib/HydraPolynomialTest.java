@@ -0,0 +1,81 @@
+package com.hydraulichydras.hydralib;
+
+import org.ejml.simple.SimpleMatrix;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class HydraPolynomialTest {
+
+    // 2 - 3x + 0.5x^2 + 4x^3
+    private final HydraPolynomial polynomial = new HydraPolynomial(2.0, -3.0, 0.5, 4.0);
+
+    @Test
+    public void calculateMatchesSumOfPowers() {
+        for (double x = -3.0; x <= 3.0; x += 0.125) {
+            assertEquals(2.0 - 3.0 * x + 0.5 * x * x + 4.0 * x * x * x, polynomial.calculate(x), 1e-12);
+            assertEquals(2.0 - 3.0 * x, polynomial.calculate(x, 1), 1e-12);
+        }
+    }
+
+    @Test
+    public void batchMatchesSingleEvaluation() {
+        double[] xs = {-2.0, -0.5, 0.0, 1.0, 2.5};
+        double[] values = new double[xs.length];
+        double[] slopes = new double[xs.length];
+        polynomial.calculate(xs, values);
+        polynomial.calculateDerivative(xs, 1, slopes);
+        for (int i = 0; i < xs.length; i++) {
+            assertEquals(polynomial.calculate(xs[i]), values[i], 0.0);
+            assertEquals(polynomial.calculateDerivative(xs[i], 1), slopes[i], 0.0);
+        }
+    }
+
+    @Test
+    public void derivativesMatchDerivativePolynomials() {
+        assertArrayEquals(new double[] {-3.0, 1.0, 12.0}, polynomial.derivative().getCoefficients(), 0.0);
+        assertArrayEquals(new double[] {24.0}, polynomial.derivative(3).getCoefficients(), 0.0);
+        assertArrayEquals(new double[] {0.0}, polynomial.derivative(4).getCoefficients(), 0.0);
+
+        for (double x = -3.0; x <= 3.0; x += 0.25) {
+            for (int order = 0; order <= 5; order++) {
+                assertEquals(polynomial.derivative(order).calculate(x), polynomial.calculateDerivative(x, order), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void fitRecoversCoefficients() {
+        Random random = new Random(46);
+        double[] xs = new double[200];
+        double[] ys = new double[200];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = -2.0 + 4.0 * i / (xs.length - 1);
+            ys[i] = polynomial.calculate(xs[i]) + random.nextGaussian() * 1e-3;
+        }
+
+        HydraPolynomial fitted = HydraPolynomial.fit(xs, ys, 3);
+        assertEquals(3, fitted.getDegree());
+        assertArrayEquals(polynomial.getCoefficients(), fitted.getCoefficients(), 1e-3);
+    }
+
+    @Test
+    public void matrixConstructorKeepsOrder() {
+        HydraPolynomial fromMatrix = new HydraPolynomial(new SimpleMatrix(new double[][] {{2.0}, {-3.0}, {0.5}, {4.0}}));
+        assertArrayEquals(polynomial.getCoefficients(), fromMatrix.getCoefficients(), 0.0);
+        assertEquals("[2.0, -3.0, 0.5, 4.0]", fromMatrix.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidDegreeIsRejected() {
+        polynomial.calculate(1.0, 4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fitNeedsEnoughSamples() {
+        HydraPolynomial.fit(new double[] {0.0, 1.0}, new double[] {0.0, 1.0}, 2);
+    }
+}
@@ -0,0 +1,146 @@
+package com.hydraulichydras.hydralib;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HydraPoseHistoryTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void oldestPosesAreOverwrittenWhenFull() {
+        HydraPoseHistory history = new HydraPoseHistory(4);
+        for (int i = 0; i < 6; i++) {
+            history.record(i * 10 * MS, i, 0, 0);
+        }
+
+        assertEquals(4, history.size());
+        assertEquals(20 * MS, history.getOldestTimestamp());
+        assertEquals(50 * MS, history.getNewestTimestamp());
+
+        HydraPose pose = new HydraPose();
+        assertFalse(history.getPose(15 * MS, pose));
+        for (int i = 2; i < 6; i++) {
+            assertTrue(history.getPose(i * 10 * MS, pose));
+            assertEquals(i, pose.x, 0.0);
+        }
+        assertTrue(history.getPose(45 * MS, pose));
+        assertEquals(4.5, pose.x, 1e-12);
+    }
+
+    @Test
+    public void olderPosesAreIgnored() {
+        HydraPoseHistory history = new HydraPoseHistory(4);
+        history.record(20 * MS, 1, 0, 0);
+        history.record(10 * MS, 2, 0, 0);
+        assertEquals(1, history.size());
+    }
+
+    @Test
+    public void lookupsOutsideTheRecordedRangeFail() {
+        HydraPoseHistory history = new HydraPoseHistory(4);
+        HydraPose pose = new HydraPose(7, 7, 7);
+        assertFalse(history.getPose(0, pose));
+
+        history.record(10 * MS, 1, 2, 0);
+        history.record(20 * MS, 3, 4, 0);
+        assertFalse(history.getPose(5 * MS, pose));
+        assertFalse(history.getPose(25 * MS, pose));
+        assertEquals(7.0, pose.x, 0.0);
+
+        assertTrue(history.getPose(20 * MS, pose));
+        assertEquals(3.0, pose.x, 0.0);
+        assertEquals(4.0, pose.y, 0.0);
+    }
+
+    @Test
+    public void headingInterpolatesAcrossTheSeam() {
+        HydraPoseHistory history = new HydraPoseHistory(4);
+        history.record(0, 0, 0, Math.PI - 0.1);
+        history.record(10 * MS, 0, 0, -Math.PI + 0.1);
+
+        HydraPose pose = new HydraPose();
+        assertTrue(history.getPose(5 * MS, pose));
+        assertEquals(Math.PI, Math.abs(pose.heading), 1e-12);
+
+        assertTrue(history.getPose(15 * MS / 2, pose));
+        assertEquals(-Math.PI + 0.05, pose.heading, 1e-12);
+    }
+
+    @Test
+    public void measurementIsCarriedForwardInTheRobotFrame() {
+        HydraPoseHistory history = new HydraPoseHistory(8);
+
+        // Facing +y, the robot drove 2 forward and turned a quarter turn left
+        history.record(0, 0, 0, Math.PI / 2);
+        history.record(10 * MS, 0, 2, Math.PI);
+        HydraPose current = new HydraPose(0, 2, Math.PI);
+
+        // The measurement says the robot was actually at (5, 5) facing +x when the frame was captured
+        HydraPose out = new HydraPose();
+        assertTrue(history.projectToPresent(0, 5, 5, 0, current, out));
+        assertEquals(7.0, out.x, 1e-9);
+        assertEquals(5.0, out.y, 1e-9);
+        assertEquals(Math.PI / 2, out.heading, 1e-9);
+
+        // Halfway: one of the two units of travel and half the turn remain
+        assertTrue(history.projectToPresent(5 * MS, 5, 5, 0, current, out));
+        assertEquals(5.0 + Math.cos(-Math.PI / 4), out.x, 1e-9);
+        assertEquals(5.0 + Math.sin(-Math.PI / 4), out.y, 1e-9);
+        assertEquals(Math.PI / 4, out.heading, 1e-9);
+
+        assertFalse(history.projectToPresent(-1, 5, 5, 0, current, out));
+    }
+
+    @Test
+    public void captureAfterNewestPoseIsTreatedAsNow() {
+        HydraPoseHistory history = new HydraPoseHistory(8);
+        history.record(0, 0, 0, 0);
+        history.record(10 * MS, 1, 0, 0);
+        HydraPose current = new HydraPose(1, 0, 0);
+
+        HydraPose out = new HydraPose();
+        assertTrue(history.projectToPresent(15 * MS, 3, 4, 0.5, current, out));
+        assertEquals(3.0, out.x, 1e-12);
+        assertEquals(4.0, out.y, 1e-12);
+        assertEquals(0.5, out.heading, 1e-12);
+
+        // The correction also moves the newest pose
+        history.rebase(15 * MS, current, out);
+        HydraPose newest = new HydraPose();
+        assertTrue(history.getPose(10 * MS, newest));
+        assertEquals(3.0, newest.x, 1e-12);
+        assertEquals(4.0, newest.y, 1e-12);
+        assertEquals(0.5, newest.heading, 1e-12);
+    }
+
+    @Test
+    public void rebaseMovesOnlyPosesFromTheCorrectionOn() {
+        HydraPoseHistory history = new HydraPoseHistory(8);
+        for (int i = 0; i <= 4; i++) {
+            history.record(i * 10 * MS, i, 0, 0);
+        }
+
+        // Correct the current pose (4, 0, 0) to (4, 1, pi / 2), from the pose at 20 ms on
+        history.rebase(20 * MS, new HydraPose(4, 0, 0), new HydraPose(4, 1, Math.PI / 2));
+
+        HydraPose pose = new HydraPose();
+        assertTrue(history.getPose(10 * MS, pose));
+        assertEquals(1.0, pose.x, 1e-12);
+        assertEquals(0.0, pose.y, 1e-12);
+        assertEquals(0.0, pose.heading, 1e-12);
+
+        // (2, 0) is 2 behind the corrected pose, which now faces +y
+        assertTrue(history.getPose(20 * MS, pose));
+        assertEquals(4.0, pose.x, 1e-12);
+        assertEquals(-1.0, pose.y, 1e-12);
+        assertEquals(Math.PI / 2, pose.heading, 1e-12);
+
+        assertTrue(history.getPose(40 * MS, pose));
+        assertEquals(4.0, pose.x, 1e-12);
+        assertEquals(1.0, pose.y, 1e-12);
+    }
+}
@@ -0,0 +1,87 @@
+package com.hydraulichydras.hydralib;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class HydraPoseTest {
+
+    private final HydraPose a = new HydraPose(3.0, 4.0, 3.0);
+    private final HydraPose b = new HydraPose(1.0, 2.0, 0.5);
+
+    @Test
+    public void outParameterMatchesAllocatingVersion() {
+        HydraPose out = new HydraPose(9, 9, 0);
+
+        assertSame(out, a.add(b, out));
+        assertPose(a.add(b), out);
+
+        assertSame(out, a.subtract(b, out));
+        assertPose(a.subtract(b), out);
+
+        assertSame(out, a.divide(b, out));
+        assertPose(a.divide(b), out);
+
+        assertSame(out, a.subt(b, out));
+        assertPose(a.subt(b), out);
+
+        // The inputs are left alone
+        assertPose(new HydraPose(3.0, 4.0, 3.0), a);
+        assertPose(new HydraPose(1.0, 2.0, 0.5), b);
+    }
+
+    @Test
+    public void inPlaceModifiesThisPose() {
+        HydraPose pose = new HydraPose(3.0, 4.0, 3.0);
+        assertSame(pose, pose.addInPlace(b));
+        assertPose(a.add(b), pose);
+
+        pose.set(a);
+        assertSame(pose, pose.subtractInPlace(b));
+        assertPose(a.subtract(b), pose);
+
+        pose.set(a);
+        assertSame(pose, pose.divideInPlace(b));
+        assertPose(a.divide(b), pose);
+
+        pose.set(a);
+        assertSame(pose, pose.subtInPlace(b));
+        assertPose(a.subt(b), pose);
+    }
+
+    @Test
+    public void outMayBeAnInput() {
+        HydraPose pose = new HydraPose(3.0, 4.0, 3.0);
+        pose.add(pose, pose);
+        assertPose(a.add(a), pose);
+    }
+
+    @Test
+    public void setNormalizesHeading() {
+        HydraPose pose = new HydraPose();
+        assertSame(pose, pose.set(1.0, 2.0, 3.0 * Math.PI));
+        assertEquals(1.0, pose.x, 0.0);
+        assertEquals(2.0, pose.y, 0.0);
+        assertEquals(Math.PI, Math.abs(pose.heading), 1e-12);
+    }
+
+    @Test
+    public void vectorsAreWrittenIntoOut() {
+        HydraVector2d out = new HydraVector2d();
+        assertSame(out, a.vec(out));
+        assertEquals(3.0, out.x, 0.0);
+        assertEquals(4.0, out.y, 0.0);
+
+        HydraPose facingY = new HydraPose(0, 0, Math.PI / 2);
+        assertSame(out, facingY.headingVec(out));
+        assertEquals(facingY.headingVec().x, out.x, 1e-12);
+        assertEquals(facingY.headingVec().y, out.y, 1e-12);
+    }
+
+    private static void assertPose(HydraPose expected, HydraPose actual) {
+        assertEquals(expected.x, actual.x, 1e-12);
+        assertEquals(expected.y, actual.y, 1e-12);
+        assertEquals(expected.heading, actual.heading, 1e-12);
+    }
+}
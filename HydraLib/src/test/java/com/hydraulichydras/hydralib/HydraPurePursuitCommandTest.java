@@ -0,0 +1,174 @@
+package com.hydraulichydras.hydralib;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HydraPurePursuitCommandTest {
+
+    // An L-shaped path: 48 forward, then 48 left while turning to face +y
+    private final HydraPurePursuitPath path = HydraPurePursuitPath.fromPoses(
+            new HydraPose(0, 0, 0),
+            new HydraPose(48, 0, 0),
+            new HydraPose(48, 48, Math.PI / 2));
+
+    private final KinematicDrive drive = new KinematicDrive();
+    private final HydraPurePursuitCommand command = new HydraPurePursuitCommand(drive, path);
+
+    @Test
+    public void carrotIsOneLookaheadAlongThePath() {
+        command.initialize();
+        command.execute();
+
+        // Stationary at the start: the carrot is 6 ahead on the first segment
+        assertEquals(0.8, drive.power.x, 1e-9);
+        assertEquals(0.0, drive.power.y, 1e-9);
+        assertEquals(0.0, drive.power.heading, 1e-9);
+    }
+
+    @Test
+    public void carrotCarriesOntoTheNextSegment() {
+        command.initialize();
+        drive.pose.set(45, 0, 0);
+        command.execute();
+
+        // 6 along from x = 45 is 3 past the corner, at (48, 3), and 3 / 48 of the way through the turn
+        assertEquals(drive.power.x, drive.power.y, 1e-9);
+        assertTrue(drive.power.x > 0);
+        assertEquals(Math.PI / 2 * 3 / 48, drive.power.heading, 1e-9);
+    }
+
+    @Test
+    public void carrotIsInTheRobotFrame() {
+        command.initialize();
+        drive.pose.set(0, 0, Math.PI / 2);
+        command.execute();
+
+        // Facing +y, the carrot straight along +x is to the robot's right
+        assertEquals(0.0, drive.power.x, 1e-9);
+        assertEquals(-0.8, drive.power.y, 1e-9);
+    }
+
+    @Test
+    public void followsPathToTheEnd() {
+        double time = HydraSimulation.run(command, drive, 0.01, 10.0);
+
+        assertTrue("Took " + time, time < 10.0);
+        assertTrue(command.isFinished());
+        assertEquals(48.0, drive.pose.x, 1.0);
+        assertEquals(48.0, drive.pose.y, 1.0);
+        assertEquals(Math.PI / 2, drive.pose.heading, Math.toRadians(2.0));
+
+        // Cutting the corner towards the carrot stays within half the longest lookahead of the path
+        assertTrue("Strayed " + drive.maxCrossTrack, drive.maxCrossTrack < 9.0);
+
+        // Ending stops the drive
+        assertEquals(0.0, drive.power.x, 0.0);
+        assertEquals(0.0, drive.power.y, 0.0);
+        assertEquals(0.0, drive.power.heading, 0.0);
+    }
+
+    @Test
+    public void endWaitsForHeading() {
+        command.initialize();
+        drive.pose.set(48, 48, 0);
+        command.execute();
+
+        // In position but facing the wrong way: only turn
+        assertFalse(command.isFinished());
+        assertEquals(0.0, drive.power.x, 0.0);
+        assertEquals(0.0, drive.power.y, 0.0);
+        assertEquals(0.8, drive.power.heading, 1e-9);
+
+        drive.pose.set(48, 48, Math.PI / 2);
+        command.execute();
+        assertTrue(command.isFinished());
+    }
+
+    @Test
+    public void carrotStopsAtTheEndOfThePath() {
+        command.initialize();
+        drive.pose.set(48, 40, Math.PI / 2);
+        command.execute();
+        command.execute();
+
+        // 8 from the end: the carrot is the end point and power has ramped down
+        assertEquals(0.8 * 8 / 12, drive.power.x, 1e-9);
+        assertEquals(0.0, drive.power.y, 1e-9);
+        assertFalse(command.isFinished());
+    }
+
+    // Holonomic drive that moves exactly as commanded
+    private static class KinematicDrive extends HydraDrive implements HydraSimulatedPlant {
+
+        // Speed at full power (in inches and radians per second)
+        private static final double MAX_SPEED = 40.0;
+        private static final double MAX_TURN_RATE = 4.0;
+
+        final HydraPose pose = new HydraPose();
+        final HydraPose velocity = new HydraPose();
+        final HydraPose power = new HydraPose();
+
+        // Furthest the robot strayed from the path
+        double maxCrossTrack;
+
+        @Override
+        protected double getRawExternalHeading() {
+            return pose.heading;
+        }
+
+        @Override
+        public HydraPose getPoseEstimate() {
+            return pose;
+        }
+
+        @Override
+        public HydraPose getPoseVelocity() {
+            return velocity;
+        }
+
+        @Override
+        public void setDriveSignal(HydraDriveSignal driveSignal) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setDrivePower(HydraPose drivePower) {
+            power.set(drivePower);
+        }
+
+        @Override
+        public void setInput(double input) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public double getMeasurement() {
+            return pose.x;
+        }
+
+        @Override
+        public void step(double dt) {
+            double cos = Math.cos(pose.heading);
+            double sin = Math.sin(pose.heading);
+            velocity.x = (cos * power.x - sin * power.y) * MAX_SPEED;
+            velocity.y = (sin * power.x + cos * power.y) * MAX_SPEED;
+            velocity.heading = power.heading * MAX_TURN_RATE;
+            pose.set(pose.x + velocity.x * dt, pose.y + velocity.y * dt, pose.heading + velocity.heading * dt);
+
+            // Distance to the nearer of the two legs of the path
+            double first = Math.hypot(pose.x - Math.max(0, Math.min(48, pose.x)), pose.y);
+            double second = Math.hypot(pose.x - 48, pose.y - Math.max(0, Math.min(48, pose.y)));
+            maxCrossTrack = Math.max(maxCrossTrack, Math.min(first, second));
+        }
+
+        @Override
+        public void reset() {
+            pose.set(0, 0, 0);
+            velocity.set(0, 0, 0);
+            power.set(0, 0, 0);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.hydraulichydras.hydralib;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HydraRelayTuneCommandTest {
+
+    // A flywheel: 100 ticks per second per unit of power, with a 0.1 s time constant and 0.05 s dead time
+    private static final double GAIN = 100.0;
+    private static final double TIME_CONSTANT = 0.1;
+    private static final double DEAD_TIME = 0.05;
+
+    private static final double SETPOINT = 50.0;
+    private static final double BIAS = 0.5;
+    private static final double AMPLITUDE = 0.2;
+    private static final double DT = 0.001;
+
+    @Test
+    public void relayOscillationMatchesFirstOrderPlantWithDeadTime() {
+        HydraRelayTuneCommand command = tune();
+        assertTrue(command.isSuccessful());
+
+        // Exact relay limit cycle of K e^(-Ls) / (Ts + 1), with the switch read one loop late
+        double lag = Math.exp(-(DEAD_TIME + DT) / TIME_CONSTANT);
+        double oscillation = GAIN * AMPLITUDE * (1.0 - lag);
+        double period = 2.0 * TIME_CONSTANT * Math.log(2.0 / lag - 1.0);
+        assertEquals(oscillation, command.getOscillationAmplitude(), 0.02 * oscillation);
+        assertEquals(period, command.getUltimatePeriod(), 0.02 * period);
+        assertEquals(4.0 * AMPLITUDE / (Math.PI * oscillation), command.getUltimateGain(), 0.02 * 4.0 * AMPLITUDE / (Math.PI * oscillation));
+
+        // Against the phase crossover, where w L + atan(w T) = pi, the relay gets Tu closely and Ku conservatively
+        double frequency = phaseCrossover();
+        double ultimatePeriod = 2.0 * Math.PI / frequency;
+        double ultimateGain = Math.hypot(1.0, frequency * TIME_CONSTANT) / GAIN;
+        assertEquals(ultimatePeriod, command.getUltimatePeriod(), 0.05 * ultimatePeriod);
+        assertTrue(command.getUltimateGain() < ultimateGain);
+        assertTrue(command.getUltimateGain() > 0.8 * ultimateGain);
+    }
+
+    @Test
+    public void everyRuleSettles() {
+        HydraRelayTuneCommand command = tune();
+        for (HydraTuningRule rule : HydraTuningRule.values()) {
+            HydraMotorPlant plant = new HydraMotorPlant(HydraControlTarget.VELOCITY, GAIN, TIME_CONSTANT, DEAD_TIME);
+            HydraPIDFController controller = new HydraPIDFController(command.getCoefficients(rule))
+                    .setOutputLimits(-1.0, 1.0);
+
+            double worst = 0.0;
+            for (int i = 0; i < 5000; i++) {
+                plant.setInput(controller.calculate(plant.getMeasurement(), SETPOINT, DT));
+                plant.step(DT);
+                if (i >= 4000) {
+                    worst = Math.max(worst, Math.abs(plant.getMeasurement() - SETPOINT));
+                }
+            }
+            assertTrue(rule + " is still off by " + worst, worst < 0.01 * SETPOINT);
+        }
+    }
+
+    // Runs the relay experiment around the setpoint
+    private static HydraRelayTuneCommand tune() {
+        HydraMotorPlant plant = new HydraMotorPlant(HydraControlTarget.VELOCITY, GAIN, TIME_CONSTANT, DEAD_TIME);
+        HydraRelayTuneCommand command = new HydraRelayTuneCommand(null, plant::getMeasurement, plant::setInput,
+                SETPOINT, AMPLITUDE).setBias(BIAS).setCycles(3, 5);
+        double time = HydraSimulation.run(command, plant, DT, 5.0);
+        assertTrue("Took " + time, time < 5.0);
+        return command;
+    }
+
+    // Solves w L + atan(w T) = pi by bisection
+    private static double phaseCrossover() {
+        double low = 0.0;
+        double high = Math.PI / DEAD_TIME;
+        for (int i = 0; i < 100; i++) {
+            double mid = (low + high) / 2.0;
+            if (mid * DEAD_TIME + Math.atan(mid * TIME_CONSTANT) < Math.PI) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,56 @@
+package com.hydraulichydras.hydralib;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class HydraScratchPoolTest {
+
+    @Test
+    public void objectsAreHandedOutOncePerReset() {
+        HydraScratchPool pool = new HydraScratchPool(2, 2);
+        HydraPose first = pool.pose();
+        HydraPose second = pool.pose();
+        assertNotSame(first, second);
+
+        HydraVector2d vector = pool.vector();
+        assertNotSame(vector, pool.vector());
+
+        pool.reset();
+        assertSame(first, pool.pose());
+        assertSame(second, pool.pose());
+        assertSame(vector, pool.vector());
+    }
+
+    @Test
+    public void objectsAreZeroedWhenTaken() {
+        HydraScratchPool pool = new HydraScratchPool(1, 1);
+        pool.pose().set(1.0, 2.0, 0.5);
+        pool.vector().set(3.0, 4.0);
+
+        pool.reset();
+        HydraPose pose = pool.pose();
+        assertEquals(0.0, pose.x, 0.0);
+        assertEquals(0.0, pose.y, 0.0);
+        assertEquals(0.0, pose.heading, 0.0);
+        HydraVector2d vector = pool.vector();
+        assertEquals(0.0, vector.x, 0.0);
+        assertEquals(0.0, vector.y, 0.0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void exhaustedPoolThrowsForPoses() {
+        HydraScratchPool pool = new HydraScratchPool(1, 1);
+        pool.pose();
+        pool.pose();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void exhaustedPoolThrowsForVectors() {
+        HydraScratchPool pool = new HydraScratchPool(1, 1);
+        pool.vector();
+        pool.vector();
+    }
+}
@@ -0,0 +1,54 @@
+package com.hydraulichydras.hydralib;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long it takes to generate a {@link HydraSplinePath}, including its arc-length table, through 5 to 10
+ * waypoints. Run {@link #main} from the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HydraSplinePathBenchmark {
+
+    @Param({"5", "7", "10"})
+    public int waypointCount;
+
+    private HydraPose[] waypoints;
+
+    @Setup
+    public void setUp() {
+        // Zig-zag across the field, turning at every waypoint
+        waypoints = new HydraPose[waypointCount];
+        for (int i = 0; i < waypointCount; i++) {
+            waypoints[i] = new HydraPose(24.0 * i, i % 2 == 0 ? 0.0 : 24.0, i % 2 == 0 ? 0.5 : -0.5);
+        }
+    }
+
+    @Benchmark
+    public HydraSplinePath generate() {
+        return new HydraSplinePath(waypoints);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(HydraSplinePathBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,114 @@
+package com.hydraulichydras.hydralib;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class HydraTrajectoryCacheTest {
+
+    private final HydraDriveConstraints constraints = new HydraDriveConstraints(50.0, 40.0, 60.0, 14.0, 12.0);
+    private final HydraPose start = new HydraPose(0, 0, 0);
+    private final HydraPose end = new HydraPose(48, 24, Math.PI / 2);
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void storedTrajectoryIsLoadedUnchanged() throws IOException {
+        File directory = folder.newFolder("trajectories");
+        HydraTrajectoryCache cache = new HydraTrajectoryCache(directory);
+        HydraTrajectory generated = cache.get("curve", constraints, start, end);
+        assertNull(cache.getError());
+
+        // Loaded trajectories are mapped from the file rather than generated
+        HydraTrajectory loaded = new HydraTrajectoryCache(directory).get("curve", constraints, start, end);
+        assertFalse(generated.getSamples().isDirect());
+        assertTrue(loaded.getSamples().isDirect());
+        assertEquals(generated.getDt(), loaded.getDt(), 0.0);
+        assertEquals(generated.getSamples(), loaded.getSamples());
+    }
+
+    @Test
+    public void hashCoversEverythingThatAffectsGeneration() {
+        long hash = HydraTrajectoryCache.hash(constraints, 0.25, 0.01, start, end);
+        assertEquals(hash, HydraTrajectoryCache.hash(constraints, 0.25, 0.01, new HydraPose(0, 0, 0), new HydraPose(48, 24, Math.PI / 2)));
+
+        assertNotEquals(hash, HydraTrajectoryCache.hash(constraints, 0.25, 0.01, start, new HydraPose(48, 24.001, Math.PI / 2)));
+        assertNotEquals(hash, HydraTrajectoryCache.hash(constraints, 0.25, 0.01, start, new HydraPose(48, 24, 0)));
+        assertNotEquals(hash, HydraTrajectoryCache.hash(constraints, 0.25, 0.01, start, end, end));
+        assertNotEquals(hash, HydraTrajectoryCache.hash(constraints, 0.5, 0.01, start, end));
+        assertNotEquals(hash, HydraTrajectoryCache.hash(constraints, 0.25, 0.02, start, end));
+
+        HydraDriveConstraints faster = new HydraDriveConstraints(60.0, 40.0, 60.0, 14.0, 12.0);
+        assertNotEquals(hash, HydraTrajectoryCache.hash(faster, 0.25, 0.01, start, end));
+        HydraDriveConstraints wider = new HydraDriveConstraints(50.0, 40.0, 60.0, 16.0, 12.0);
+        assertNotEquals(hash, HydraTrajectoryCache.hash(wider, 0.25, 0.01, start, end));
+    }
+
+    @Test
+    public void staleTrajectoryIsRegenerated() throws IOException {
+        HydraTrajectoryCache cache = new HydraTrajectoryCache(folder.newFolder("trajectories"));
+        cache.get("curve", constraints, start, end);
+
+        // Same name, moved end point
+        HydraPose moved = new HydraPose(24, 48, Math.PI / 2);
+        HydraTrajectory regenerated = cache.get("curve", constraints, start, moved);
+        assertFalse(regenerated.getSamples().isDirect());
+        assertEndsAt(moved, regenerated);
+
+        // The file now holds the new trajectory
+        HydraTrajectory loaded = cache.get("curve", constraints, start, moved);
+        assertTrue(loaded.getSamples().isDirect());
+        assertEndsAt(moved, loaded);
+    }
+
+    @Test
+    public void damagedFileIsRegenerated() throws IOException {
+        File directory = folder.newFolder("trajectories");
+        HydraTrajectoryCache cache = new HydraTrajectoryCache(directory);
+        cache.get("curve", constraints, start, end);
+
+        try (RandomAccessFile file = new RandomAccessFile(new File(directory, "curve.traj"), "rw")) {
+            file.setLength(file.length() - 8);
+        }
+        HydraTrajectory trajectory = cache.get("curve", constraints, start, end);
+        assertFalse(trajectory.getSamples().isDirect());
+        assertEndsAt(end, trajectory);
+        assertTrue(cache.get("curve", constraints, start, end).getSamples().isDirect());
+    }
+
+    @Test
+    public void storageErrorIsReportedButNotThrown() throws IOException {
+        // A file where the folder should be
+        HydraTrajectoryCache cache = new HydraTrajectoryCache(folder.newFile("trajectories"));
+        HydraTrajectory trajectory = cache.get("curve", constraints, start, end);
+
+        assertEndsAt(end, trajectory);
+        assertNotNull(cache.getError());
+    }
+
+    @Test
+    public void clearDeletesStoredTrajectories() throws IOException {
+        HydraTrajectoryCache cache = new HydraTrajectoryCache(folder.newFolder("trajectories"));
+        cache.get("curve", constraints, start, end);
+        cache.clear();
+        assertFalse(cache.get("curve", constraints, start, end).getSamples().isDirect());
+    }
+
+    private static void assertEndsAt(HydraPose expected, HydraTrajectory trajectory) {
+        HydraPose pose = trajectory.getPose(trajectory.size() - 1, new HydraPose());
+        assertEquals(expected.x, pose.x, 1e-3);
+        assertEquals(expected.y, pose.y, 1e-3);
+    }
+}
@@ -0,0 +1,63 @@
+package com.hydraulichydras.hydralib;
+
+import org.junit.Test;
+
+import java.nio.DoubleBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HydraTrajectoryGeneratorTest {
+
+    private final HydraDriveConstraints constraints = new HydraDriveConstraints(50.0, 40.0, 60.0, 14.0, 12.0);
+
+    @Test
+    public void trajectoryStartsAndEndsAtRest() {
+        HydraSplinePath path = new HydraSplinePath(new HydraPose(0, 0, 0), new HydraPose(48, 24, Math.PI / 2));
+        HydraTrajectory trajectory = HydraTrajectoryGenerator.generate(path, constraints);
+        HydraDriveSignal signal = new HydraDriveSignal();
+
+        assertAllFinite(trajectory);
+        assertEquals(0.0, trajectory.getDriveSignal(0, signal).getVel().x, 1e-9);
+        assertEquals(0.0, trajectory.getDriveSignal(trajectory.size() - 1, signal).getVel().x, 1e-9);
+
+        HydraPose end = trajectory.getPose(trajectory.size() - 1, new HydraPose());
+        assertEquals(48.0, end.x, 1e-3);
+        assertEquals(24.0, end.y, 1e-3);
+    }
+
+    @Test
+    public void zeroLengthPathHasFiniteSamples() {
+        HydraSplinePath path = new HydraSplinePath(new HydraPose(10, 5, 0), new HydraPose(10, 5, 0));
+        HydraTrajectory trajectory = HydraTrajectoryGenerator.generate(path, constraints);
+
+        assertEquals(0.0, trajectory.getDuration(), 0.0);
+        assertAllFinite(trajectory);
+        HydraPose pose = trajectory.getPose(0, new HydraPose());
+        assertEquals(10.0, pose.x, 1e-9);
+        assertEquals(5.0, pose.y, 1e-9);
+    }
+
+    @Test
+    public void pathShorterThanResolutionStillMoves() {
+        double length = HydraTrajectoryGenerator.DEFAULT_RESOLUTION * 0.8;
+        HydraSplinePath path = new HydraSplinePath(new HydraPose(0, 0, 0), new HydraPose(length, 0, 0));
+        HydraTrajectory trajectory = HydraTrajectoryGenerator.generate(path, constraints);
+
+        // Accelerate for half the path and brake for the other half
+        assertEquals(2.0 * Math.sqrt(length / constraints.maxWheelAcceleration), trajectory.getDuration(), 0.01);
+        assertAllFinite(trajectory);
+        HydraPose end = trajectory.getPose(trajectory.size() - 1, new HydraPose());
+        assertEquals(length, end.x, 1e-9);
+        assertEquals(0.0, end.y, 1e-9);
+    }
+
+    private static void assertAllFinite(HydraTrajectory trajectory) {
+        DoubleBuffer samples = trajectory.getSamples();
+        assertTrue(samples.limit() > 0);
+        for (int i = 0; i < samples.limit(); i++) {
+            assertFalse("Sample value " + i + " is not finite", Double.isNaN(samples.get(i)) || Double.isInfinite(samples.get(i)));
+        }
+    }
+}
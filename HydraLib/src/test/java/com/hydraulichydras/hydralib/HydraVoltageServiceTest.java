@@ -0,0 +1,97 @@
+package com.hydraulichydras.hydralib;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HydraVoltageServiceTest {
+
+    private final HydraVirtualClock clock = new HydraVirtualClock();
+
+    // Voltage returned by the sensor, and the number of times it was read
+    private double batteryVoltage = 12.0;
+    private int sensorReads;
+
+    private HydraVoltageService service;
+
+    @Before
+    public void setUp() {
+        clock.install();
+        service = new HydraVoltageService(() -> {
+            sensorReads++;
+            return batteryVoltage;
+        });
+    }
+
+    @After
+    public void tearDown() {
+        HydraLoopCache.getInstance().reset();
+        clock.uninstall();
+    }
+
+    @Test
+    public void sensorIsReadOncePerSamplePeriod() {
+        HydraLoopCache cache = HydraLoopCache.getInstance();
+        cache.setVoltageService(service);
+
+        // 1000 loops of 10 ms, with several subsystems asking for the voltage each loop
+        double compensation = 0.0;
+        for (int i = 0; i < 1000; i++) {
+            cache.update();
+            for (int j = 0; j < 6; j++) {
+                compensation = cache.getVoltageCompensation();
+            }
+            clock.advance(0.01);
+        }
+
+        assertEquals(100, sensorReads);
+        assertEquals(100, service.getSampleCount());
+        assertEquals(1.0, compensation, 1e-12);
+    }
+
+    @Test
+    public void readingsAreFilteredOverTime() {
+        service.setSamplePeriod(0.1).setTimeConstant(0.5);
+        service.update(clock.getAsLong());
+        assertEquals(12.0, service.getVoltage(), 0.0);
+
+        batteryVoltage = 10.0;
+        clock.advance(0.1);
+        service.update(clock.getAsLong());
+        assertEquals(12.0 - 2.0 * (1.0 - Math.exp(-0.2)), service.getVoltage(), 1e-12);
+
+        // The filter settles on the new voltage
+        for (int i = 0; i < 100; i++) {
+            clock.advance(0.1);
+            service.update(clock.getAsLong());
+        }
+        assertEquals(10.0, service.getVoltage(), 1e-6);
+        assertEquals(1.2, service.getCompensation(), 1e-6);
+    }
+
+    @Test
+    public void dropoutsAreIgnored() {
+        service.setTimeConstant(0.0);
+        service.update(clock.getAsLong());
+
+        batteryVoltage = 0.0;
+        clock.advance(1.0);
+        service.update(clock.getAsLong());
+
+        assertEquals(2, sensorReads);
+        assertEquals(12.0, service.getVoltage(), 0.0);
+    }
+
+    @Test
+    public void compensationIsOneBeforeFirstReading() {
+        batteryVoltage = 0.0;
+        service.update(clock.getAsLong());
+
+        assertTrue(Double.isNaN(service.getVoltage()));
+        assertEquals(1.0, service.getCompensation(), 0.0);
+        assertEquals(1.0, HydraLoopCache.getInstance().getVoltageCompensation(), 0.0);
+    }
+}